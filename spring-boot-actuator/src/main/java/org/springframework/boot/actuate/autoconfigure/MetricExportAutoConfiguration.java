@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.MetricExportProperties.Graphite;
+import org.springframework.boot.actuate.autoconfigure.MetricExportProperties.Statsd;
+import org.springframework.boot.actuate.metrics.export.DeltaMetricExporter;
+import org.springframework.boot.actuate.metrics.export.Exporter;
+import org.springframework.boot.actuate.metrics.export.MetricExporters;
+import org.springframework.boot.actuate.metrics.graphite.GraphiteMetricWriter;
+import org.springframework.boot.actuate.metrics.repository.MetricRepository;
+import org.springframework.boot.actuate.metrics.statsd.StatsdMetricWriter;
+import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the scheduled export of
+ * metrics. If a StatsD or Graphite host is configured the contents of the
+ * {@link MetricRepository} are exported to it periodically, sending only the changes
+ * since the previous export. Other {@link Exporter} beans are not triggered, but can be
+ * scheduled by defining a {@link MetricExporters} bean.
+ *
+ * @author Dave Syer
+ * @see MetricExportProperties
+ * @see MetricExporters
+ */
+@Configuration
+@ConditionalOnBean(MetricRepository.class)
+@ConditionalOnProperty(prefix = "spring.metrics.export", name = "enabled", matchIfMissing = true)
+@AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
+@EnableConfigurationProperties(MetricExportProperties.class)
+public class MetricExportAutoConfiguration {
+
+	@Autowired
+	private MetricExportProperties properties;
+
+	@Autowired
+	private MetricRepository repository;
+
+	@Bean
+	@ConditionalOnMissingBean
+	public MetricExporters metricExporters() {
+		MetricExporters metricExporters = new MetricExporters(
+				this.properties.getDelayMillis());
+		Statsd statsd = this.properties.getStatsd();
+		if (StringUtils.hasText(statsd.getHost())) {
+			metricExporters.addExporter(createExporter(new StatsdMetricWriter(statsd
+					.getHost(), statsd.getPort(), this.properties.getQueueCapacity(),
+					statsd.getMaxPacketSize())));
+		}
+		Graphite graphite = this.properties.getGraphite();
+		if (StringUtils.hasText(graphite.getHost())) {
+			metricExporters.addExporter(createExporter(new GraphiteMetricWriter(graphite
+					.getHost(), graphite.getPort(), this.properties.getQueueCapacity(),
+					graphite.getMaxBatchSize())));
+		}
+		return metricExporters;
+	}
+
+	private Exporter createExporter(MetricWriter writer) {
+		return new DeltaMetricExporter(this.repository, writer,
+				this.properties.getPrefix());
+	}
+
+}
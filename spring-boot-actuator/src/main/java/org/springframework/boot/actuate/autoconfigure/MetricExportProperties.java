@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.springframework.boot.actuate.metrics.graphite.GraphiteMetricWriter;
+import org.springframework.boot.actuate.metrics.statsd.StatsdMetricWriter;
+import org.springframework.boot.actuate.metrics.writer.BufferedMetricWriter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the scheduled export of metrics.
+ *
+ * @author Dave Syer
+ * @see MetricExportAutoConfiguration
+ */
+@ConfigurationProperties(prefix = "spring.metrics.export")
+public class MetricExportProperties {
+
+	/**
+	 * Enable the scheduled export of metrics to the configured StatsD and Graphite
+	 * servers.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Delay in milliseconds between the end of one export and the start of the next.
+	 */
+	private long delayMillis = 5000;
+
+	/**
+	 * Prefix added to the names of exported metrics (e.g. an application or host name).
+	 */
+	private String prefix = "";
+
+	/**
+	 * Maximum number of metric updates buffered for each target. Further updates are
+	 * dropped when a target cannot keep up.
+	 */
+	private int queueCapacity = BufferedMetricWriter.DEFAULT_QUEUE_CAPACITY;
+
+	private final Statsd statsd = new Statsd();
+
+	private final Graphite graphite = new Graphite();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getDelayMillis() {
+		return this.delayMillis;
+	}
+
+	public void setDelayMillis(long delayMillis) {
+		this.delayMillis = delayMillis;
+	}
+
+	public String getPrefix() {
+		return this.prefix;
+	}
+
+	public void setPrefix(String prefix) {
+		this.prefix = prefix;
+	}
+
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public Statsd getStatsd() {
+		return this.statsd;
+	}
+
+	public Graphite getGraphite() {
+		return this.graphite;
+	}
+
+	public static class Statsd {
+
+		/**
+		 * StatsD host. Metrics are only exported to StatsD if a host is set.
+		 */
+		private String host;
+
+		/**
+		 * StatsD port.
+		 */
+		private int port = 8125;
+
+		/**
+		 * Maximum size of each datagram sent to StatsD.
+		 */
+		private int maxPacketSize = StatsdMetricWriter.DEFAULT_MAX_PACKET_SIZE;
+
+		public String getHost() {
+			return this.host;
+		}
+
+		public void setHost(String host) {
+			this.host = host;
+		}
+
+		public int getPort() {
+			return this.port;
+		}
+
+		public void setPort(int port) {
+			this.port = port;
+		}
+
+		public int getMaxPacketSize() {
+			return this.maxPacketSize;
+		}
+
+		public void setMaxPacketSize(int maxPacketSize) {
+			this.maxPacketSize = maxPacketSize;
+		}
+
+	}
+
+	public static class Graphite {
+
+		/**
+		 * Graphite (Carbon) host. Metrics are only exported to Graphite if a host is
+		 * set.
+		 */
+		private String host;
+
+		/**
+		 * Graphite plaintext protocol port.
+		 */
+		private int port = 2003;
+
+		/**
+		 * Maximum number of bytes sent to Graphite in each write.
+		 */
+		private int maxBatchSize = GraphiteMetricWriter.DEFAULT_MAX_BATCH_SIZE;
+
+		public String getHost() {
+			return this.host;
+		}
+
+		public void setHost(String host) {
+			this.host = host;
+		}
+
+		public int getPort() {
+			return this.port;
+		}
+
+		public void setPort(int port) {
+			this.port = port;
+		}
+
+		public int getMaxBatchSize() {
+			return this.maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+	}
+
+}
@@ -16,36 +16,27 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
-import java.io.IOException;
-
 import javax.servlet.Filter;
-import javax.servlet.FilterChain;
 import javax.servlet.Servlet;
-import javax.servlet.ServletException;
 import javax.servlet.ServletRegistration;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.Ordered;
-import org.springframework.core.annotation.Order;
-import org.springframework.http.HttpStatus;
-import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.servlet.HandlerMapping;
-import org.springframework.web.util.UrlPathHelper;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} that records Servlet interactions
- * with a {@link CounterService} and {@link GaugeService}.
+ * with a {@link CounterService} and {@link GaugeService} (or, if configured, a
+ * {@link TimerService} for response times).
  *
  * @author Dave Syer
  * @author Phillip Webb
@@ -55,102 +46,28 @@ import org.springframework.web.util.UrlPathHelper;
 @ConditionalOnClass({ Servlet.class, ServletRegistration.class,
 		OncePerRequestFilter.class })
 @AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
+@EnableConfigurationProperties(MetricFilterProperties.class)
 public class MetricFilterAutoConfiguration {
 
-	private static final int UNDEFINED_HTTP_STATUS = 999;
-
-	private static final String UNKNOWN_PATH_SUFFIX = "/unmapped";
-
 	@Autowired
 	private CounterService counterService;
 
 	@Autowired
 	private GaugeService gaugeService;
 
-	@Bean
-	public Filter metricFilter() {
-		return new MetricsFilter();
-	}
-
-	/**
-	 * Filter that counts requests and measures processing times.
-	 */
-	@Order(Ordered.HIGHEST_PRECEDENCE)
-	private final class MetricsFilter extends OncePerRequestFilter {
+	@Autowired(required = false)
+	private TimerService timerService;
 
-		@Override
-		protected void doFilterInternal(HttpServletRequest request,
-				HttpServletResponse response, FilterChain chain) throws ServletException,
-				IOException {
-			UrlPathHelper helper = new UrlPathHelper();
-			String suffix = helper.getPathWithinApplication(request);
-			StopWatch stopWatch = new StopWatch();
-			stopWatch.start();
-			try {
-				chain.doFilter(request, response);
-			}
-			finally {
-				stopWatch.stop();
-				int status = getStatus(response);
-				Object bestMatchingPattern = request
-						.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
-				HttpStatus httpStatus = HttpStatus.OK;
-				try {
-					httpStatus = HttpStatus.valueOf(status);
-				}
-				catch (Exception ex) {
-					// not convertible
-				}
-				if (bestMatchingPattern != null) {
-					suffix = fixSpecialCharacters(bestMatchingPattern.toString());
-				}
-				else if (httpStatus.is4xxClientError()) {
-					suffix = UNKNOWN_PATH_SUFFIX;
-				}
-				String gaugeKey = getKey("response" + suffix);
-				MetricFilterAutoConfiguration.this.gaugeService.submit(gaugeKey,
-						stopWatch.getTotalTimeMillis());
-				String counterKey = getKey("status." + status + suffix);
-				MetricFilterAutoConfiguration.this.counterService.increment(counterKey);
-			}
-		}
-
-		private String fixSpecialCharacters(String value) {
-			String result = value.replaceAll("[{}]", "-");
-			result = result.replace("**", "-star-star-");
-			result = result.replace("*", "-star-");
-			result = result.replace("/-", "/");
-			result = result.replace("-/", "/");
-			if (result.endsWith("-")) {
-				result = result.substring(0, result.length() - 1);
-			}
-			if (result.startsWith("-")) {
-				result = result.substring(1);
-			}
-			return result;
-		}
-
-		private int getStatus(HttpServletResponse response) {
-			try {
-				return response.getStatus();
-			}
-			catch (Exception ex) {
-				return UNDEFINED_HTTP_STATUS;
-			}
-		}
+	@Autowired
+	private MetricFilterProperties properties;
 
-		private String getKey(String string) {
-			// graphite compatible metric names
-			String value = string.replace("/", ".");
-			value = value.replace("..", ".");
-			if (value.endsWith(".")) {
-				value = value + "root";
-			}
-			if (value.startsWith("_")) {
-				value = value.substring(1);
-			}
-			return value;
+	@Bean
+	public Filter metricFilter() {
+		MetricsFilter filter = new MetricsFilter(this.counterService, this.gaugeService);
+		if (this.properties.isResponseTimeHistogram() && this.timerService != null) {
+			filter.setTimerService(this.timerService);
 		}
+		return filter;
 	}
 
 }
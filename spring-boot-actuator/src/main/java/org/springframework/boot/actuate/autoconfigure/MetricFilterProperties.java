@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the servlet metrics filter.
+ *
+ * @author Dave Syer
+ * @see MetricFilterAutoConfiguration
+ */
+@ConfigurationProperties(prefix = "spring.metrics.filter")
+public class MetricFilterProperties {
+
+	/**
+	 * Record response times in a latency histogram (exposed as "timer.response.*"
+	 * percentiles) instead of a last-value gauge. Requires a TimerService.
+	 */
+	private boolean responseTimeHistogram = false;
+
+	public boolean isResponseTimeHistogram() {
+		return this.responseTimeHistogram;
+	}
+
+	public void setResponseTimeHistogram(boolean responseTimeHistogram) {
+		this.responseTimeHistogram = responseTimeHistogram;
+	}
+
+}
@@ -25,7 +25,10 @@ import org.springframework.boot.actuate.endpoint.MetricReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
 import org.springframework.boot.actuate.metrics.export.Exporter;
+import org.springframework.boot.actuate.metrics.histogram.HistogramRepository;
+import org.springframework.boot.actuate.metrics.histogram.InMemoryHistogramRepository;
 import org.springframework.boot.actuate.metrics.reader.MetricRegistryMetricReader;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.boot.actuate.metrics.repository.MetricRepository;
@@ -33,6 +36,7 @@ import org.springframework.boot.actuate.metrics.writer.CodahaleMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.CompositeMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.DefaultCounterService;
 import org.springframework.boot.actuate.metrics.writer.DefaultGaugeService;
+import org.springframework.boot.actuate.metrics.writer.DefaultTimerService;
 import org.springframework.boot.actuate.metrics.writer.MessageChannelMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
 import org.springframework.boot.actuate.metrics.writer.MetricWriterMessageHandler;
@@ -63,6 +67,11 @@ import com.codahale.metrics.MetricRegistry;
  * optimizations for sending data to remote repositories.
  * </p>
  * <p>
+ * A {@link TimerService} backed by an {@link InMemoryHistogramRepository} is also
+ * created (unless the user provides one), so that the distribution of durations (e.g.
+ * percentiles of request latencies) can be reported, not just their last value.
+ * </p>
+ * <p>
  * If Spring Messaging is on the classpath a {@link MessageChannel} called
  * "metricsChannel" is also created (unless one already exists) and all metric update
  * events are published additionally as messages on that channel. Additional analysis or
@@ -85,6 +94,7 @@ import com.codahale.metrics.MetricRegistry;
  *
  * @see GaugeService
  * @see CounterService
+ * @see TimerService
  * @see MetricWriter
  * @see InMemoryMetricRepository
  * @see CodahaleMetricWriter
@@ -110,6 +120,12 @@ public class MetricRepositoryAutoConfiguration {
 		return new DefaultGaugeService(this.writer);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public TimerService timerService(HistogramRepository histogramRepository) {
+		return new DefaultTimerService(histogramRepository);
+	}
+
 	@Configuration
 	@ConditionalOnMissingBean(MetricRepository.class)
 	static class MetricRepositoryConfiguration {
@@ -121,6 +137,17 @@ public class MetricRepositoryAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnMissingBean(HistogramRepository.class)
+	static class HistogramRepositoryConfiguration {
+
+		@Bean
+		public InMemoryHistogramRepository histogramRepository() {
+			return new InMemoryHistogramRepository();
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass(MessageChannel.class)
 	static class MetricsChannelConfiguration {
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Filter that counts requests and measures processing times. The sanitized metric names
+ * are computed once per request path (the best matching pattern if there is one) and
+ * status code and then cached, so the steady state cost per request is a clock read and
+ * a couple of map lookups.
+ *
+ * @author Dave Syer
+ * @author Phillip Webb
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+final class MetricsFilter extends OncePerRequestFilter {
+
+	private static final int UNDEFINED_HTTP_STATUS = 999;
+
+	private static final String UNKNOWN_PATH_SUFFIX = "/unmapped";
+
+	private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("[{}]");
+
+	/**
+	 * Upper bound on the number of distinct patterns (and, separately, raw paths) whose
+	 * metric names are cached. Beyond that (e.g. with unmapped paths that embed ids) the
+	 * names are computed per request.
+	 */
+	static final int MAX_CACHED_PATHS = 1000;
+
+	private final CounterService counterService;
+
+	private final GaugeService gaugeService;
+
+	private TimerService timerService;
+
+	private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+	private final ConcurrentMap<String, MetricKeys> patternKeys = new ConcurrentHashMap<String, MetricKeys>();
+
+	private final ConcurrentMap<String, MetricKeys> pathKeys = new ConcurrentHashMap<String, MetricKeys>();
+
+	public MetricsFilter(CounterService counterService, GaugeService gaugeService) {
+		this.counterService = counterService;
+		this.gaugeService = gaugeService;
+	}
+
+	/**
+	 * Set a {@link TimerService} to record response times with. If set, response times
+	 * are recorded as timer durations instead of gauge values.
+	 * @param timerService the timer service
+	 */
+	public void setTimerService(TimerService timerService) {
+		this.timerService = timerService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request,
+			HttpServletResponse response, FilterChain chain) throws ServletException,
+			IOException {
+		long start = System.nanoTime();
+		try {
+			chain.doFilter(request, response);
+		}
+		finally {
+			long time = System.nanoTime() - start;
+			int status = getStatus(response);
+			MetricKeys keys = getKeys(request, status);
+			if (this.timerService != null) {
+				this.timerService.record(keys.gaugeKey, time, TimeUnit.NANOSECONDS);
+			}
+			else {
+				this.gaugeService.submit(keys.gaugeKey,
+						TimeUnit.NANOSECONDS.toMillis(time));
+			}
+			this.counterService.increment(keys.getCounterKey(status));
+		}
+	}
+
+	private MetricKeys getKeys(HttpServletRequest request, int status) {
+		Object bestMatchingPattern = request
+				.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (bestMatchingPattern != null) {
+			return getKeys(this.patternKeys, bestMatchingPattern.toString(), true);
+		}
+		if (is4xxClientError(status)) {
+			return getKeys(this.pathKeys, UNKNOWN_PATH_SUFFIX, false);
+		}
+		return getKeys(this.pathKeys,
+				this.urlPathHelper.getPathWithinApplication(request), false);
+	}
+
+	private MetricKeys getKeys(ConcurrentMap<String, MetricKeys> cache, String path,
+			boolean pattern) {
+		MetricKeys keys = cache.get(path);
+		if (keys == null) {
+			keys = new MetricKeys(pattern ? fixSpecialCharacters(path) : path);
+			if (cache.size() < MAX_CACHED_PATHS) {
+				MetricKeys existing = cache.putIfAbsent(path, keys);
+				keys = (existing != null ? existing : keys);
+			}
+		}
+		return keys;
+	}
+
+	private boolean is4xxClientError(int status) {
+		return status >= 400 && status < 500;
+	}
+
+	private int getStatus(HttpServletResponse response) {
+		try {
+			return response.getStatus();
+		}
+		catch (Exception ex) {
+			return UNDEFINED_HTTP_STATUS;
+		}
+	}
+
+	private static String fixSpecialCharacters(String value) {
+		String result = TEMPLATE_VARIABLE.matcher(value).replaceAll("-");
+		result = result.replace("**", "-star-star-");
+		result = result.replace("*", "-star-");
+		result = result.replace("/-", "/");
+		result = result.replace("-/", "/");
+		if (result.endsWith("-")) {
+			result = result.substring(0, result.length() - 1);
+		}
+		if (result.startsWith("-")) {
+			result = result.substring(1);
+		}
+		return result;
+	}
+
+	private static String getKey(String string) {
+		// graphite compatible metric names
+		String value = string.replace("/", ".");
+		value = value.replace("..", ".");
+		if (value.endsWith(".")) {
+			value = value + "root";
+		}
+		if (value.startsWith("_")) {
+			value = value.substring(1);
+		}
+		return value;
+	}
+
+	/**
+	 * The metric names for a single path: the gauge name and the counter names for each
+	 * status code seen so far. Counter names are held in a small copy-on-write array
+	 * since there are usually only a handful of distinct statuses per path.
+	 */
+	private static final class MetricKeys {
+
+		private final String suffix;
+
+		private final String gaugeKey;
+
+		private volatile CounterKey[] counterKeys = new CounterKey[0];
+
+		MetricKeys(String suffix) {
+			this.suffix = suffix;
+			this.gaugeKey = getKey("response" + suffix);
+		}
+
+		public String getCounterKey(int status) {
+			for (CounterKey counterKey : this.counterKeys) {
+				if (counterKey.status == status) {
+					return counterKey.key;
+				}
+			}
+			return addCounterKey(status);
+		}
+
+		private synchronized String addCounterKey(int status) {
+			CounterKey[] existing = this.counterKeys;
+			for (CounterKey counterKey : existing) {
+				if (counterKey.status == status) {
+					return counterKey.key;
+				}
+			}
+			CounterKey[] counterKeys = new CounterKey[existing.length + 1];
+			System.arraycopy(existing, 0, counterKeys, 0, existing.length);
+			counterKeys[existing.length] = new CounterKey(status, getKey("status."
+					+ status + this.suffix));
+			this.counterKeys = counterKeys;
+			return counterKeys[existing.length].key;
+		}
+
+	}
+
+	private static final class CounterKey {
+
+		private final int status;
+
+		private final String key;
+
+		CounterKey(int status, String key) {
+			this.status = status;
+			this.key = key;
+		}
+
+	}
+
+}
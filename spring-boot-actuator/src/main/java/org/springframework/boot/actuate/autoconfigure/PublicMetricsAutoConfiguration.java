@@ -20,13 +20,18 @@ import javax.servlet.Servlet;
 import javax.sql.DataSource;
 
 import org.apache.catalina.startup.Tomcat;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.endpoint.DataSourcePublicMetrics;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.endpoint.HealthPublicMetrics;
+import org.springframework.boot.actuate.endpoint.HistogramReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.MetricReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
 import org.springframework.boot.actuate.endpoint.TomcatPublicMetrics;
+import org.springframework.boot.actuate.metrics.histogram.HistogramReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.boot.actuate.metrics.rich.RichGaugeReader;
@@ -38,6 +43,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -53,12 +60,14 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureAfter({ DataSourceAutoConfiguration.class,
 		MetricRepositoryAutoConfiguration.class })
 @AutoConfigureBefore(EndpointAutoConfiguration.class)
+@EnableConfigurationProperties
 public class PublicMetricsAutoConfiguration {
 
 	@Autowired(required = false)
 	private MetricReader metricReader = new InMemoryMetricRepository();
 
 	@Bean
+	@ConfigurationProperties(prefix = "spring.metrics.system")
 	public SystemPublicMetrics systemPublicMetrics() {
 		return new SystemPublicMetrics();
 	}
@@ -68,6 +77,12 @@ public class PublicMetricsAutoConfiguration {
 		return new MetricReaderPublicMetrics(this.metricReader);
 	}
 
+	@Bean
+	public HealthPublicMetrics healthPublicMetrics(
+			ObjectFactory<HealthEndpoint> healthEndpoint) {
+		return new HealthPublicMetrics(healthEndpoint);
+	}
+
 	@Bean
 	@ConditionalOnBean(RichGaugeReader.class)
 	public RichGaugeReaderPublicMetrics richGaugePublicMetrics(
@@ -75,6 +90,13 @@ public class PublicMetricsAutoConfiguration {
 		return new RichGaugeReaderPublicMetrics(richGaugeReader);
 	}
 
+	@Bean
+	@ConditionalOnBean(HistogramReader.class)
+	public HistogramReaderPublicMetrics histogramPublicMetrics(
+			HistogramReader histogramReader) {
+		return new HistogramReaderPublicMetrics(histogramReader);
+	}
+
 	@ConditionalOnClass(DataSource.class)
 	@ConditionalOnBean(DataSource.class)
 	static class DataSourceMetricsConfiguration {
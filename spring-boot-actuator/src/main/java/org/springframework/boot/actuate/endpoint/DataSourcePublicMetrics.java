@@ -40,7 +40,7 @@ import org.springframework.context.annotation.Primary;
  * @author Stephane Nicoll
  * @since 1.2.0
  */
-public class DataSourcePublicMetrics implements PublicMetrics {
+public class DataSourcePublicMetrics implements SearchablePublicMetrics {
 
 	private static final String DATASOURCE_SUFFIX = "dataSource";
 
@@ -72,20 +72,42 @@ public class DataSourcePublicMetrics implements PublicMetrics {
 
 	@Override
 	public Collection<Metric<?>> metrics() {
+		return findAll("");
+	}
+
+	@Override
+	public Metric<?> findOne(String metricName) {
+		for (Metric<?> metric : findAll(metricName)) {
+			if (metric.getName().equals(metricName)) {
+				return metric;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<Metric<?>> findAll(String prefix) {
 		Set<Metric<?>> metrics = new LinkedHashSet<Metric<?>>();
 		for (Map.Entry<String, DataSourcePoolMetadata> entry : this.metadataByPrefix
 				.entrySet()) {
-			String prefix = entry.getKey();
-			prefix = (prefix.endsWith(".") ? prefix : prefix + ".");
-			DataSourcePoolMetadata metadata = entry.getValue();
-			addMetric(metrics, prefix + "active", metadata.getActive());
-			addMetric(metrics, prefix + "usage", metadata.getUsage());
+			String dataSourcePrefix = entry.getKey();
+			dataSourcePrefix = (dataSourcePrefix.endsWith(".") ? dataSourcePrefix
+					: dataSourcePrefix + ".");
+			if (prefix.startsWith(dataSourcePrefix)
+					|| dataSourcePrefix.startsWith(prefix)) {
+				DataSourcePoolMetadata metadata = entry.getValue();
+				addMetric(metrics, prefix, dataSourcePrefix + "active",
+						metadata.getActive());
+				addMetric(metrics, prefix, dataSourcePrefix + "usage",
+						metadata.getUsage());
+			}
 		}
 		return metrics;
 	}
 
-	private <T extends Number> void addMetric(Set<Metric<?>> metrics, String name, T value) {
-		if (value != null) {
+	private <T extends Number> void addMetric(Set<Metric<?>> metrics, String prefix,
+			String name, T value) {
+		if (value != null && name.startsWith(prefix)) {
 			metrics.add(new Metric<T>(name, value));
 		}
 	}
@@ -16,32 +16,95 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.actuate.health.CompositeHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 
 /**
- * {@link Endpoint} to expose application health.
+ * {@link Endpoint} to expose application health. By default the health indicators are
+ * invoked one after another on the calling thread every time. If a number of
+ * {@link #setThreads(int) threads} is set they are instead invoked in parallel, each
+ * with a timeout, and if an {@link #setIndicatorTimeToLive(long) indicator time to live}
+ * is set their results are cached. Both can be overridden for individual indicators.
+ * <p>
+ * If a {@link #setRefreshInterval(long) refresh interval} is set, health is instead
+ * computed periodically in the background and {@link #invoke()} returns the latest
+ * snapshot without calling any indicators. When an indicator changes status it is
+ * re-checked straight away rather than at the next interval.
  *
  * @author Dave Syer
  * @author Christian Dupuis
  * @author Andy Wilkinson
  */
 @ConfigurationProperties(prefix = "endpoints.health", ignoreUnknownFields = true)
-public class HealthEndpoint extends AbstractEndpoint<Health> {
+public class HealthEndpoint extends AbstractEndpoint<Health> implements
+		InitializingBean, DisposableBean {
 
-	private final HealthIndicator healthIndicator;
+	private static final Log logger = LogFactory.getLog(HealthEndpoint.class);
+
+	private static final int QUEUE_CAPACITY = 100;
+
+	private final CompositeHealthIndicator healthIndicator;
 
 	/**
 	 * Time to live for cached result, in milliseconds.
 	 */
 	private long timeToLive = 1000;
 
+	/**
+	 * Time to live for the cached result of each health indicator, in milliseconds. If 0
+	 * indicators are invoked every time health is computed.
+	 */
+	private long indicatorTimeToLive = 0;
+
+	/**
+	 * Time to wait for each health indicator when they are invoked in parallel, in
+	 * milliseconds. Indicators that take longer are reported as DOWN. Negative values
+	 * mean no timeout.
+	 */
+	private long timeout = 10000;
+
+	/**
+	 * Number of threads used to invoke health indicators in parallel. If 0 they are
+	 * invoked one after another on the calling thread.
+	 */
+	private int threads = 0;
+
+	/**
+	 * Interval between background refreshes of the health snapshot, in milliseconds. If
+	 * 0 health is computed when the endpoint is invoked.
+	 */
+	private long refreshInterval = 0;
+
+	/**
+	 * Timeouts and times to live for individual health indicators, keyed by the
+	 * indicator name (e.g. "db").
+	 */
+	private final Map<String, Indicator> indicators = new LinkedHashMap<String, Indicator>();
+
+	private ThreadPoolExecutor executor;
+
+	private ScheduledExecutorService refresher;
+
+	private volatile Snapshot snapshot;
+
 	/**
 	 * Create a new {@link HealthIndicator} instance.
 	 */
@@ -71,12 +134,170 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		this.timeToLive = ttl;
 	}
 
+	public long getIndicatorTimeToLive() {
+		return this.indicatorTimeToLive;
+	}
+
+	public void setIndicatorTimeToLive(long indicatorTimeToLive) {
+		this.indicatorTimeToLive = indicatorTimeToLive;
+	}
+
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getThreads() {
+		return this.threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public long getRefreshInterval() {
+		return this.refreshInterval;
+	}
+
+	public void setRefreshInterval(long refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	public Map<String, Indicator> getIndicators() {
+		return this.indicators;
+	}
+
+	/**
+	 * Return the age of the current health snapshot.
+	 * @return the age in milliseconds or -1 if there is no snapshot (i.e. background
+	 * refresh is not enabled or has not completed yet)
+	 */
+	public long getSnapshotAge() {
+		Snapshot snapshot = this.snapshot;
+		return (snapshot == null ? -1 : System.currentTimeMillis() - snapshot.timestamp);
+	}
+
+	/**
+	 * Return the time taken by the most recent background refresh.
+	 * @return the duration in milliseconds or -1 if there is no snapshot
+	 */
+	public long getRefreshDuration() {
+		Snapshot snapshot = this.snapshot;
+		return (snapshot == null ? -1 : snapshot.duration);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		this.healthIndicator.setTimeToLive(this.indicatorTimeToLive);
+		this.healthIndicator.setTimeout(this.timeout);
+		if (this.threads > 0) {
+			// When the queue is full indicators run on the calling thread instead
+			this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60,
+					TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+					new ThreadPoolExecutor.CallerRunsPolicy());
+			this.executor.allowCoreThreadTimeOut(true);
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"health-");
+			threadFactory.setDaemon(true);
+			this.executor.setThreadFactory(threadFactory);
+			this.healthIndicator.setExecutor(this.executor);
+		}
+		for (Map.Entry<String, Indicator> entry : this.indicators.entrySet()) {
+			Indicator indicator = entry.getValue();
+			if (indicator.getTimeout() != null) {
+				this.healthIndicator.setTimeout(entry.getKey(), indicator.getTimeout());
+			}
+			if (indicator.getTimeToLive() != null) {
+				this.healthIndicator.setTimeToLive(entry.getKey(),
+						indicator.getTimeToLive());
+			}
+		}
+		if (this.refreshInterval > 0) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"health-refresh-");
+			threadFactory.setDaemon(true);
+			this.refresher = new ScheduledThreadPoolExecutor(1, threadFactory);
+			this.refresher.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					refresh(true);
+				}
+			}, 0, this.refreshInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.refresher != null) {
+			this.refresher.shutdownNow();
+		}
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Invoke all {@link HealthIndicator} delegates and collect their health information.
 	 */
 	@Override
 	public Health invoke() {
-		return this.healthIndicator.health();
+		if (this.refresher == null) {
+			return this.healthIndicator.health();
+		}
+		Snapshot snapshot = this.snapshot;
+		return (snapshot == null ? getInitialSnapshot() : snapshot.health);
+	}
+
+	private synchronized Health getInitialSnapshot() {
+		Snapshot snapshot = this.snapshot;
+		return (snapshot == null ? refresh(false) : snapshot.health);
+	}
+
+	private synchronized Health refresh(boolean scheduled) {
+		long start = System.currentTimeMillis();
+		Health health;
+		try {
+			health = this.healthIndicator.health();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to refresh health", ex);
+			health = Health.down(ex).build();
+		}
+		Snapshot previous = this.snapshot;
+		this.snapshot = new Snapshot(health, start, System.currentTimeMillis() - start);
+		if (scheduled && previous != null && recheckChanged(previous.health, health)) {
+			this.refresher.execute(new Runnable() {
+				@Override
+				public void run() {
+					refresh(false);
+				}
+			});
+		}
+		return health;
+	}
+
+	/**
+	 * Evict the cached results of any indicators whose status has changed.
+	 * @return {@code true} if any have changed
+	 */
+	private boolean recheckChanged(Health previous, Health current) {
+		boolean changed = false;
+		for (Map.Entry<String, Object> entry : current.getDetails().entrySet()) {
+			Status status = getStatus(entry.getValue());
+			Status previousStatus = getStatus(previous.getDetails().get(entry.getKey()));
+			if (status != null && !status.equals(previousStatus)) {
+				this.healthIndicator.evict(entry.getKey());
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	private Status getStatus(Object details) {
+		return (details instanceof Health ? ((Health) details).getStatus() : null);
 	}
 
 	/**
@@ -89,4 +310,57 @@ public class HealthEndpoint extends AbstractEndpoint<Health> {
 		}
 		return name;
 	}
+
+	/**
+	 * A health result along with when it was computed and how long that took.
+	 */
+	private static class Snapshot {
+
+		private final Health health;
+
+		private final long timestamp;
+
+		private final long duration;
+
+		Snapshot(Health health, long timestamp, long duration) {
+			this.health = health;
+			this.timestamp = timestamp;
+			this.duration = duration;
+		}
+
+	}
+
+	/**
+	 * Settings for an individual health indicator.
+	 */
+	public static class Indicator {
+
+		/**
+		 * Time to wait for the indicator, in milliseconds.
+		 */
+		private Long timeout;
+
+		/**
+		 * Time to live for the cached result of the indicator, in milliseconds.
+		 */
+		private Long timeToLive;
+
+		public Long getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Long timeout) {
+			this.timeout = timeout;
+		}
+
+		public Long getTimeToLive() {
+			return this.timeToLive;
+		}
+
+		public void setTimeToLive(Long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+	}
+
 }
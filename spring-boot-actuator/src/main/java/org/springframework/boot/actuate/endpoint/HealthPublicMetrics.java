@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.util.Assert;
+
+/**
+ * {@link PublicMetrics} for the background refresh of a {@link HealthEndpoint}: the age
+ * of the current health snapshot and the time taken to compute it. Nothing is exposed
+ * unless background refresh is enabled. The endpoint can be looked up lazily, on first
+ * use, so that it does not need to exist when this bean is created.
+ *
+ * @author Dave Syer
+ * @see HealthEndpoint#setRefreshInterval(long)
+ */
+public class HealthPublicMetrics implements PublicMetrics {
+
+	private final ObjectFactory<HealthEndpoint> endpointFactory;
+
+	private volatile HealthEndpoint endpoint;
+
+	private volatile boolean resolved;
+
+	public HealthPublicMetrics(HealthEndpoint endpoint) {
+		Assert.notNull(endpoint, "HealthEndpoint must not be null");
+		this.endpointFactory = null;
+		this.endpoint = endpoint;
+		this.resolved = true;
+	}
+
+	/**
+	 * Create a new {@link HealthPublicMetrics} instance that looks up the endpoint the
+	 * first time that metrics are requested. No metrics are exposed if there is no
+	 * endpoint.
+	 * @param endpointFactory the factory for the endpoint
+	 */
+	public HealthPublicMetrics(ObjectFactory<HealthEndpoint> endpointFactory) {
+		Assert.notNull(endpointFactory, "EndpointFactory must not be null");
+		this.endpointFactory = endpointFactory;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		HealthEndpoint endpoint = getEndpoint();
+		long age = (endpoint == null ? -1 : endpoint.getSnapshotAge());
+		if (age < 0) {
+			return Collections.emptySet();
+		}
+		List<Metric<?>> result = new ArrayList<Metric<?>>(2);
+		result.add(new Metric<Long>("health.snapshot.age", age));
+		result.add(new Metric<Long>("health.refresh.time", endpoint
+				.getRefreshDuration()));
+		return result;
+	}
+
+	private HealthEndpoint getEndpoint() {
+		if (!this.resolved) {
+			try {
+				this.endpoint = this.endpointFactory.getObject();
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+				// No endpoint so no metrics
+			}
+			this.resolved = true;
+		}
+		return this.endpoint;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.histogram.HistogramReader;
+import org.springframework.boot.actuate.metrics.histogram.HistogramSnapshot;
+import org.springframework.util.Assert;
+
+/**
+ * {@link PublicMetrics} exposed from a {@link HistogramReader}. Each histogram is exposed
+ * as its count, max, mean and selected percentiles.
+ *
+ * @author Dave Syer
+ */
+public class HistogramReaderPublicMetrics implements SearchablePublicMetrics {
+
+	private final HistogramReader histogramReader;
+
+	public HistogramReaderPublicMetrics(HistogramReader histogramReader) {
+		Assert.notNull(histogramReader, "HistogramReader must not be null");
+		this.histogramReader = histogramReader;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		List<Metric<?>> result = new ArrayList<Metric<?>>();
+		for (HistogramSnapshot snapshot : this.histogramReader.findAll()) {
+			result.addAll(convert(snapshot));
+		}
+		return result;
+	}
+
+	@Override
+	public Metric<?> findOne(String metricName) {
+		int index = metricName.lastIndexOf('.');
+		HistogramSnapshot snapshot = (index > 0 ? this.histogramReader
+				.findOne(metricName.substring(0, index)) : null);
+		if (snapshot != null) {
+			for (Metric<?> metric : convert(snapshot)) {
+				if (metric.getName().equals(metricName)) {
+					return metric;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<Metric<?>> findAll(String prefix) {
+		List<Metric<?>> result = new ArrayList<Metric<?>>();
+		for (HistogramSnapshot snapshot : this.histogramReader.findAll()) {
+			String name = snapshot.getName();
+			if (name.startsWith(prefix) || prefix.startsWith(name)) {
+				for (Metric<?> metric : convert(snapshot)) {
+					if (metric.getName().startsWith(prefix)) {
+						result.add(metric);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private List<Metric<?>> convert(HistogramSnapshot snapshot) {
+		String name = snapshot.getName();
+		List<Metric<?>> result = new ArrayList<Metric<?>>(7);
+		result.add(new Metric<Long>(name + HistogramSnapshot.COUNT, snapshot.getCount()));
+		result.add(new Metric<Double>(name + HistogramSnapshot.MAX, snapshot.getMax()));
+		result.add(new Metric<Double>(name + HistogramSnapshot.MEAN, snapshot.getMean()));
+		result.add(new Metric<Double>(name + HistogramSnapshot.P50, snapshot
+				.getValueAtPercentile(50)));
+		result.add(new Metric<Double>(name + HistogramSnapshot.P95, snapshot
+				.getValueAtPercentile(95)));
+		result.add(new Metric<Double>(name + HistogramSnapshot.P99, snapshot
+				.getValueAtPercentile(99)));
+		result.add(new Metric<Double>(name + HistogramSnapshot.P999, snapshot
+				.getValueAtPercentile(99.9)));
+		return result;
+	}
+
+}
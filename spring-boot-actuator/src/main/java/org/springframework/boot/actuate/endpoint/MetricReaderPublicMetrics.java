@@ -22,6 +22,9 @@ import java.util.List;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
+import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.repository.StripedMetricRepository;
 import org.springframework.util.Assert;
 
 /**
@@ -32,7 +35,7 @@ import org.springframework.util.Assert;
  * @author Stephane Nicoll
  * @author Phillip Webb
  */
-public class MetricReaderPublicMetrics implements PublicMetrics {
+public class MetricReaderPublicMetrics implements SearchablePublicMetrics {
 
 	private final MetricReader metricReader;
 
@@ -50,4 +53,38 @@ public class MetricReaderPublicMetrics implements PublicMetrics {
 		return result;
 	}
 
+	@Override
+	public Metric<?> findOne(String metricName) {
+		return this.metricReader.findOne(metricName);
+	}
+
+	@Override
+	public Collection<Metric<?>> findAll(String prefix) {
+		Iterable<Metric<?>> metrics;
+		if (isNamePrefixReader() && prefix.endsWith(".")) {
+			// Prefix readers find metrics by group, so only use them for whole groups
+			metrics = ((PrefixMetricReader) this.metricReader).findAll(prefix);
+		}
+		else {
+			metrics = this.metricReader.findAll();
+		}
+		List<Metric<?>> result = new ArrayList<Metric<?>>();
+		for (Metric<?> metric : metrics) {
+			if (metric.getName().startsWith(prefix)) {
+				result.add(metric);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return whether the reader's {@link PrefixMetricReader#findAll(String)} matches on
+	 * metric names. Other implementations (e.g. Redis) treat the argument as the key of
+	 * a group that need not be related to the names of its metrics.
+	 */
+	private boolean isNamePrefixReader() {
+		return (this.metricReader instanceof InMemoryMetricRepository
+				|| this.metricReader instanceof StripedMetricRepository);
+	}
+
 }
@@ -69,4 +69,59 @@ public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
 		return result;
 	}
 
+	/**
+	 * Return the metric with the given name. {@link SearchablePublicMetrics} are asked
+	 * for the metric directly so that only other {@link PublicMetrics} need to create all
+	 * of their metrics.
+	 * @param metricName the name of the metric
+	 * @return the metric or {@code null} if there is none with that name
+	 */
+	public Metric<?> getMetric(String metricName) {
+		// Search in reverse so that later metrics take precedence, as with invoke()
+		for (int i = this.publicMetrics.size() - 1; i >= 0; i--) {
+			PublicMetrics publicMetric = this.publicMetrics.get(i);
+			if (publicMetric instanceof SearchablePublicMetrics) {
+				Metric<?> metric = ((SearchablePublicMetrics) publicMetric)
+						.findOne(metricName);
+				if (metric != null) {
+					return metric;
+				}
+			}
+			else {
+				for (Metric<?> metric : publicMetric.metrics()) {
+					if (metric.getName().equals(metricName)) {
+						return metric;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the values of all metrics whose name starts with the given prefix.
+	 * @param prefix the prefix for metric names
+	 * @return the metric values keyed by name
+	 * @see #getMetric(String)
+	 */
+	public Map<String, Object> getMetrics(String prefix) {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		for (PublicMetrics publicMetric : this.publicMetrics) {
+			if (publicMetric instanceof SearchablePublicMetrics) {
+				for (Metric<?> metric : ((SearchablePublicMetrics) publicMetric)
+						.findAll(prefix)) {
+					result.put(metric.getName(), metric.getValue());
+				}
+			}
+			else {
+				for (Metric<?> metric : publicMetric.metrics()) {
+					if (metric.getName().startsWith(prefix)) {
+						result.put(metric.getName(), metric.getValue());
+					}
+				}
+			}
+		}
+		return result;
+	}
+
 }
@@ -31,7 +31,7 @@ import org.springframework.util.Assert;
  * @author Johannes Stelzer
  * @since 1.2
  */
-public class RichGaugeReaderPublicMetrics implements PublicMetrics {
+public class RichGaugeReaderPublicMetrics implements SearchablePublicMetrics {
 
 	private final RichGaugeReader richGaugeReader;
 
@@ -49,6 +49,37 @@ public class RichGaugeReaderPublicMetrics implements PublicMetrics {
 		return result;
 	}
 
+	@Override
+	public Metric<?> findOne(String metricName) {
+		int index = metricName.lastIndexOf('.');
+		RichGauge richGauge = (index > 0 ? this.richGaugeReader.findOne(metricName
+				.substring(0, index)) : null);
+		if (richGauge != null) {
+			for (Metric<?> metric : convert(richGauge)) {
+				if (metric.getName().equals(metricName)) {
+					return metric;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<Metric<?>> findAll(String prefix) {
+		List<Metric<?>> result = new ArrayList<Metric<?>>();
+		for (RichGauge richGauge : this.richGaugeReader.findAll()) {
+			String name = richGauge.getName();
+			if (name.startsWith(prefix) || prefix.startsWith(name)) {
+				for (Metric<?> metric : convert(richGauge)) {
+					if (metric.getName().startsWith(prefix)) {
+						result.add(metric);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
 	private List<Metric<?>> convert(RichGauge gauge) {
 		List<Metric<?>> result = new ArrayList<Metric<?>>(6);
 		result.add(new Metric<Double>(gauge.getName() + RichGauge.AVG, gauge.getAverage()));
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Collection;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
+
+/**
+ * Extension of {@link PublicMetrics} that can find individual metrics, or metrics with a
+ * given prefix, without creating all of the metrics that it exposes.
+ *
+ * @author Dave Syer
+ * @see MetricsEndpoint#getMetric(String)
+ * @see MetricsEndpoint#getMetrics(String)
+ */
+public interface SearchablePublicMetrics extends PublicMetrics {
+
+	/**
+	 * Find the metric with the given name.
+	 * @param metricName the name of the metric to find
+	 * @return the metric or {@code null} if there is none with that name
+	 * @see MetricReader#findOne(String)
+	 */
+	Metric<?> findOne(String metricName);
+
+	/**
+	 * Find all metrics whose name starts with the given prefix.
+	 * @param prefix the prefix for metric names
+	 * @return all metrics with names starting with the prefix
+	 * @see PrefixMetricReader#findAll(String)
+	 */
+	Collection<Metric<?>> findAll(String prefix);
+
+}
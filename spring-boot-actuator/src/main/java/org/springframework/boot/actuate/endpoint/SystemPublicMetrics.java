@@ -19,18 +19,45 @@ package org.springframework.boot.actuate.endpoint;
 import java.lang.management.ClassLoadingMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.core.Ordered;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 
 /**
  * A {@link PublicMetrics} implementation that provides various system-related metrics.
+ * <p>
+ * The platform MXBeans and the metric names are resolved once, when the instance is
+ * created. Once {@link #afterPropertiesSet() initialized} the metrics are sampled on a
+ * background thread every {@link #setSampleInterval(long) sample interval} and
+ * {@link #metrics()} returns the latest sample, so reads never query the MXBeans. The
+ * garbage collection deltas cover the time between two consecutive samples. If the
+ * instance has not been initialized, or the interval is 0, a sample is taken on every
+ * read instead.
  *
  * @author Dave Syer
  * @author Christian Dupuis
@@ -38,12 +65,85 @@ import org.springframework.util.StringUtils;
  * @author Johannes Stelzer
  * @since 1.2.0
  */
-public class SystemPublicMetrics implements PublicMetrics, Ordered {
+public class SystemPublicMetrics implements PublicMetrics, Ordered, InitializingBean,
+		DisposableBean {
+
+	private static final String[] BUFFER_POOL_ATTRIBUTES = { "Count", "MemoryUsed",
+			"TotalCapacity" };
+
+	private static Log logger = LogFactory.getLog(SystemPublicMetrics.class);
 
 	private long timestamp;
 
+	private final Runtime runtime = Runtime.getRuntime();
+
+	private final RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
+
+	private final OperatingSystemMXBean operatingSystemMxBean = ManagementFactory
+			.getOperatingSystemMXBean();
+
+	private final MemoryMXBean memoryMxBean = ManagementFactory.getMemoryMXBean();
+
+	private final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+	private final ClassLoadingMXBean classLoadingMxBean = ManagementFactory
+			.getClassLoadingMXBean();
+
+	private final List<GarbageCollector> garbageCollectors;
+
+	private final List<HeapPool> heapPools;
+
+	private final MBeanServer mBeanServer;
+
+	private final List<BufferPool> bufferPools;
+
+	private long sampleInterval = 5000;
+
+	private int sampleSize = 64;
+
+	private ScheduledExecutorService sampler;
+
+	private volatile Collection<Metric<?>> snapshot;
+
 	public SystemPublicMetrics() {
 		this.timestamp = System.currentTimeMillis();
+		this.garbageCollectors = getGarbageCollectors();
+		this.heapPools = getHeapPools();
+		this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		this.bufferPools = getBufferPools(this.mBeanServer);
+	}
+
+	private static List<GarbageCollector> getGarbageCollectors() {
+		List<GarbageCollector> garbageCollectors = new ArrayList<GarbageCollector>();
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			garbageCollectors.add(new GarbageCollector(bean));
+		}
+		return garbageCollectors;
+	}
+
+	private static List<HeapPool> getHeapPools() {
+		List<HeapPool> heapPools = new ArrayList<HeapPool>();
+		for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (bean.getType() == MemoryType.HEAP) {
+				heapPools.add(new HeapPool(bean));
+			}
+		}
+		return heapPools;
+	}
+
+	private static List<BufferPool> getBufferPools(MBeanServer mBeanServer) {
+		// Buffer pool MXBeans are only available on Java 7 or later
+		List<BufferPool> bufferPools = new ArrayList<BufferPool>();
+		try {
+			for (ObjectName name : mBeanServer.queryNames(new ObjectName(
+					"java.nio:type=BufferPool,*"), null)) {
+				bufferPools.add(new BufferPool(name));
+			}
+		}
+		catch (Exception ex) {
+			logger.debug("Unable to locate buffer pool MXBeans", ex);
+		}
+		return bufferPools;
 	}
 
 	@Override
@@ -51,92 +151,269 @@ public class SystemPublicMetrics implements PublicMetrics, Ordered {
 		return Ordered.HIGHEST_PRECEDENCE + 10;
 	}
 
+	/**
+	 * Set the number of milliseconds between two background samples of the system
+	 * metrics. Calls to {@link #metrics()} return the latest sample. If {@code 0} the
+	 * metrics are sampled on every call. Defaults to {@code 5000}.
+	 * @param sampleInterval the sample interval in milliseconds
+	 */
+	public void setSampleInterval(long sampleInterval) {
+		this.sampleInterval = sampleInterval;
+	}
+
+	public long getSampleInterval() {
+		return this.sampleInterval;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.sampleInterval > 0) {
+			this.snapshot = sample();
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"system-metrics-");
+			threadFactory.setDaemon(true);
+			this.sampler = new ScheduledThreadPoolExecutor(1, threadFactory);
+			this.sampler.scheduleAtFixedRate(new Runnable() {
+				@Override
+				public void run() {
+					refresh();
+				}
+			}, this.sampleInterval, this.sampleInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.sampler != null) {
+			this.sampler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Return the latest sample of the system metrics, or a new sample if they are not
+	 * sampled in the background. The returned collection cannot be modified.
+	 */
 	@Override
 	public Collection<Metric<?>> metrics() {
-		Collection<Metric<?>> result = new LinkedHashSet<Metric<?>>();
+		if (this.sampler == null) {
+			return sample();
+		}
+		return this.snapshot;
+	}
+
+	private void refresh() {
+		try {
+			this.snapshot = sample();
+		}
+		catch (RuntimeException ex) {
+			// Keep the previous sample and the schedule
+			logger.warn("Failed to sample system metrics", ex);
+		}
+	}
+
+	private synchronized Collection<Metric<?>> sample() {
+		List<Metric<?>> result = new ArrayList<Metric<?>>(this.sampleSize);
 		addBasicMetrics(result);
 		addHeapMetrics(result);
 		addThreadMetrics(result);
 		addClassLoadingMetrics(result);
 		addGarbageCollectionMetrics(result);
-		return result;
+		addBufferPoolMetrics(result);
+		this.sampleSize = result.size();
+		return Collections.unmodifiableList(result);
 	}
 
 	/**
 	 * Add basic system metrics.
 	 */
 	protected void addBasicMetrics(Collection<Metric<?>> result) {
-		result.add(new Metric<Long>("mem", Runtime.getRuntime().totalMemory() / 1024));
-		result.add(new Metric<Long>("mem.free", Runtime.getRuntime().freeMemory() / 1024));
-		result.add(new Metric<Integer>("processors", Runtime.getRuntime()
-				.availableProcessors()));
+		result.add(new Metric<Long>("mem", this.runtime.totalMemory() / 1024));
+		result.add(new Metric<Long>("mem.free", this.runtime.freeMemory() / 1024));
+		result.add(new Metric<Integer>("processors", this.runtime.availableProcessors()));
 		// Add JVM up time in ms
-		result.add(new Metric<Long>("uptime", ManagementFactory.getRuntimeMXBean()
-				.getUptime()));
+		result.add(new Metric<Long>("uptime", this.runtimeMxBean.getUptime()));
 		result.add(new Metric<Long>("instance.uptime", System.currentTimeMillis()
 				- this.timestamp));
-		result.add(new Metric<Double>("systemload.average", ManagementFactory
-				.getOperatingSystemMXBean().getSystemLoadAverage()));
+		result.add(new Metric<Double>("systemload.average", this.operatingSystemMxBean
+				.getSystemLoadAverage()));
 	}
 
 	/**
-	 * Add JVM heap metrics.
+	 * Add JVM heap metrics, including the usage of each heap memory pool.
 	 */
 	protected void addHeapMetrics(Collection<Metric<?>> result) {
-		MemoryUsage memoryUsage = ManagementFactory.getMemoryMXBean()
-				.getHeapMemoryUsage();
+		MemoryUsage memoryUsage = this.memoryMxBean.getHeapMemoryUsage();
 		result.add(new Metric<Long>("heap.committed", memoryUsage.getCommitted() / 1024));
 		result.add(new Metric<Long>("heap.init", memoryUsage.getInit() / 1024));
 		result.add(new Metric<Long>("heap.used", memoryUsage.getUsed() / 1024));
 		result.add(new Metric<Long>("heap", memoryUsage.getMax() / 1024));
+		for (HeapPool heapPool : this.heapPools) {
+			heapPool.addMetrics(result);
+		}
 	}
 
 	/**
 	 * Add thread metrics.
 	 */
 	protected void addThreadMetrics(Collection<Metric<?>> result) {
-		ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
-		result.add(new Metric<Long>("threads.peak", (long) threadMxBean
+		result.add(new Metric<Long>("threads.peak", (long) this.threadMxBean
 				.getPeakThreadCount()));
-		result.add(new Metric<Long>("threads.daemon", (long) threadMxBean
+		result.add(new Metric<Long>("threads.daemon", (long) this.threadMxBean
 				.getDaemonThreadCount()));
-		result.add(new Metric<Long>("threads", (long) threadMxBean.getThreadCount()));
+		result.add(new Metric<Long>("threads", (long) this.threadMxBean.getThreadCount()));
 	}
 
 	/**
 	 * Add class loading metrics.
 	 */
 	protected void addClassLoadingMetrics(Collection<Metric<?>> result) {
-		ClassLoadingMXBean classLoadingMxBean = ManagementFactory.getClassLoadingMXBean();
-		result.add(new Metric<Long>("classes", (long) classLoadingMxBean
+		result.add(new Metric<Long>("classes", (long) this.classLoadingMxBean
 				.getLoadedClassCount()));
-		result.add(new Metric<Long>("classes.loaded", classLoadingMxBean
+		result.add(new Metric<Long>("classes.loaded", this.classLoadingMxBean
 				.getTotalLoadedClassCount()));
-		result.add(new Metric<Long>("classes.unloaded", classLoadingMxBean
+		result.add(new Metric<Long>("classes.unloaded", this.classLoadingMxBean
 				.getUnloadedClassCount()));
 	}
 
 	/**
-	 * Add garbage collection metrics.
+	 * Add garbage collection metrics: the totals for each collector and the collections
+	 * and collection time since the previous sample.
 	 */
 	protected void addGarbageCollectionMetrics(Collection<Metric<?>> result) {
-		List<GarbageCollectorMXBean> garbageCollectorMxBeans = ManagementFactory
-				.getGarbageCollectorMXBeans();
-		for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMxBeans) {
-			String name = beautifyGcName(garbageCollectorMXBean.getName());
-			result.add(new Metric<Long>("gc." + name + ".count", garbageCollectorMXBean
-					.getCollectionCount()));
-			result.add(new Metric<Long>("gc." + name + ".time", garbageCollectorMXBean
-					.getCollectionTime()));
+		for (GarbageCollector garbageCollector : this.garbageCollectors) {
+			garbageCollector.addMetrics(result);
+		}
+	}
+
+	/**
+	 * Add NIO buffer pool metrics. The {@code buffers.direct.*} metrics report the direct
+	 * memory used by the JVM.
+	 */
+	protected void addBufferPoolMetrics(Collection<Metric<?>> result) {
+		for (BufferPool bufferPool : this.bufferPools) {
+			bufferPool.addMetrics(this.mBeanServer, result);
 		}
 	}
 
 	/**
-	 * Turn GC names like 'PS Scavenge' or 'PS MarkSweep' into something that is more
+	 * Turn names like 'PS Scavenge' or 'PS MarkSweep' into something that is more
 	 * metrics friendly.
 	 */
-	private String beautifyGcName(String name) {
+	private static String beautifyName(String name) {
 		return StringUtils.replace(name, " ", "_").toLowerCase();
 	}
 
+	/**
+	 * A {@link GarbageCollectorMXBean} with its metric names and the totals of the
+	 * previous sample, which are the baseline of the deltas.
+	 */
+	private static class GarbageCollector {
+
+		private final GarbageCollectorMXBean bean;
+
+		private final String countName;
+
+		private final String timeName;
+
+		private final String countDeltaName;
+
+		private final String timeDeltaName;
+
+		private long lastCount;
+
+		private long lastTime;
+
+		public GarbageCollector(GarbageCollectorMXBean bean) {
+			this.bean = bean;
+			String prefix = "gc." + beautifyName(bean.getName());
+			this.countName = prefix + ".count";
+			this.timeName = prefix + ".time";
+			this.countDeltaName = this.countName + ".delta";
+			this.timeDeltaName = this.timeName + ".delta";
+			this.lastCount = bean.getCollectionCount();
+			this.lastTime = bean.getCollectionTime();
+		}
+
+		public void addMetrics(Collection<Metric<?>> result) {
+			long count = this.bean.getCollectionCount();
+			long time = this.bean.getCollectionTime();
+			result.add(new Metric<Long>(this.countName, count));
+			result.add(new Metric<Long>(this.timeName, time));
+			result.add(new Metric<Long>(this.countDeltaName, Math.max(0, count
+					- this.lastCount)));
+			result.add(new Metric<Long>(this.timeDeltaName, Math.max(0, time
+					- this.lastTime)));
+			this.lastCount = count;
+			this.lastTime = time;
+		}
+
+	}
+
+	/**
+	 * A heap {@link MemoryPoolMXBean} with its metric names.
+	 */
+	private static class HeapPool {
+
+		private final MemoryPoolMXBean bean;
+
+		private final String usedName;
+
+		private final String committedName;
+
+		public HeapPool(MemoryPoolMXBean bean) {
+			this.bean = bean;
+			String prefix = "heap." + beautifyName(bean.getName());
+			this.usedName = prefix + ".used";
+			this.committedName = prefix + ".committed";
+		}
+
+		public void addMetrics(Collection<Metric<?>> result) {
+			MemoryUsage usage = this.bean.getUsage();
+			if (usage != null) {
+				result.add(new Metric<Long>(this.usedName, usage.getUsed() / 1024));
+				result.add(new Metric<Long>(this.committedName,
+						usage.getCommitted() / 1024));
+			}
+		}
+
+	}
+
+	/**
+	 * A NIO buffer pool MXBean with its metric names.
+	 */
+	private static class BufferPool {
+
+		private final ObjectName objectName;
+
+		private final String[] names;
+
+		public BufferPool(ObjectName objectName) {
+			this.objectName = objectName;
+			String prefix = "buffers." + beautifyName(objectName.getKeyProperty("name"));
+			this.names = new String[] { prefix + ".count", prefix + ".used",
+					prefix + ".capacity" };
+		}
+
+		public void addMetrics(MBeanServer mBeanServer, Collection<Metric<?>> result) {
+			try {
+				AttributeList attributes = mBeanServer.getAttributes(this.objectName,
+						BUFFER_POOL_ATTRIBUTES);
+				for (Object attribute : attributes) {
+					Attribute value = (Attribute) attribute;
+					for (int i = 0; i < BUFFER_POOL_ATTRIBUTES.length; i++) {
+						if (BUFFER_POOL_ATTRIBUTES[i].equals(value.getName())) {
+							long number = ((Number) value.getValue()).longValue();
+							result.add(new Metric<Long>(this.names[i], (i == 0 ? number
+									: number / 1024)));
+						}
+					}
+				}
+			}
+			catch (Exception ex) {
+				logger.debug("Unable to read buffer pool " + this.objectName, ex);
+			}
+		}
+
+	}
+
 }
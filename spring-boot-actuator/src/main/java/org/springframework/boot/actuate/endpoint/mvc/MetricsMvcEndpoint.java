@@ -16,7 +16,10 @@
 
 package org.springframework.boot.actuate.endpoint.mvc;
 
+import java.util.Map;
+
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -38,14 +41,29 @@ public class MetricsMvcEndpoint extends EndpointMvcAdapter {
 		this.delegate = delegate;
 	}
 
+	/**
+	 * Return the value of a single metric or, if the name ends with {@code *}, the
+	 * values of all metrics whose name starts with the rest of the name (e.g.
+	 * {@code counter.status.*}).
+	 * @param name the metric name or prefix
+	 * @return the metric value or values
+	 */
 	@RequestMapping(value = "/{name:.*}", method = RequestMethod.GET)
 	@ResponseBody
 	public Object value(@PathVariable String name) {
-		Object value = this.delegate.invoke().get(name);
-		if (value == null) {
+		if (name.endsWith("*")) {
+			Map<String, Object> metrics = this.delegate.getMetrics(name.substring(0,
+					name.length() - 1));
+			if (metrics.isEmpty()) {
+				throw new NoSuchMetricException("No metrics match: " + name);
+			}
+			return metrics;
+		}
+		Metric<?> metric = this.delegate.getMetric(name);
+		if (metric == null || metric.getValue() == null) {
 			throw new NoSuchMetricException("No such metric: " + name);
 		}
-		return value;
+		return metric.getValue();
 	}
 
 	@SuppressWarnings("serial")
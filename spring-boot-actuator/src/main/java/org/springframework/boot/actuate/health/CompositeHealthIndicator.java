@@ -18,11 +18,27 @@ package org.springframework.boot.actuate.health;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.util.Assert;
 
 /**
  * {@link HealthIndicator} that returns health indications from all registered delegates.
+ * <p>
+ * By default the delegates are invoked one after another on the calling thread. If an
+ * {@link #setExecutor(Executor) executor} is set they are invoked in parallel instead,
+ * and a delegate that does not respond within its {@link #setTimeout(long) timeout} is
+ * reported as {@link Status#DOWN}. A delegate that is still running from a previous call
+ * is not invoked again, so a hung dependency cannot exhaust the executor. Results can
+ * also be cached for a {@link #setTimeToLive(long) time to live}, so frequent polling
+ * does not translate into frequent calls to the underlying resources.
  *
  * @author Tyler J. Frederick
  * @author Phillip Webb
@@ -31,10 +47,16 @@ import org.springframework.util.Assert;
  */
 public class CompositeHealthIndicator implements HealthIndicator {
 
-	private final Map<String, HealthIndicator> indicators;
+	private final Map<String, Delegate> indicators;
 
 	private final HealthAggregator healthAggregator;
 
+	private Executor executor;
+
+	private long timeout = -1;
+
+	private long timeToLive = 0;
+
 	/**
 	 * Create a new {@link CompositeHealthIndicator}.
 	 */
@@ -50,22 +72,210 @@ public class CompositeHealthIndicator implements HealthIndicator {
 	public CompositeHealthIndicator(HealthAggregator healthAggregator,
 			Map<String, HealthIndicator> indicators) {
 		Assert.notNull(healthAggregator, "HealthAggregator must not be null");
-		Assert.notNull(healthAggregator, "Indicators must not be null");
-		this.indicators = new LinkedHashMap<String, HealthIndicator>(indicators);
+		Assert.notNull(indicators, "Indicators must not be null");
+		this.indicators = new LinkedHashMap<String, Delegate>();
+		for (Map.Entry<String, HealthIndicator> entry : indicators.entrySet()) {
+			addHealthIndicator(entry.getKey(), entry.getValue());
+		}
 		this.healthAggregator = healthAggregator;
 	}
 
 	public void addHealthIndicator(String name, HealthIndicator indicator) {
-		this.indicators.put(name, indicator);
+		this.indicators.put(name, new Delegate(indicator));
+	}
+
+	/**
+	 * Set the {@link Executor} used to invoke the delegates in parallel. If not set (the
+	 * default) the delegates are invoked one after another on the calling thread.
+	 * @param executor the executor or {@code null}
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the default time to wait for a delegate that is invoked in parallel. Negative
+	 * values (the default) mean no timeout. Has no effect unless an executor is set.
+	 * @param timeout the timeout in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Set the timeout for a single delegate, overriding the default timeout.
+	 * @param name the name of the delegate
+	 * @param timeout the timeout in milliseconds
+	 * @see #setTimeout(long)
+	 */
+	public void setTimeout(String name, long timeout) {
+		getDelegate(name).timeout = timeout;
+	}
+
+	/**
+	 * Set the default time for which the result of a delegate is cached. Zero or
+	 * negative values (the default) disable caching.
+	 * @param timeToLive the time to live in milliseconds
+	 */
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the time for which the result of a single delegate is cached, overriding the
+	 * default time to live.
+	 * @param name the name of the delegate
+	 * @param timeToLive the time to live in milliseconds
+	 * @see #setTimeToLive(long)
+	 */
+	public void setTimeToLive(String name, long timeToLive) {
+		getDelegate(name).timeToLive = timeToLive;
+	}
+
+	/**
+	 * Discard the cached result of a single delegate so that it is invoked again on the
+	 * next call to {@link #health()}.
+	 * @param name the name of the delegate
+	 */
+	public void evict(String name) {
+		Delegate delegate = this.indicators.get(name);
+		if (delegate != null) {
+			delegate.cached = null;
+		}
+	}
+
+	private Delegate getDelegate(String name) {
+		Delegate delegate = this.indicators.get(name);
+		Assert.state(delegate != null, "No HealthIndicator named '" + name + "'");
+		return delegate;
 	}
 
 	@Override
 	public Health health() {
+		long start = System.currentTimeMillis();
+		Map<String, Object> results = new LinkedHashMap<String, Object>();
+		for (Map.Entry<String, Delegate> entry : this.indicators.entrySet()) {
+			Delegate delegate = entry.getValue();
+			Health health = delegate.getCached(start, this.timeToLive);
+			if (health != null) {
+				results.put(entry.getKey(), health);
+			}
+			else if (this.executor == null) {
+				results.put(entry.getKey(), delegate.invoke());
+			}
+			else {
+				results.put(entry.getKey(), delegate.submit(this.executor));
+			}
+		}
 		Map<String, Health> healths = new LinkedHashMap<String, Health>();
-		for (Map.Entry<String, HealthIndicator> entry : this.indicators.entrySet()) {
-			healths.put(entry.getKey(), entry.getValue().health());
+		for (Map.Entry<String, Object> entry : results.entrySet()) {
+			Object result = entry.getValue();
+			if (result instanceof Future) {
+				long timeout = this.indicators.get(entry.getKey()).getTimeout(
+						this.timeout);
+				result = await((Future<?>) result, start, timeout);
+			}
+			healths.put(entry.getKey(), (Health) result);
 		}
 		return this.healthAggregator.aggregate(healths);
 	}
 
+	private Health await(Future<?> future, long start, long timeout) {
+		try {
+			if (timeout < 0) {
+				return (Health) future.get();
+			}
+			long remaining = Math.max(0, start + timeout - System.currentTimeMillis());
+			return (Health) future.get(remaining, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return Health.down(ex).build();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			return Health.down(cause instanceof Exception ? (Exception) cause : ex)
+					.build();
+		}
+		catch (TimeoutException ex) {
+			return Health.down()
+					.withDetail("error", "Timed out after " + timeout + "ms").build();
+		}
+	}
+
+	/**
+	 * A single delegate {@link HealthIndicator} along with its settings, its last result
+	 * and any invocation that is still in progress.
+	 */
+	private static class Delegate {
+
+		private final HealthIndicator indicator;
+
+		private volatile Long timeout;
+
+		private volatile Long timeToLive;
+
+		private volatile Health cached;
+
+		private volatile long cachedTime;
+
+		private FutureTask<Health> pending;
+
+		Delegate(HealthIndicator indicator) {
+			this.indicator = indicator;
+		}
+
+		public long getTimeout(long defaultTimeout) {
+			Long timeout = this.timeout;
+			return (timeout == null ? defaultTimeout : timeout);
+		}
+
+		public Health getCached(long now, long defaultTimeToLive) {
+			Long timeToLive = this.timeToLive;
+			long ttl = (timeToLive == null ? defaultTimeToLive : timeToLive);
+			Health cached = this.cached;
+			if (ttl > 0 && cached != null && now - this.cachedTime < ttl) {
+				return cached;
+			}
+			return null;
+		}
+
+		public Health invoke() {
+			long time = System.currentTimeMillis();
+			Health health = this.indicator.health();
+			this.cachedTime = time;
+			this.cached = health;
+			return health;
+		}
+
+		public synchronized Future<?> submit(Executor executor) {
+			if (this.pending != null && !this.pending.isDone()) {
+				return this.pending;
+			}
+			FutureTask<Health> task = new FutureTask<Health>(new Callable<Health>() {
+				@Override
+				public Health call() throws Exception {
+					return invoke();
+				}
+			});
+			try {
+				executor.execute(task);
+			}
+			catch (final RejectedExecutionException ex) {
+				FutureTask<Health> rejected = new FutureTask<Health>(
+						new Callable<Health>() {
+							@Override
+							public Health call() throws Exception {
+								return Health.down(ex).build();
+							}
+						});
+				rejected.run();
+				return rejected;
+			}
+			this.pending = task;
+			return task;
+		}
+
+	}
+
 }
@@ -47,6 +47,14 @@ public abstract class AbstractMetricExporter implements Exporter {
 				: prefix + ".");
 	}
 
+	/**
+	 * Returns the prefix added to the names of exported metrics.
+	 * @return the prefix (empty or ending with a period)
+	 */
+	protected String getPrefix() {
+		return this.prefix;
+	}
+
 	/**
 	 * The earliest time for which data will be exported.
 	 * @param earliestTimestamp the timestamp to set
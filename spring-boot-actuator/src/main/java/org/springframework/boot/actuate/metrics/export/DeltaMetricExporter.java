@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+
+/**
+ * {@link Exporter} that compares the metrics from a {@link MetricReader} with those it
+ * exported previously and only writes what has changed to a {@link MetricWriter}.
+ * Counters (metrics with names starting with "counter.") are written as increments
+ * ({@link Delta}) and other metrics are set when they have been updated. A counter that
+ * is lower than before is assumed to have been reset, so its whole value is written as
+ * the increment.
+ *
+ * @author Dave Syer
+ */
+public class DeltaMetricExporter extends AbstractMetricExporter implements Closeable {
+
+	private final Map<String, Metric<?>> exported = new HashMap<String, Metric<?>>();
+
+	private final MetricReader reader;
+
+	private final MetricWriter writer;
+
+	private final String counterPrefix;
+
+	public DeltaMetricExporter(MetricReader reader, MetricWriter writer) {
+		this(reader, writer, "");
+	}
+
+	public DeltaMetricExporter(MetricReader reader, MetricWriter writer, String prefix) {
+		super(prefix);
+		this.reader = reader;
+		this.writer = writer;
+		this.counterPrefix = getPrefix() + "counter.";
+	}
+
+	@Override
+	protected Iterable<Metric<?>> next(String group) {
+		return this.reader.findAll();
+	}
+
+	@Override
+	protected void write(String group, Collection<Metric<?>> values) {
+		for (Metric<?> value : values) {
+			Metric<?> previous = this.exported.put(value.getName(), value);
+			if (value.getName().startsWith(this.counterPrefix)) {
+				long current = value.getValue().longValue();
+				long last = (previous == null ? 0 : previous.getValue().longValue());
+				long delta = (current < last ? current : current - last);
+				if (delta != 0) {
+					this.writer.increment(new Delta<Long>(value.getName(), delta, value
+							.getTimestamp()));
+				}
+			}
+			else if (previous == null || !previous.getValue().equals(value.getValue())
+					|| value.getTimestamp().after(previous.getTimestamp())) {
+				this.writer.set(value);
+			}
+		}
+	}
+
+	/**
+	 * Close the {@link MetricWriter} if it is {@link Closeable}.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.writer instanceof Closeable) {
+			((Closeable) this.writer).close();
+		}
+	}
+
+}
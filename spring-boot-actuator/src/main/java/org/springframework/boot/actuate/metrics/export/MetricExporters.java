@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Triggers a number of {@link Exporter Exporters} periodically on a single background
+ * thread. There is a fixed delay between the end of one export and the start of the
+ * next so that slow exports do not pile up. When stopped, a final export is run and any
+ * {@link Closeable} exporters are closed.
+ *
+ * @author Dave Syer
+ */
+public class MetricExporters implements SmartLifecycle {
+
+	private static Log logger = LogFactory.getLog(MetricExporters.class);
+
+	private final List<Exporter> exporters = new ArrayList<Exporter>();
+
+	private final long delayMillis;
+
+	private final Object monitor = new Object();
+
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Create a new {@link MetricExporters} instance.
+	 * @param delayMillis the delay in milliseconds between exports
+	 */
+	public MetricExporters(long delayMillis) {
+		Assert.isTrue(delayMillis > 0, "DelayMillis must be positive");
+		this.delayMillis = delayMillis;
+	}
+
+	/**
+	 * Add an exporter. Must be called before the exporters are started.
+	 * @param exporter the exporter to add
+	 */
+	public void addExporter(Exporter exporter) {
+		Assert.notNull(exporter, "Exporter must not be null");
+		this.exporters.add(exporter);
+	}
+
+	/**
+	 * Returns the exporters that are triggered.
+	 * @return the exporters
+	 */
+	public Collection<Exporter> getExporters() {
+		return this.exporters;
+	}
+
+	/**
+	 * Trigger all exporters now. A failing exporter does not prevent the others from
+	 * running.
+	 */
+	public void export() {
+		for (Exporter exporter : this.exporters) {
+			try {
+				exporter.export();
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Failed to export metrics using " + exporter, ex);
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.executor != null || this.exporters.isEmpty()) {
+				return;
+			}
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"metrics-export-");
+			threadFactory.setDaemon(true);
+			this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			this.executor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					export();
+				}
+			}, this.delayMillis, this.delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.monitor) {
+			if (this.executor == null) {
+				return;
+			}
+			this.executor.shutdown();
+			try {
+				this.executor.awaitTermination(this.delayMillis, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.executor = null;
+			export();
+			for (Exporter exporter : this.exporters) {
+				close(exporter);
+			}
+		}
+	}
+
+	private void close(Exporter exporter) {
+		if (exporter instanceof Closeable) {
+			try {
+				((Closeable) exporter).close();
+			}
+			catch (IOException ex) {
+				logger.debug("Failed to close " + exporter, ex);
+			}
+		}
+	}
+
+	@Override
+	public void stop(Runnable callback) {
+		stop();
+		callback.run();
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (this.monitor) {
+			return this.executor != null;
+		}
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return true;
+	}
+
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+}
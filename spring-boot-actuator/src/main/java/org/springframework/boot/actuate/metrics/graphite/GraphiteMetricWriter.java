@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.graphite;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.BufferedMetricWriter;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+
+/**
+ * {@link MetricWriter} that sends metrics to Graphite (Carbon) using the plaintext
+ * protocol over TCP ({@code name value timestamp}). Graphite stores absolute values so
+ * increments are added to a running total that is kept locally. Many lines are sent in
+ * each write and the connection is re-established if it fails.
+ *
+ * @author Dave Syer
+ */
+public class GraphiteMetricWriter extends BufferedMetricWriter {
+
+	/**
+	 * The default maximum number of bytes sent in each write.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 8192;
+
+	private static final int CONNECT_TIMEOUT = 2000;
+
+	private static final Pattern INVALID_CHARACTERS = Pattern.compile("\\s");
+
+	private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+
+	private final InetSocketAddress address;
+
+	private Socket socket;
+
+	private OutputStream outputStream;
+
+	/**
+	 * Create a new {@link GraphiteMetricWriter} instance.
+	 * @param host the Graphite host
+	 * @param port the Graphite plaintext port
+	 */
+	public GraphiteMetricWriter(String host, int port) {
+		this(host, port, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Create a new {@link GraphiteMetricWriter} instance.
+	 * @param host the Graphite host
+	 * @param port the Graphite plaintext port
+	 * @param queueCapacity the maximum number of queued updates
+	 * @param maxBatchSize the maximum number of bytes sent in each write
+	 */
+	public GraphiteMetricWriter(String host, int port, int queueCapacity,
+			int maxBatchSize) {
+		super(queueCapacity, maxBatchSize);
+		this.address = new InetSocketAddress(host, port);
+	}
+
+	@Override
+	public void reset(String metricName) {
+		this.counters.remove(metricName);
+	}
+
+	@Override
+	protected String formatIncrement(Delta<?> delta) {
+		AtomicLong counter = this.counters.get(delta.getName());
+		if (counter == null) {
+			this.counters.putIfAbsent(delta.getName(), new AtomicLong());
+			counter = this.counters.get(delta.getName());
+		}
+		long total = counter.addAndGet(delta.getValue().longValue());
+		return format(delta.getName(), total, delta.getTimestamp());
+	}
+
+	@Override
+	protected String formatSet(Metric<?> value) {
+		return format(value.getName(), value.getValue(), value.getTimestamp());
+	}
+
+	private String format(String name, Number value, Date timestamp) {
+		return INVALID_CHARACTERS.matcher(name).replaceAll("_") + " " + value + " "
+				+ timestamp.getTime() / 1000;
+	}
+
+	@Override
+	protected void send(byte[] bytes, int length) throws IOException {
+		if (this.socket == null) {
+			Socket socket = new Socket();
+			try {
+				socket.connect(this.address, CONNECT_TIMEOUT);
+			}
+			catch (IOException ex) {
+				socket.close();
+				throw ex;
+			}
+			this.socket = socket;
+			this.outputStream = socket.getOutputStream();
+		}
+		this.outputStream.write(bytes, 0, length);
+		this.outputStream.flush();
+	}
+
+	@Override
+	protected void disconnect() {
+		if (this.socket != null) {
+			try {
+				this.socket.close();
+			}
+			catch (IOException ex) {
+				// Ignore
+			}
+			this.socket = null;
+			this.outputStream = null;
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed memory, concurrent histogram of non-negative values. Values are counted in
+ * log-linear buckets: each power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so any value reported from the histogram is within about 1.6% of a recorded
+ * value. Values between {@code 2^-10} and {@code 2^31} are tracked (for timings in
+ * milliseconds that is roughly a microsecond to three weeks); smaller values are counted
+ * as zero and larger ones in the highest bucket. Recording a value is lock-free and does
+ * not allocate.
+ *
+ * @author Dave Syer
+ * @see WindowedHistogram
+ */
+public class Histogram {
+
+	private static final int PRECISION_BITS = 5;
+
+	static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+
+	private static final int MIN_EXPONENT = -10;
+
+	private static final int MAX_EXPONENT = 30;
+
+	private static final int MANTISSA_BITS = 52;
+
+	static final int BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong sum = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+	private final AtomicLong max = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+	/**
+	 * Record a single value.
+	 * @param value the value (negative values are counted as zero)
+	 */
+	public void record(double value) {
+		if (value < 0 || Double.isNaN(value)) {
+			value = 0.0;
+		}
+		this.counts.incrementAndGet(getIndex(value));
+		while (true) {
+			long current = this.sum.get();
+			double updated = Double.longBitsToDouble(current) + value;
+			if (this.sum.compareAndSet(current, Double.doubleToRawLongBits(updated))) {
+				break;
+			}
+		}
+		while (true) {
+			long current = this.max.get();
+			if (value <= Double.longBitsToDouble(current)
+					|| this.max.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Clear all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			this.counts.set(i, 0L);
+		}
+		this.sum.set(Double.doubleToRawLongBits(0.0));
+		this.max.set(Double.doubleToRawLongBits(0.0));
+	}
+
+	/**
+	 * Add the bucket counts of this histogram to the given array.
+	 * @param counts an array of {@link #BUCKETS} counts to add to
+	 */
+	void addCountsTo(long[] counts) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += this.counts.get(i);
+		}
+	}
+
+	double getSum() {
+		return Double.longBitsToDouble(this.sum.get());
+	}
+
+	double getMax() {
+		return Double.longBitsToDouble(this.max.get());
+	}
+
+	/**
+	 * Create an immutable snapshot of the current state of this histogram.
+	 * @param name the name of the snapshot
+	 * @return the snapshot
+	 */
+	public HistogramSnapshot snapshot(String name) {
+		long[] counts = new long[BUCKETS];
+		addCountsTo(counts);
+		return new HistogramSnapshot(name, counts, getSum(), getMax());
+	}
+
+	static int getIndex(double value) {
+		int exponent = Math.getExponent(value);
+		if (exponent < MIN_EXPONENT) {
+			return 0;
+		}
+		if (exponent > MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		long bits = Double.doubleToRawLongBits(value);
+		int subBucket = (int) ((bits >>> (MANTISSA_BITS - PRECISION_BITS)) & (SUB_BUCKETS - 1));
+		return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Return a representative value (the midpoint) for the bucket at the given index.
+	 * @param index the bucket index
+	 * @return the value
+	 */
+	static double getValue(int index) {
+		if (index == 0) {
+			return 0.0;
+		}
+		int exponent = (index - 1) / SUB_BUCKETS + MIN_EXPONENT;
+		int subBucket = (index - 1) % SUB_BUCKETS;
+		double lower = Math.scalb(1.0 + (double) subBucket / SUB_BUCKETS, exponent);
+		double upper = Math.scalb(1.0 + (double) (subBucket + 1) / SUB_BUCKETS, exponent);
+		return (lower + upper) / 2;
+	}
+
+}
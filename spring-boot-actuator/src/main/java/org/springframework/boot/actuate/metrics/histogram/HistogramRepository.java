@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+/**
+ * Convenient combination of a {@link HistogramReader} with operations to record values.
+ *
+ * @author Dave Syer
+ */
+public interface HistogramRepository extends HistogramReader {
+
+	/**
+	 * Record a value in the named histogram, creating it if necessary.
+	 * @param name the name of the histogram
+	 * @param value the value to record
+	 */
+	void record(String name, double value);
+
+	/**
+	 * Remove the named histogram.
+	 * @param name the name of the histogram
+	 */
+	void reset(String name);
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import org.springframework.util.Assert;
+
+/**
+ * Immutable view of the values recorded in a {@link Histogram} at a point in time, from
+ * which percentiles can be computed.
+ *
+ * @author Dave Syer
+ */
+public final class HistogramSnapshot {
+
+	public static final String COUNT = ".count";
+
+	public static final String MAX = ".max";
+
+	public static final String MEAN = ".mean";
+
+	public static final String P50 = ".p50";
+
+	public static final String P95 = ".p95";
+
+	public static final String P99 = ".p99";
+
+	public static final String P999 = ".p999";
+
+	private final String name;
+
+	private final long[] counts;
+
+	private final long count;
+
+	private final double sum;
+
+	private final double max;
+
+	HistogramSnapshot(String name, long[] counts, double sum, double max) {
+		Assert.notNull(name, "Name must not be null");
+		this.name = name;
+		this.counts = counts;
+		long count = 0;
+		for (long bucket : counts) {
+			count += bucket;
+		}
+		this.count = count;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	/**
+	 * @return the name of the histogram
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the largest recorded value (exact)
+	 */
+	public double getMax() {
+		return this.max;
+	}
+
+	/**
+	 * @return the mean of the recorded values (exact)
+	 */
+	public double getMean() {
+		return (this.count == 0 ? 0.0 : this.sum / this.count);
+	}
+
+	/**
+	 * Return the value below which the given percentage of recorded values fall (within
+	 * the precision of the histogram).
+	 * @param percentile the percentile (between 0 and 100)
+	 * @return the value at the percentile or 0 if no values have been recorded
+	 */
+	public double getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100,
+				"Percentile must be between 0 and 100");
+		if (this.count == 0) {
+			return 0.0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+			if (seen >= rank) {
+				return Math.min(Histogram.getValue(i), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	@Override
+	public String toString() {
+		return "HistogramSnapshot [name=" + this.name + ", count=" + this.count
+				+ ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50)
+				+ ", p99=" + getValueAtPercentile(99) + ", max=" + this.max + "]";
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In memory implementation of {@link HistogramRepository} backed by a
+ * {@link WindowedHistogram} per name. By default each histogram reflects values recorded
+ * in the last minute (divided into two slices).
+ *
+ * @author Dave Syer
+ */
+public class InMemoryHistogramRepository implements HistogramRepository {
+
+	private final ConcurrentNavigableMap<String, WindowedHistogram> histograms = new ConcurrentSkipListMap<String, WindowedHistogram>();
+
+	private long windowMillis = 60000;
+
+	private int slices = 2;
+
+	/**
+	 * Set the length of the window (in milliseconds) covered by each histogram. Only
+	 * applies to histograms created after the call.
+	 * @param windowMillis the window length
+	 */
+	public void setWindowMillis(long windowMillis) {
+		this.windowMillis = windowMillis;
+	}
+
+	/**
+	 * Set the number of slices the window is divided into. More slices give a smoother
+	 * window at the cost of more memory per histogram. Only applies to histograms created
+	 * after the call.
+	 * @param slices the number of slices
+	 */
+	public void setSlices(int slices) {
+		this.slices = slices;
+	}
+
+	@Override
+	public void record(String name, double value) {
+		WindowedHistogram histogram = this.histograms.get(name);
+		if (histogram == null) {
+			histogram = new WindowedHistogram(this.windowMillis, this.slices);
+			WindowedHistogram existing = this.histograms.putIfAbsent(name, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		histogram.record(value);
+	}
+
+	@Override
+	public void reset(String name) {
+		this.histograms.remove(name);
+	}
+
+	@Override
+	public HistogramSnapshot findOne(String name) {
+		WindowedHistogram histogram = this.histograms.get(name);
+		return (histogram == null ? null : histogram.snapshot(name));
+	}
+
+	@Override
+	public Iterable<HistogramSnapshot> findAll() {
+		List<HistogramSnapshot> snapshots = new ArrayList<HistogramSnapshot>();
+		for (Map.Entry<String, WindowedHistogram> entry : this.histograms.entrySet()) {
+			snapshots.add(entry.getValue().snapshot(entry.getKey()));
+		}
+		return snapshots;
+	}
+
+	@Override
+	public long count() {
+		return this.histograms.size();
+	}
+
+}
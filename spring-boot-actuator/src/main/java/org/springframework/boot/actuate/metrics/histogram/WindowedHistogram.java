@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Histogram} that only reflects recently recorded values. The window is divided
+ * into a number of slices, each backed by its own histogram. Values are recorded into
+ * the current slice and the oldest slice is cleared and reused each time a slice
+ * interval elapses, so a snapshot covers between {@code (slices - 1) / slices} of the
+ * window and the whole window.
+ *
+ * @author Dave Syer
+ */
+public class WindowedHistogram {
+
+	private final Histogram[] slices;
+
+	private final long sliceMillis;
+
+	private final AtomicLong nextRotation;
+
+	private volatile int current;
+
+	/**
+	 * Create a new {@link WindowedHistogram}.
+	 * @param windowMillis the length of the window in milliseconds
+	 * @param slices the number of slices the window is divided into (at least 1)
+	 */
+	public WindowedHistogram(long windowMillis, int slices) {
+		Assert.isTrue(slices > 0, "Slices must be positive");
+		Assert.isTrue(windowMillis >= slices, "Window must be at least 1ms per slice");
+		this.slices = new Histogram[slices];
+		for (int i = 0; i < slices; i++) {
+			this.slices[i] = new Histogram();
+		}
+		this.sliceMillis = windowMillis / slices;
+		this.nextRotation = new AtomicLong(System.currentTimeMillis() + this.sliceMillis);
+	}
+
+	/**
+	 * Record a single value.
+	 * @param value the value
+	 */
+	public void record(double value) {
+		rotateIfNecessary();
+		this.slices[this.current].record(value);
+	}
+
+	/**
+	 * Clear all recorded values.
+	 */
+	public void reset() {
+		for (Histogram slice : this.slices) {
+			slice.reset();
+		}
+	}
+
+	/**
+	 * Create an immutable snapshot of the values recorded within the window.
+	 * @param name the name of the snapshot
+	 * @return the snapshot
+	 */
+	public HistogramSnapshot snapshot(String name) {
+		rotateIfNecessary();
+		long[] counts = new long[Histogram.BUCKETS];
+		double sum = 0.0;
+		double max = 0.0;
+		for (Histogram slice : this.slices) {
+			slice.addCountsTo(counts);
+			sum += slice.getSum();
+			max = Math.max(max, slice.getMax());
+		}
+		return new HistogramSnapshot(name, counts, sum, max);
+	}
+
+	private void rotateIfNecessary() {
+		long now = System.currentTimeMillis();
+		long next = this.nextRotation.get();
+		if (now < next) {
+			return;
+		}
+		long elapsed = (now - next) / this.sliceMillis + 1;
+		if (this.nextRotation.compareAndSet(next, next + elapsed * this.sliceMillis)) {
+			int current = this.current;
+			for (int i = 0; i < Math.min(elapsed, this.slices.length); i++) {
+				current = (current + 1) % this.slices.length;
+				this.slices[current].reset();
+			}
+			this.current = current;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2104 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,21 @@
 package org.springframework.boot.actuate.metrics.reader;
 
 import java.beans.PropertyDescriptor;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.util.StringUtils;
+import org.springframework.util.ReflectionUtils;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
@@ -39,6 +39,7 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.MetricRegistryListener;
 import com.codahale.metrics.Sampling;
+import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
 
 /**
@@ -46,53 +47,33 @@ import com.codahale.metrics.Timer;
  * {@link MetricRegistry}. Gauges and Counters are reflected as a single value. Timers,
  * Meters and Histograms are expanded into sets of metrics containing all the properties
  * of type Number.
+ * <p>
+ * The metric names and property accessors are worked out once, when a metric is added to
+ * the registry, and the registry metrics are then read directly. When reading all
+ * metrics the snapshot of each Timer or Histogram is only taken once.
  *
  * @author Dave Syer
  *
  */
 public class MetricRegistryMetricReader implements MetricReader, MetricRegistryListener {
 
-	private static Map<Class<?>, Set<String>> numberKeys = new ConcurrentHashMap<Class<?>, Set<String>>();
+	private static Map<Class<?>, Map<String, Method>> numberProperties = new ConcurrentHashMap<Class<?>, Map<String, Method>>();
 
-	private MetricRegistry registry;
+	private final ConcurrentMap<String, Source> sources = new ConcurrentHashMap<String, Source>();
 
-	private Map<String, String> names = new HashMap<String, String>();
-
-	private MultiValueMap<String, String> reverse = new LinkedMultiValueMap<String, String>();
+	private final ConcurrentMap<String, Source> names = new ConcurrentHashMap<String, Source>();
 
 	public MetricRegistryMetricReader(MetricRegistry registry) {
-		this.registry = registry;
 		registry.addListener(this);
 	}
 
 	@Override
 	public Metric<?> findOne(String metricName) {
-		if (!names.containsKey(metricName)) {
+		Source source = this.names.get(metricName);
+		if (source == null) {
 			return null;
 		}
-		com.codahale.metrics.Metric metric = registry.getMetrics().get(
-				names.get(metricName));
-		if (metric instanceof Counter) {
-			Counter counter = (Counter) metric;
-			return new Metric<Number>(metricName, counter.getCount());
-		}
-		if (metric instanceof Gauge) {
-			@SuppressWarnings("unchecked")
-			Gauge<Number> value = (Gauge<Number>) metric;
-			return new Metric<Number>(metricName, value.getValue());
-		}
-		if (metric instanceof Sampling) {
-			if (metricName.contains(".snapshot.")) {
-				Number value = getMetric(((Sampling) metric).getSnapshot(), metricName);
-				if (metric instanceof Timer) {
-					// convert back to MILLISEC
-					value = TimeUnit.MILLISECONDS.convert(value.longValue(),
-							TimeUnit.NANOSECONDS);
-				}
-				return new Metric<Number>(metricName, value);
-			}
-		}
-		return new Metric<Number>(metricName, getMetric(metric, metricName));
+		return source.read(metricName, source.getSnapshot(metricName));
 	}
 
 	@Override
@@ -107,13 +88,12 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	@Override
 	public long count() {
-		return names.size();
+		return this.names.size();
 	}
 
 	@Override
 	public void onGaugeAdded(String name, Gauge<?> gauge) {
-		names.put(name, name);
-		reverse.add(name, name);
+		add(new Source(name, gauge));
 	}
 
 	@Override
@@ -123,8 +103,7 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	@Override
 	public void onCounterAdded(String name, Counter counter) {
-		names.put(name, name);
-		reverse.add(name, name);
+		add(new Source(name, counter));
 	}
 
 	@Override
@@ -134,16 +113,7 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	@Override
 	public void onHistogramAdded(String name, Histogram histogram) {
-		for (String key : getNumberKeys(histogram)) {
-			String metricName = name + "." + key;
-			names.put(metricName, name);
-			reverse.add(name, metricName);
-		}
-		for (String key : getNumberKeys(histogram.getSnapshot())) {
-			String metricName = name + ".snapshot." + key;
-			names.put(metricName, name);
-			reverse.add(name, metricName);
-		}
+		add(new Source(name, histogram));
 	}
 
 	@Override
@@ -153,11 +123,7 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	@Override
 	public void onMeterAdded(String name, Meter meter) {
-		for (String key : getNumberKeys(meter)) {
-			String metricName = name + "." + key;
-			names.put(metricName, name);
-			reverse.add(name, metricName);
-		}
+		add(new Source(name, meter));
 	}
 
 	@Override
@@ -167,16 +133,7 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	@Override
 	public void onTimerAdded(String name, Timer timer) {
-		for (String key : getNumberKeys(timer)) {
-			String metricName = name + "." + key;
-			names.put(metricName, name);
-			reverse.add(name, metricName);
-		}
-		for (String key : getNumberKeys(timer.getSnapshot())) {
-			String metricName = name + ".snapshot." + key;
-			names.put(metricName, name);
-			reverse.add(name, metricName);
-		}
+		add(new Source(name, timer));
 	}
 
 	@Override
@@ -184,31 +141,160 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 		remove(name);
 	}
 
+	private void add(Source source) {
+		remove(source.getName());
+		this.sources.put(source.getName(), source);
+		for (String metricName : source.getMetricNames()) {
+			this.names.put(metricName, source);
+		}
+	}
+
 	private void remove(String name) {
-		for (String key : reverse.get(name)) {
-			names.remove(name + "." + key);
+		Source source = this.sources.remove(name);
+		if (source != null) {
+			for (String metricName : source.getMetricNames()) {
+				this.names.remove(metricName, source);
+			}
 		}
-		reverse.remove(name);
 	}
 
+	private static Map<String, Method> getNumberProperties(Class<?> type) {
+		Map<String, Method> result = numberProperties.get(type);
+		if (result == null) {
+			result = new LinkedHashMap<String, Method>();
+			for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+				if (descriptor.getReadMethod() != null
+						&& ClassUtils.isAssignable(Number.class,
+								descriptor.getPropertyType())) {
+					Method method = descriptor.getReadMethod();
+					ReflectionUtils.makeAccessible(method);
+					result.put(descriptor.getName(), method);
+				}
+			}
+			result = Collections.unmodifiableMap(result);
+			numberProperties.put(type, result);
+		}
+		return result;
+	}
+
+	/**
+	 * A metric in the registry along with the names and accessors of the values that it
+	 * is expanded into.
+	 */
+	private static class Source {
+
+		private final String name;
+
+		private final com.codahale.metrics.Metric metric;
+
+		private final Map<String, Method> properties = new LinkedHashMap<String, Method>();
+
+		private final Map<String, Method> snapshotProperties = new LinkedHashMap<String, Method>();
+
+		private final List<String> metricNames = new ArrayList<String>();
+
+		public Source(String name, com.codahale.metrics.Metric metric) {
+			this.name = name;
+			this.metric = metric;
+			if (metric instanceof Counter || metric instanceof Gauge) {
+				this.metricNames.add(name);
+				return;
+			}
+			for (Map.Entry<String, Method> entry : getNumberProperties(metric.getClass())
+					.entrySet()) {
+				this.properties.put(name + "." + entry.getKey(), entry.getValue());
+			}
+			if (metric instanceof Sampling) {
+				Class<?> snapshotType = ((Sampling) metric).getSnapshot().getClass();
+				for (Map.Entry<String, Method> entry : getNumberProperties(snapshotType)
+						.entrySet()) {
+					this.snapshotProperties.put(name + ".snapshot." + entry.getKey(),
+							entry.getValue());
+				}
+			}
+			this.metricNames.addAll(this.properties.keySet());
+			this.metricNames.addAll(this.snapshotProperties.keySet());
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public List<String> getMetricNames() {
+			return this.metricNames;
+		}
+
+		public Snapshot getSnapshot(String metricName) {
+			if (metricName == null || this.snapshotProperties.containsKey(metricName)) {
+				return ((Sampling) this.metric).getSnapshot();
+			}
+			return null;
+		}
+
+		public Metric<?> read(String metricName, Snapshot snapshot) {
+			if (this.metric instanceof Counter) {
+				return new Metric<Number>(metricName, ((Counter) this.metric).getCount());
+			}
+			if (this.metric instanceof Gauge) {
+				@SuppressWarnings("unchecked")
+				Gauge<Number> gauge = (Gauge<Number>) this.metric;
+				return new Metric<Number>(metricName, gauge.getValue());
+			}
+			Method method = this.snapshotProperties.get(metricName);
+			if (method != null) {
+				Number value = (Number) ReflectionUtils.invokeMethod(method, snapshot);
+				if (this.metric instanceof Timer) {
+					// convert back to MILLISEC
+					value = TimeUnit.MILLISECONDS.convert(value.longValue(),
+							TimeUnit.NANOSECONDS);
+				}
+				return new Metric<Number>(metricName, value);
+			}
+			method = this.properties.get(metricName);
+			return new Metric<Number>(metricName, (Number) ReflectionUtils.invokeMethod(
+					method, this.metric));
+		}
+
+		public void readAll(List<Metric<?>> result) {
+			Snapshot snapshot = (this.snapshotProperties.isEmpty() ? null
+					: getSnapshot(null));
+			for (String metricName : this.metricNames) {
+				result.add(read(metricName, snapshot));
+			}
+		}
+
+	}
+
+	/**
+	 * Iterator that reads the metrics of one registry metric at a time.
+	 */
 	private class MetricRegistryIterator implements Iterator<Metric<?>> {
 
-		private Iterator<String> iterator;
+		private final Iterator<Source> sources;
+
+		private final List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+
+		private Iterator<Metric<?>> iterator = Collections.<Metric<?>> emptyList()
+				.iterator();
 
 		public MetricRegistryIterator() {
-			this.iterator = new HashSet<String>(
-					MetricRegistryMetricReader.this.names.keySet()).iterator();
+			this.sources = MetricRegistryMetricReader.this.sources.values().iterator();
 		}
 
 		@Override
 		public boolean hasNext() {
-			return iterator.hasNext();
+			while (!this.iterator.hasNext() && this.sources.hasNext()) {
+				this.metrics.clear();
+				this.sources.next().readAll(this.metrics);
+				this.iterator = this.metrics.iterator();
+			}
+			return this.iterator.hasNext();
 		}
 
 		@Override
 		public Metric<?> next() {
-			String name = iterator.next();
-			return MetricRegistryMetricReader.this.findOne(name);
+			hasNext();
+			return this.iterator.next();
 		}
 
 		@Override
@@ -219,24 +305,4 @@ public class MetricRegistryMetricReader implements MetricReader, MetricRegistryL
 
 	}
 
-	private static Set<String> getNumberKeys(Object metric) {
-		Set<String> result = numberKeys.containsKey(metric.getClass()) ? numberKeys
-				.get(metric.getClass()) : new HashSet<String>();
-		if (result.isEmpty()) {
-			for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(metric
-					.getClass())) {
-				if (ClassUtils.isAssignable(Number.class, descriptor.getPropertyType())) {
-					result.add(descriptor.getName());
-				}
-			}
-			numberKeys.put(metric.getClass(), result);
-		}
-		return result;
-	}
-
-	private static Number getMetric(Object metric, String metricName) {
-		String key = StringUtils.getFilenameExtension(metricName);
-		return (Number) new BeanWrapperImpl(metric).getPropertyValue(key);
-	}
-
 }
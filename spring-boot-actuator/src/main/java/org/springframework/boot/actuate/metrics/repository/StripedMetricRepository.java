@@ -0,0 +1,211 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
+import org.springframework.boot.actuate.metrics.util.StripedLong;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+
+/**
+ * {@link MetricRepository} and {@link MultiMetricRepository} implementation that stores
+ * metrics in memory, optimized for high frequency updates from many threads. Counter
+ * increments are accumulated in {@link StripedLong} cells, so they take no locks and do
+ * not allocate once a metric has been seen. {@link Metric} instances are only created
+ * when values are read back (e.g. by the metrics endpoint or an exporter).
+ * <p>
+ * A {@link #set(Metric) set} replaces any previous value of the metric, and subsequent
+ * increments are added to the value that was set (as with
+ * {@link InMemoryMetricRepository}). Updates that race with a set or a
+ * {@link #reset(String) reset} of the same metric may be lost.
+ *
+ * @author Dave Syer
+ * @see InMemoryMetricRepository
+ */
+public class StripedMetricRepository implements MetricRepository,
+		MultiMetricRepository, PrefixMetricReader {
+
+	private final ConcurrentNavigableMap<String, Entry> entries = new ConcurrentSkipListMap<String, Entry>();
+
+	private final Set<String> groups = Collections
+			.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	@Override
+	public void increment(Delta<?> delta) {
+		String metricName = delta.getName();
+		Entry entry = this.entries.get(metricName);
+		if (entry == null) {
+			entry = new Entry(null);
+			Entry existing = this.entries.putIfAbsent(metricName, entry);
+			if (existing != null) {
+				entry = existing;
+			}
+		}
+		entry.increment(delta.getValue().longValue(), getTime(delta.getTimestamp()));
+	}
+
+	@Override
+	public void set(Metric<?> value) {
+		Entry entry = new Entry(value.getValue());
+		entry.timestamp = getTime(value.getTimestamp());
+		this.entries.put(value.getName(), entry);
+	}
+
+	@Override
+	public void set(String group, Collection<Metric<?>> values) {
+		String prefix = getPrefix(group);
+		for (Metric<?> metric : values) {
+			if (!metric.getName().startsWith(prefix)) {
+				metric = new Metric<Number>(prefix + metric.getName(), metric.getValue(),
+						metric.getTimestamp());
+			}
+			set(metric);
+		}
+		this.groups.add(group);
+	}
+
+	@Override
+	public void increment(String group, Delta<?> delta) {
+		String prefix = getPrefix(group);
+		if (!delta.getName().startsWith(prefix)) {
+			delta = new Delta<Number>(prefix + delta.getName(), delta.getValue(),
+					delta.getTimestamp());
+		}
+		increment(delta);
+		this.groups.add(group);
+	}
+
+	@Override
+	public Iterable<String> groups() {
+		return Collections.unmodifiableCollection(this.groups);
+	}
+
+	@Override
+	public long count() {
+		return this.entries.size();
+	}
+
+	@Override
+	public long countGroups() {
+		return this.groups.size();
+	}
+
+	/**
+	 * Reset a single metric or, if the name is that of a group, all the metrics in the
+	 * group.
+	 * @param metricName the name of the metric or group
+	 */
+	@Override
+	public void reset(String metricName) {
+		if (this.groups.remove(metricName)) {
+			String prefix = getPrefix(metricName);
+			this.entries.subMap(prefix, true, prefix + "~", true).clear();
+		}
+		this.entries.remove(metricName);
+	}
+
+	@Override
+	public Metric<?> findOne(String metricName) {
+		Entry entry = this.entries.get(metricName);
+		return (entry == null ? null : entry.toMetric(metricName));
+	}
+
+	@Override
+	public Iterable<Metric<?>> findAll() {
+		return toMetrics(this.entries);
+	}
+
+	@Override
+	public Iterable<Metric<?>> findAll(String metricNamePrefix) {
+		String prefix = metricNamePrefix;
+		if (prefix.endsWith(".*")) {
+			prefix = prefix.substring(0, prefix.length() - 1);
+		}
+		if (!prefix.endsWith(".")) {
+			prefix = prefix + ".";
+		}
+		return toMetrics(this.entries.subMap(prefix, false, prefix + "~", true));
+	}
+
+	private List<Metric<?>> toMetrics(Map<String, Entry> entries) {
+		List<Metric<?>> metrics = new ArrayList<Metric<?>>(entries.size());
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			metrics.add(entry.getValue().toMetric(entry.getKey()));
+		}
+		return metrics;
+	}
+
+	private String getPrefix(String group) {
+		return (group.endsWith(".") ? group : group + ".");
+	}
+
+	private long getTime(Date timestamp) {
+		return (timestamp == null ? System.currentTimeMillis() : timestamp.getTime());
+	}
+
+	/**
+	 * The state of a single metric: an optional value that was last {@code set} plus the
+	 * sum of all increments since.
+	 */
+	private static class Entry {
+
+		private final Number value;
+
+		private final StripedLong increments = new StripedLong();
+
+		private volatile boolean incremented;
+
+		private volatile long timestamp;
+
+		Entry(Number value) {
+			this.value = value;
+		}
+
+		public void increment(long amount, long timestamp) {
+			this.increments.add(amount);
+			if (!this.incremented) {
+				this.incremented = true;
+			}
+			this.timestamp = timestamp;
+		}
+
+		public Metric<?> toMetric(String name) {
+			Date timestamp = new Date(this.timestamp);
+			if (!this.incremented && this.value != null) {
+				return new Metric<Number>(name, this.value, timestamp);
+			}
+			long total = this.increments.sum();
+			if (this.value != null) {
+				total += this.value.longValue();
+			}
+			return new Metric<Long>(name, total, timestamp);
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository.redis;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.repository.MetricRepository;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.util.Assert;
+
+/**
+ * A write-behind {@link MetricRepository} in front of a {@link RedisMetricRepository}.
+ * Updates are folded locally into a single pending update per metric name: increments
+ * are summed, a set value replaces anything pending and later increments are added to
+ * it. All pending updates are flushed to Redis in a single pipelined round trip, either
+ * periodically ({@link #setFlushInterval(long) flushInterval}) or as soon as a
+ * {@link #setFlushThreshold(int) threshold} number of updates is pending. The Redis
+ * traffic is therefore proportional to the number of distinct metrics per flush, not to
+ * the number of updates.
+ * <p>
+ * Read operations are delegated to Redis, so they only see flushed updates. Call
+ * {@link #flush()} first if you need to read your own writes. Pending updates are
+ * flushed when the repository is destroyed.
+ *
+ * @author Dave Syer
+ */
+public class BufferedRedisMetricRepository implements MetricRepository,
+		InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory
+			.getLog(BufferedRedisMetricRepository.class);
+
+	private final RedisMetricRepository delegate;
+
+	private final ConcurrentMap<String, PendingUpdate> updates = new ConcurrentHashMap<String, PendingUpdate>();
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private long flushInterval = 5000;
+
+	private int flushThreshold = 10000;
+
+	private ScheduledExecutorService executor;
+
+	public BufferedRedisMetricRepository(RedisMetricRepository delegate) {
+		Assert.notNull(delegate, "Delegate RedisMetricRepository must not be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the interval in milliseconds between periodic flushes (default 5000).
+	 * @param flushInterval the flush interval
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Set the number of pending updates that triggers an early flush (default 10000).
+	 * @param flushThreshold the flush threshold
+	 */
+	public void setFlushThreshold(int flushThreshold) {
+		this.flushThreshold = flushThreshold;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "redis-metrics-flush");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				flushQuietly();
+			}
+		}, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null) {
+			this.executor.shutdown();
+		}
+		flush();
+	}
+
+	@Override
+	public void increment(Delta<?> delta) {
+		String name = delta.getName();
+		double amount = delta.getValue().doubleValue();
+		while (true) {
+			PendingUpdate current = this.updates.get(name);
+			if (current == null) {
+				if (this.updates.putIfAbsent(name, new PendingUpdate(null, amount,
+						delta.getTimestamp())) == null) {
+					break;
+				}
+			}
+			else if (this.updates.replace(name, current,
+					current.increment(amount, delta.getTimestamp()))) {
+				break;
+			}
+		}
+		updated();
+	}
+
+	@Override
+	public void set(Metric<?> value) {
+		this.updates.put(value.getName(), new PendingUpdate(value.getValue(), 0.0,
+				value.getTimestamp()));
+		updated();
+	}
+
+	@Override
+	public void reset(String metricName) {
+		this.updates.remove(metricName);
+		this.delegate.reset(metricName);
+	}
+
+	@Override
+	public Metric<?> findOne(String metricName) {
+		return this.delegate.findOne(metricName);
+	}
+
+	@Override
+	public Iterable<Metric<?>> findAll() {
+		return this.delegate.findAll();
+	}
+
+	@Override
+	public long count() {
+		return this.delegate.count();
+	}
+
+	/**
+	 * Write all pending updates to Redis in a single pipelined batch.
+	 */
+	public synchronized void flush() {
+		this.pending.set(0);
+		List<Delta<?>> deltas = new ArrayList<Delta<?>>();
+		List<Metric<?>> values = new ArrayList<Metric<?>>();
+		for (Map.Entry<String, PendingUpdate> entry : this.updates.entrySet()) {
+			PendingUpdate update = entry.getValue();
+			if (this.updates.remove(entry.getKey(), update)) {
+				update.addTo(entry.getKey(), deltas, values);
+			}
+		}
+		if (!deltas.isEmpty() || !values.isEmpty()) {
+			this.delegate.write(deltas, values);
+		}
+	}
+
+	private void updated() {
+		if (this.pending.incrementAndGet() >= this.flushThreshold
+				&& this.executor != null && this.flushScheduled.compareAndSet(false, true)) {
+			this.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					BufferedRedisMetricRepository.this.flushScheduled.set(false);
+					flushQuietly();
+				}
+			});
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		}
+		catch (Exception ex) {
+			logger.warn("Could not flush metrics to Redis", ex);
+		}
+	}
+
+	/**
+	 * The folded, immutable state of the updates to a single metric between flushes:
+	 * either a sum of increments or a value that was set plus any later increments.
+	 */
+	private static class PendingUpdate {
+
+		private final Number value;
+
+		private final double delta;
+
+		private final Date timestamp;
+
+		public PendingUpdate(Number value, double delta, Date timestamp) {
+			this.value = value;
+			this.delta = delta;
+			this.timestamp = timestamp;
+		}
+
+		public PendingUpdate increment(double amount, Date timestamp) {
+			if (this.value != null) {
+				return new PendingUpdate(this.value.doubleValue() + amount, 0.0,
+						timestamp);
+			}
+			return new PendingUpdate(null, this.delta + amount, timestamp);
+		}
+
+		public void addTo(String name, List<Delta<?>> deltas, List<Metric<?>> values) {
+			if (this.value != null) {
+				values.add(new Metric<Number>(name, this.value, this.timestamp));
+			}
+			else {
+				deltas.add(new Delta<Double>(name, this.delta, this.timestamp));
+			}
+		}
+
+	}
+
+}
@@ -17,6 +17,8 @@
 package org.springframework.boot.actuate.metrics.repository.redis;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +30,9 @@ import org.springframework.boot.actuate.metrics.writer.Delta;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundZSetOperations;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.util.Assert;
 
 /**
@@ -120,14 +125,18 @@ public class RedisMetricRepository implements MetricRepository {
 	public Iterable<Metric<?>> findAll() {
 
 		// This set is sorted
-		Set<String> keys = this.zSetOperations.range(0, -1);
-		Iterator<String> keysIt = keys.iterator();
+		Set<TypedTuple<String>> keys = this.zSetOperations.rangeWithScores(0, -1);
+		List<String> names = new ArrayList<String>(keys.size());
+		for (TypedTuple<String> key : keys) {
+			names.add(key.getValue());
+		}
+		Iterator<TypedTuple<String>> keysIt = keys.iterator();
 
 		List<Metric<?>> result = new ArrayList<Metric<?>>(keys.size());
-		List<String> values = this.redisOperations.opsForValue().multiGet(keys);
+		List<String> values = this.redisOperations.opsForValue().multiGet(names);
 		for (String v : values) {
-			String key = keysIt.next();
-			Metric<?> value = deserialize(key, v, this.zSetOperations.score(key));
+			TypedTuple<String> key = keysIt.next();
+			Metric<?> value = deserialize(key.getValue(), v, key.getScore());
 			if (value != null) {
 				result.add(value);
 			}
@@ -143,23 +152,43 @@ public class RedisMetricRepository implements MetricRepository {
 
 	@Override
 	public void increment(Delta<?> delta) {
-		String name = delta.getName();
-		String key = keyFor(name);
-		trackMembership(key);
-		double value = this.zSetOperations.incrementScore(key, delta.getValue()
-				.doubleValue());
-		String raw = serialize(new Metric<Double>(name, value, delta.getTimestamp()));
-		this.redisOperations.opsForValue().set(key, raw);
+		write(Collections.<Delta<?>> singleton(delta),
+				Collections.<Metric<?>> emptySet());
 	}
 
 	@Override
 	public void set(Metric<?> value) {
-		String name = value.getName();
-		String key = keyFor(name);
-		trackMembership(key);
-		this.zSetOperations.add(key, value.getValue().doubleValue());
-		String raw = serialize(value);
-		this.redisOperations.opsForValue().set(key, raw);
+		write(Collections.<Delta<?>> emptySet(), Collections.<Metric<?>> singleton(value));
+	}
+
+	/**
+	 * Apply a batch of increments and values in a single pipelined round trip to Redis.
+	 * @param deltas the increments to apply
+	 * @param values the values to set
+	 */
+	void write(final Collection<Delta<?>> deltas, final Collection<Metric<?>> values) {
+		this.redisOperations.executePipelined(new SessionCallback<Object>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> operations) {
+				RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+				BoundZSetOperations<String, String> zSetOps = ops
+						.boundZSetOps(RedisMetricRepository.this.key);
+				ValueOperations<String, String> valueOps = ops.opsForValue();
+				for (Delta<?> delta : deltas) {
+					String key = keyFor(delta.getName());
+					// ZINCRBY also tracks the key as a member of the index
+					zSetOps.incrementScore(key, delta.getValue().doubleValue());
+					valueOps.set(key, serialize(delta));
+				}
+				for (Metric<?> value : values) {
+					String key = keyFor(value.getName());
+					zSetOps.add(key, value.getValue().doubleValue());
+					valueOps.set(key, serialize(value));
+				}
+				return null;
+			}
+		});
 	}
 
 	@Override
@@ -190,8 +219,4 @@ public class RedisMetricRepository implements MetricRepository {
 		return redisKey.substring(this.prefix.length());
 	}
 
-	private void trackMembership(String redisKey) {
-		this.zSetOperations.incrementScore(redisKey, 0.0D);
-	}
-
 }
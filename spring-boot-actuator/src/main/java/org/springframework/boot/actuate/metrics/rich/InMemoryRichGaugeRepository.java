@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.boot.actuate.metrics.rich;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
 import org.springframework.boot.actuate.metrics.Metric;
-import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository;
-import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository.Callback;
 import org.springframework.boot.actuate.metrics.writer.Delta;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
 
@@ -27,12 +30,16 @@ import org.springframework.boot.actuate.metrics.writer.MetricWriter;
  * set a metric value (using {@link MetricWriter#set(Metric)}) it is used to update a rich
  * gauge (increment is a no-op). Gauge values can then be read out using the reader
  * operations.
+ * <p>
+ * Updates take no locks, so concurrent writers to the same gauge do not serialize. The
+ * {@link RichGauge} instances returned by the reader operations are snapshots that are
+ * not affected by later updates.
  *
  * @author Dave Syer
  */
 public class InMemoryRichGaugeRepository implements RichGaugeRepository {
 
-	private final SimpleInMemoryRepository<RichGauge> repository = new SimpleInMemoryRepository<RichGauge>();
+	private final ConcurrentNavigableMap<String, StripedRichGauge> gauges = new ConcurrentSkipListMap<String, StripedRichGauge>();
 
 	@Override
 	public void increment(Delta<?> delta) {
@@ -41,41 +48,55 @@ public class InMemoryRichGaugeRepository implements RichGaugeRepository {
 
 	@Override
 	public void set(Metric<?> metric) {
+		getGauge(metric.getName()).set(metric.getValue().doubleValue());
+	}
 
-		final String name = metric.getName();
-		final double value = metric.getValue().doubleValue();
-		this.repository.update(name, new Callback<RichGauge>() {
-			@Override
-			public RichGauge modify(RichGauge current) {
-				if (current == null) {
-					current = new RichGauge(name, value);
-				}
-				else {
-					current.set(value);
-				}
-				return current;
-			}
-		});
+	/**
+	 * Set the smoothing constant used to average the values of a gauge, creating the
+	 * gauge if necessary.
+	 * @param metricName the name of the gauge
+	 * @param alpha the weight between 0 and 1, or -1 to use the arithmetic mean
+	 * @see RichGauge#setAlpha(double)
+	 */
+	public void setAlpha(String metricName, double alpha) {
+		getGauge(metricName).setAlpha(alpha);
+	}
 
+	private StripedRichGauge getGauge(String name) {
+		StripedRichGauge gauge = this.gauges.get(name);
+		if (gauge == null) {
+			gauge = new StripedRichGauge(name);
+			StripedRichGauge existing = this.gauges.putIfAbsent(name, gauge);
+			if (existing != null) {
+				gauge = existing;
+			}
+		}
+		return gauge;
 	}
 
 	@Override
 	public void reset(String metricName) {
-		this.repository.remove(metricName);
+		this.gauges.remove(metricName);
 	}
 
 	@Override
 	public RichGauge findOne(String metricName) {
-		return this.repository.findOne(metricName);
+		StripedRichGauge gauge = this.gauges.get(metricName);
+		return (gauge == null ? null : gauge.snapshot());
 	}
 
 	@Override
 	public Iterable<RichGauge> findAll() {
-		return this.repository.findAll();
+		List<RichGauge> result = new ArrayList<RichGauge>(this.gauges.size());
+		for (StripedRichGauge gauge : this.gauges.values()) {
+			result.add(gauge.snapshot());
+		}
+		return result;
 	}
 
 	@Override
 	public long count() {
-		return this.repository.count();
+		return this.gauges.size();
 	}
+
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.rich;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import org.springframework.util.Assert;
+
+/**
+ * A lock-free accumulator for the values of a {@link RichGauge}. The count, sum, minimum
+ * and maximum are kept together in immutable aggregates that are swapped with a single
+ * compare-and-set, first on a base cell and, once contention is detected, on one of a
+ * fixed number of striped cells (one per available processor, rounded up to a power of
+ * two). The last value and, if a weight is set, the exponential moving average are kept
+ * in a separate cell since they depend on the order of the updates.
+ * <p>
+ * A {@link #snapshot()} merges the cells into a new {@link RichGauge}. Its count,
+ * average, minimum and maximum always describe the same set of complete updates, but it
+ * may miss updates that are in flight.
+ *
+ * @author Dave Syer
+ * @see InMemoryRichGaugeRepository
+ */
+final class StripedRichGauge {
+
+	/**
+	 * Number of array slots per cell, so that each live cell sits on its own cache line
+	 * even with compressed references.
+	 */
+	private static final int PADDING = 16;
+
+	private static final int STRIPES = stripes(Runtime.getRuntime()
+			.availableProcessors());
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<StripedRichGauge, AtomicReferenceArray> CELLS = AtomicReferenceFieldUpdater
+			.newUpdater(StripedRichGauge.class, AtomicReferenceArray.class, "cells");
+
+	private final String name;
+
+	private final AtomicReference<Aggregate> base = new AtomicReference<Aggregate>(
+			Aggregate.EMPTY);
+
+	private volatile AtomicReferenceArray<Aggregate> cells;
+
+	private final AtomicReference<Latest> latest = new AtomicReference<Latest>(
+			Latest.NONE);
+
+	private volatile double alpha = -1.0;
+
+	public StripedRichGauge(String name) {
+		Assert.notNull(name, "The gauge name cannot be null or empty");
+		this.name = name;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Set the smoothing constant used for the average.
+	 * @param alpha the weight between 0 and 1, or -1 to use the arithmetic mean
+	 * @see RichGauge#setAlpha(double)
+	 */
+	public void setAlpha(double alpha) {
+		Assert.isTrue(alpha == -1 || (alpha > 0.0 && alpha < 1.0),
+				"Smoothing constant must be between 0 and 1, or -1 to use arithmetic mean");
+		this.alpha = alpha;
+	}
+
+	/**
+	 * Record a new value.
+	 * @param value the value
+	 */
+	public void set(double value) {
+		AtomicReferenceArray<Aggregate> cells = this.cells;
+		if (cells == null) {
+			Aggregate current = this.base.get();
+			if (this.base.compareAndSet(current, current.add(value))) {
+				setLatest(value);
+				return;
+			}
+			cells = inflate();
+		}
+		int index = (hash(Thread.currentThread().getId()) & (STRIPES - 1));
+		while (true) {
+			int slot = index * PADDING;
+			Aggregate current = cells.get(slot);
+			if (cells.compareAndSet(slot, current, current.add(value))) {
+				break;
+			}
+			index = (index + 1) & (STRIPES - 1);
+		}
+		setLatest(value);
+	}
+
+	private void setLatest(double value) {
+		double alpha = this.alpha;
+		if (alpha <= 0.0) {
+			this.latest.set(new Latest(value, Double.NaN, true));
+			return;
+		}
+		while (true) {
+			Latest current = this.latest.get();
+			double average = (current.started && !Double.isNaN(current.average) ? alpha
+					* current.value + (1 - alpha) * current.average : value);
+			if (this.latest.compareAndSet(current, new Latest(value, average, true))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Return a snapshot of the current state.
+	 * @return a new {@link RichGauge} with the current values
+	 */
+	public RichGauge snapshot() {
+		Aggregate total = this.base.get();
+		AtomicReferenceArray<Aggregate> cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				total = total.merge(cells.get(i * PADDING));
+			}
+		}
+		double alpha = this.alpha;
+		if (total.count == 0) {
+			return new RichGauge(this.name, 0.0, alpha, 0.0, 0.0, 0.0, 0);
+		}
+		Latest latest = this.latest.get();
+		double average = (alpha > 0.0 && !Double.isNaN(latest.average) ? latest.average
+				: total.sum / total.count);
+		return new RichGauge(this.name, latest.value, alpha, average, total.max,
+				total.min, total.count);
+	}
+
+	private AtomicReferenceArray<Aggregate> inflate() {
+		AtomicReferenceArray<Aggregate> cells = new AtomicReferenceArray<Aggregate>(
+				STRIPES * PADDING);
+		for (int i = 0; i < STRIPES; i++) {
+			cells.set(i * PADDING, Aggregate.EMPTY);
+		}
+		CELLS.compareAndSet(this, null, cells);
+		return this.cells;
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	private static int hash(long id) {
+		int h = (int) (id ^ (id >>> 32));
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	private static int stripes(int processors) {
+		int stripes = 1;
+		while (stripes < processors) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+	/**
+	 * Immutable count, sum, minimum and maximum of a set of values.
+	 */
+	private static final class Aggregate {
+
+		private static final Aggregate EMPTY = new Aggregate(0, 0.0, 0.0, 0.0);
+
+		private final long count;
+
+		private final double sum;
+
+		private final double min;
+
+		private final double max;
+
+		private Aggregate(long count, double sum, double min, double max) {
+			this.count = count;
+			this.sum = sum;
+			this.min = min;
+			this.max = max;
+		}
+
+		public Aggregate add(double value) {
+			if (this.count == 0) {
+				return new Aggregate(1, value, value, value);
+			}
+			return new Aggregate(this.count + 1, this.sum + value, Math.min(this.min,
+					value), Math.max(this.max, value));
+		}
+
+		public Aggregate merge(Aggregate other) {
+			if (other.count == 0) {
+				return this;
+			}
+			if (this.count == 0) {
+				return other;
+			}
+			return new Aggregate(this.count + other.count, this.sum + other.sum,
+					Math.min(this.min, other.min), Math.max(this.max, other.max));
+		}
+
+	}
+
+	/**
+	 * Immutable last value and exponential moving average.
+	 */
+	private static final class Latest {
+
+		private static final Latest NONE = new Latest(0.0, 0.0, false);
+
+		private final double value;
+
+		private final double average;
+
+		private final boolean started;
+
+		private Latest(double value, double average, boolean started) {
+			this.value = value;
+			this.average = average;
+			this.started = started;
+		}
+
+	}
+
+}
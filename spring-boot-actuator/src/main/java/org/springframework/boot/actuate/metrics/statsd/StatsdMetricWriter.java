@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.statsd;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.BufferedMetricWriter;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+
+/**
+ * {@link MetricWriter} that sends metrics to a StatsD server over UDP. Increments are
+ * sent as counters ({@code name:1|c}) and other values as gauges ({@code name:2.5|g}).
+ * As many updates as fit are sent in each datagram.
+ *
+ * @author Dave Syer
+ */
+public class StatsdMetricWriter extends BufferedMetricWriter {
+
+	/**
+	 * The default maximum size of a datagram, suitable for most networks.
+	 */
+	public static final int DEFAULT_MAX_PACKET_SIZE = 1432;
+
+	private static final Pattern INVALID_CHARACTERS = Pattern.compile("[:|@\\s]");
+
+	private final InetSocketAddress address;
+
+	private DatagramSocket socket;
+
+	/**
+	 * Create a new {@link StatsdMetricWriter} instance.
+	 * @param host the StatsD host
+	 * @param port the StatsD port
+	 */
+	public StatsdMetricWriter(String host, int port) {
+		this(host, port, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_PACKET_SIZE);
+	}
+
+	/**
+	 * Create a new {@link StatsdMetricWriter} instance.
+	 * @param host the StatsD host
+	 * @param port the StatsD port
+	 * @param queueCapacity the maximum number of queued updates
+	 * @param maxPacketSize the maximum size of a datagram
+	 */
+	public StatsdMetricWriter(String host, int port, int queueCapacity, int maxPacketSize) {
+		super(queueCapacity, maxPacketSize);
+		this.address = new InetSocketAddress(host, port);
+	}
+
+	@Override
+	protected String formatIncrement(Delta<?> delta) {
+		return sanitize(delta.getName()) + ":" + delta.getValue().longValue() + "|c";
+	}
+
+	@Override
+	protected String formatSet(Metric<?> value) {
+		String name = sanitize(value.getName());
+		if (value.getValue().doubleValue() < 0) {
+			// A signed gauge value is treated as a change so reset to zero first
+			return name + ":0|g\n" + name + ":" + value.getValue() + "|g";
+		}
+		return name + ":" + value.getValue() + "|g";
+	}
+
+	private String sanitize(String name) {
+		return INVALID_CHARACTERS.matcher(name).replaceAll("_");
+	}
+
+	@Override
+	protected void send(byte[] bytes, int length) throws IOException {
+		if (this.socket == null) {
+			this.socket = new DatagramSocket();
+		}
+		// Don't send the final newline
+		this.socket.send(new DatagramPacket(bytes, length - 1, this.address));
+	}
+
+	@Override
+	protected void disconnect() {
+		if (this.socket != null) {
+			this.socket.close();
+			this.socket = null;
+		}
+	}
+
+}
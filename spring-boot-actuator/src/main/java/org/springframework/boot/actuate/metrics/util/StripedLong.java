@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A lock-free long accumulator in the style of the JDK 8 {@code LongAdder}, usable on
+ * Java 6. Updates are applied to a single base value until contention is detected, at
+ * which point they are spread over a fixed number of padded cells (one per available
+ * processor, rounded up to a power of two). Updates never lock and, once the cells have
+ * been inflated, never allocate. The {@link #sum()} is not an atomic snapshot if updates
+ * are in flight, but is exact when the accumulator is quiescent.
+ *
+ * @author Dave Syer
+ */
+public class StripedLong {
+
+	/**
+	 * Number of array slots per cell, so that each live cell sits on its own 64 byte
+	 * cache line.
+	 */
+	private static final int PADDING = 8;
+
+	private static final int STRIPES = stripes(Runtime.getRuntime()
+			.availableProcessors());
+
+	private static final AtomicReferenceFieldUpdater<StripedLong, AtomicLongArray> CELLS = AtomicReferenceFieldUpdater
+			.newUpdater(StripedLong.class, AtomicLongArray.class, "cells");
+
+	private final AtomicLong base;
+
+	private volatile AtomicLongArray cells;
+
+	public StripedLong() {
+		this(0L);
+	}
+
+	public StripedLong(long initialValue) {
+		this.base = new AtomicLong(initialValue);
+	}
+
+	/**
+	 * Add the given amount.
+	 * @param amount the amount to add (may be negative)
+	 */
+	public void add(long amount) {
+		AtomicLongArray cells = this.cells;
+		if (cells == null) {
+			long current = this.base.get();
+			if (this.base.compareAndSet(current, current + amount)) {
+				return;
+			}
+			cells = inflate();
+		}
+		int index = (hash(Thread.currentThread().getId()) & (STRIPES - 1));
+		while (true) {
+			int slot = index * PADDING;
+			long current = cells.get(slot);
+			if (cells.compareAndSet(slot, current, current + amount)) {
+				return;
+			}
+			index = (index + 1) & (STRIPES - 1);
+		}
+	}
+
+	public void increment() {
+		add(1L);
+	}
+
+	public void decrement() {
+		add(-1L);
+	}
+
+	/**
+	 * Return the current total.
+	 * @return the sum of the base value and all cells
+	 */
+	public long sum() {
+		long sum = this.base.get();
+		AtomicLongArray cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				sum += cells.get(i * PADDING);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Return the current total and reset to zero. Updates concurrent with this call may
+	 * be attributed to either side of the reset, but none are lost.
+	 * @return the total before the reset
+	 */
+	public long sumThenReset() {
+		long sum = this.base.getAndSet(0L);
+		AtomicLongArray cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				sum += cells.getAndSet(i * PADDING, 0L);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Reset to zero. Only exact if there are no concurrent updates.
+	 */
+	public void reset() {
+		sumThenReset();
+	}
+
+	private AtomicLongArray inflate() {
+		CELLS.compareAndSet(this, null, new AtomicLongArray(STRIPES * PADDING));
+		return this.cells;
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+	private static int hash(long id) {
+		int h = (int) (id ^ (id >>> 32));
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+
+	private static int stripes(int processors) {
+		int stripes = 1;
+		while (stripes < processors) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.util.Assert;
+
+/**
+ * Base class for {@link MetricWriter} implementations that send metrics to a remote
+ * system using a line based protocol. Updates are formatted as lines and queued, and a
+ * background thread sends them in batches of up to a maximum number of bytes. The queue
+ * is bounded so that callers are never blocked by a slow remote system: when it is full
+ * further updates are dropped and counted (see {@link #getDroppedCount()}). Batches that
+ * cannot be sent are dropped and counted in the same way, and the background thread is
+ * restarted if it ever stops while updates are still queued.
+ *
+ * @author Dave Syer
+ * @see org.springframework.boot.actuate.metrics.statsd.StatsdMetricWriter
+ * @see org.springframework.boot.actuate.metrics.graphite.GraphiteMetricWriter
+ */
+public abstract class BufferedMetricWriter implements MetricWriter, Closeable {
+
+	/**
+	 * The default maximum number of queued updates.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final long POLL_TIMEOUT = 100;
+
+	private static final long CLOSE_TIMEOUT = 2000;
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final BlockingQueue<String> queue;
+
+	private final int maxBatchSize;
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private final Object monitor = new Object();
+
+	private volatile Thread sender;
+
+	private volatile boolean closed;
+
+	private boolean failing;
+
+	/**
+	 * Create a new {@link BufferedMetricWriter} instance.
+	 * @param queueCapacity the maximum number of queued updates
+	 * @param maxBatchSize the maximum number of bytes to send at once
+	 */
+	protected BufferedMetricWriter(int queueCapacity, int maxBatchSize) {
+		Assert.isTrue(queueCapacity > 0, "QueueCapacity must be positive");
+		Assert.isTrue(maxBatchSize > 0, "MaxBatchSize must be positive");
+		this.queue = new ArrayBlockingQueue<String>(queueCapacity);
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	@Override
+	public void increment(Delta<?> delta) {
+		enqueue(formatIncrement(delta));
+	}
+
+	@Override
+	public void set(Metric<?> value) {
+		enqueue(formatSet(value));
+	}
+
+	@Override
+	public void reset(String metricName) {
+		// Remote values are not reset
+	}
+
+	/**
+	 * Returns the number of updates that were dropped, either because the queue was full
+	 * or because they could not be sent.
+	 * @return the number of dropped updates
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+
+	/**
+	 * Close the writer, sending any queued updates first (waiting for a short time at
+	 * most). Updates made after the writer has been closed are dropped.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		Thread sender = this.sender;
+		if (sender != null) {
+			try {
+				sender.join(CLOSE_TIMEOUT);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void enqueue(String line) {
+		if (line == null) {
+			return;
+		}
+		if (this.closed || !this.queue.offer(line)) {
+			this.droppedCount.incrementAndGet();
+			return;
+		}
+		if (this.sender == null) {
+			startSender();
+		}
+	}
+
+	private void startSender() {
+		synchronized (this.monitor) {
+			if (this.sender == null && !this.closed) {
+				Thread sender = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						sendQueued();
+					}
+				}, getClass().getSimpleName());
+				sender.setDaemon(true);
+				sender.start();
+				this.sender = sender;
+			}
+		}
+	}
+
+	private void sendQueued() {
+		ByteArrayOutputStream batch = new ByteArrayOutputStream(this.maxBatchSize);
+		try {
+			while (!this.closed || !this.queue.isEmpty()) {
+				String line = this.queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				int count = 0;
+				while (line != null) {
+					byte[] bytes = line.getBytes(UTF_8);
+					if (count > 0 && batch.size() + bytes.length + 1 > this.maxBatchSize) {
+						sendBatch(batch, count);
+						count = 0;
+					}
+					batch.write(bytes, 0, bytes.length);
+					batch.write('\n');
+					count++;
+					line = this.queue.poll();
+				}
+				if (count > 0) {
+					sendBatch(batch, count);
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			disconnectQuietly();
+			senderStopped();
+		}
+	}
+
+	private void senderStopped() {
+		synchronized (this.monitor) {
+			this.sender = null;
+		}
+		// Updates queued after the last poll would otherwise wait for the next update
+		if (!this.closed && !this.queue.isEmpty()) {
+			startSender();
+		}
+	}
+
+	private void sendBatch(ByteArrayOutputStream batch, int count) {
+		try {
+			send(batch.toByteArray(), batch.size());
+			this.failing = false;
+		}
+		catch (IOException ex) {
+			dropBatch(count, ex);
+		}
+		catch (RuntimeException ex) {
+			dropBatch(count, ex);
+		}
+		finally {
+			batch.reset();
+		}
+	}
+
+	private void dropBatch(int count, Exception ex) {
+		this.droppedCount.addAndGet(count);
+		disconnectQuietly();
+		if (!this.failing) {
+			this.logger.warn("Failed to send metrics, dropped " + count + " updates: "
+					+ ex);
+			this.failing = true;
+		}
+	}
+
+	private void disconnectQuietly() {
+		try {
+			disconnect();
+		}
+		catch (RuntimeException ex) {
+			this.logger.debug("Failed to disconnect", ex);
+		}
+	}
+
+	/**
+	 * Format a line for an incremented metric.
+	 * @param delta the increment
+	 * @return the line to send or {@code null} if nothing should be sent
+	 */
+	protected abstract String formatIncrement(Delta<?> delta);
+
+	/**
+	 * Format a line for a metric that has been set.
+	 * @param value the metric value
+	 * @return the line to send or {@code null} if nothing should be sent
+	 */
+	protected abstract String formatSet(Metric<?> value);
+
+	/**
+	 * Send a batch of newline terminated lines to the remote system. Only called from
+	 * the background thread.
+	 * @param bytes the bytes to send
+	 * @param length the number of bytes to send
+	 * @throws IOException if the bytes cannot be sent
+	 */
+	protected abstract void send(byte[] bytes, int length) throws IOException;
+
+	/**
+	 * Release any connection to the remote system after a failure or when the writer is
+	 * closed. Only called from the background thread. A later {@link #send} should
+	 * reconnect if necessary.
+	 */
+	protected void disconnect() {
+	}
+
+}
@@ -27,6 +27,7 @@ import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
 import com.codahale.metrics.Timer;
 
 /**
@@ -44,6 +45,10 @@ import com.codahale.metrics.Timer;
  * <li>Other metrics are treated as simple {@link Gauge} values (single valued
  * measurements of type double)</li>
  * </ul>
+ * <p>
+ * The registry metric for each name is looked up (or registered) once and then cached,
+ * so that subsequent updates go straight to it. Gauges are registered once per name and
+ * updated in place. Cached metrics are dropped when they are removed from the registry.
  *
  * @author Dave Syer
  */
@@ -51,7 +56,7 @@ public class CodahaleMetricWriter implements MetricWriter {
 
 	private final MetricRegistry registry;
 
-	private final ConcurrentMap<String, Object> gaugeLocks = new ConcurrentHashMap<String, Object>();
+	private final ConcurrentMap<String, com.codahale.metrics.Metric> metrics = new ConcurrentHashMap<String, com.codahale.metrics.Metric>();
 
 	/**
 	 * Create a new {@link CodahaleMetricWriter} instance.
@@ -59,77 +64,139 @@ public class CodahaleMetricWriter implements MetricWriter {
 	 */
 	public CodahaleMetricWriter(MetricRegistry registry) {
 		this.registry = registry;
+		this.registry.addListener(new RemovalListener());
 	}
 
 	@Override
 	public void increment(Delta<?> delta) {
 		String name = delta.getName();
 		long value = delta.getValue().longValue();
+		com.codahale.metrics.Metric metric = this.metrics.get(name);
 		if (name.startsWith("meter")) {
-			Meter meter = this.registry.meter(name);
-			meter.mark(value);
+			if (!(metric instanceof Meter)) {
+				metric = cache(name, this.registry.meter(name));
+			}
+			((Meter) metric).mark(value);
 		}
 		else {
-			Counter counter = this.registry.counter(name);
-			counter.inc(value);
+			if (!(metric instanceof Counter)) {
+				metric = cache(name, this.registry.counter(name));
+			}
+			((Counter) metric).inc(value);
 		}
 	}
 
 	@Override
 	public void set(Metric<?> value) {
 		String name = value.getName();
+		com.codahale.metrics.Metric metric = this.metrics.get(name);
 		if (name.startsWith("histogram")) {
-			long longValue = value.getValue().longValue();
-			Histogram metric = this.registry.histogram(name);
-			metric.update(longValue);
+			if (!(metric instanceof Histogram)) {
+				metric = cache(name, this.registry.histogram(name));
+			}
+			((Histogram) metric).update(value.getValue().longValue());
 		}
 		else if (name.startsWith("timer")) {
-			long longValue = value.getValue().longValue();
-			Timer metric = this.registry.timer(name);
-			metric.update(longValue, TimeUnit.MILLISECONDS);
+			if (!(metric instanceof Timer)) {
+				metric = cache(name, this.registry.timer(name));
+			}
+			((Timer) metric).update(value.getValue().longValue(), TimeUnit.MILLISECONDS);
 		}
 		else {
-			final double gauge = value.getValue().doubleValue();
-			// Ensure we synchronize to avoid another thread pre-empting this thread after
-			// remove causing an error in CodaHale metrics
-			// NOTE: CodaHale provides no way to do this atomically
-			synchronized (getGuageLock(name)) {
-				this.registry.remove(name);
-				this.registry.register(name, new SimpleGauge(gauge));
+			double gauge = value.getValue().doubleValue();
+			if (!(metric instanceof SimpleGauge)) {
+				metric = registerGauge(name, gauge);
 			}
+			((SimpleGauge) metric).setValue(gauge);
 		}
 	}
 
-	private Object getGuageLock(String name) {
-		Object lock = this.gaugeLocks.get(name);
-		if (lock == null) {
-			Object newLock = new Object();
-			lock = this.gaugeLocks.putIfAbsent(name, newLock);
-			lock = (lock == null ? newLock : lock);
+	private com.codahale.metrics.Metric cache(String name,
+			com.codahale.metrics.Metric metric) {
+		this.metrics.put(name, metric);
+		if (this.registry.getMetrics().get(name) != metric) {
+			// Removed from the registry before it was cached, so the listener missed it
+			this.metrics.remove(name, metric);
+		}
+		return metric;
+	}
+
+	private SimpleGauge registerGauge(String name, double value) {
+		// CodaHale provides no way to replace a metric atomically, but this only
+		// happens the first time a gauge is set
+		synchronized (this.metrics) {
+			com.codahale.metrics.Metric metric = this.metrics.get(name);
+			if (metric instanceof SimpleGauge) {
+				return (SimpleGauge) metric;
+			}
+			metric = this.registry.getMetrics().get(name);
+			if (!(metric instanceof SimpleGauge)) {
+				this.registry.remove(name);
+				metric = this.registry.register(name, new SimpleGauge(value));
+			}
+			return (SimpleGauge) cache(name, metric);
 		}
-		return lock;
 	}
 
 	@Override
 	public void reset(String metricName) {
 		this.registry.remove(metricName);
+		this.metrics.remove(metricName);
 	}
 
 	/**
-	 * Simple {@link Gauge} implementation to {@literal double} value.
+	 * Simple mutable {@link Gauge} implementation to {@literal double} value.
 	 */
 	private static class SimpleGauge implements Gauge<Double> {
 
-		private final double value;
+		private volatile double value;
 
 		private SimpleGauge(double value) {
 			this.value = value;
 		}
 
+		public void setValue(double value) {
+			this.value = value;
+		}
+
 		@Override
 		public Double getValue() {
 			return this.value;
 		}
+
+	}
+
+	/**
+	 * {@link MetricRegistryListener} to drop cached metrics that have been removed from
+	 * the registry.
+	 */
+	private class RemovalListener extends MetricRegistryListener.Base {
+
+		@Override
+		public void onGaugeRemoved(String name) {
+			CodahaleMetricWriter.this.metrics.remove(name);
+		}
+
+		@Override
+		public void onCounterRemoved(String name) {
+			CodahaleMetricWriter.this.metrics.remove(name);
+		}
+
+		@Override
+		public void onHistogramRemoved(String name) {
+			CodahaleMetricWriter.this.metrics.remove(name);
+		}
+
+		@Override
+		public void onMeterRemoved(String name) {
+			CodahaleMetricWriter.this.metrics.remove(name);
+		}
+
+		@Override
+		public void onTimerRemoved(String name) {
+			CodahaleMetricWriter.this.metrics.remove(name);
+		}
+
 	}
 
 }
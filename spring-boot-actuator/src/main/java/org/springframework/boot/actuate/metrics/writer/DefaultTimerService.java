@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.metrics.TimerService;
+import org.springframework.boot.actuate.metrics.histogram.HistogramRepository;
+
+/**
+ * Default implementation of {@link TimerService}. Durations are recorded in milliseconds
+ * in a {@link HistogramRepository}.
+ *
+ * @author Dave Syer
+ */
+public class DefaultTimerService implements TimerService {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final HistogramRepository repository;
+
+	/**
+	 * Create a {@link DefaultTimerService} instance.
+	 * @param repository the underlying repository used to store histograms
+	 */
+	public DefaultTimerService(HistogramRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	public void record(String metricName, long duration, TimeUnit unit) {
+		this.repository.record(wrap(metricName), unit.toNanos(duration)
+				/ NANOS_PER_MILLI);
+	}
+
+	@Override
+	public void reset(String metricName) {
+		this.repository.reset(wrap(metricName));
+	}
+
+	private String wrap(String metricName) {
+		if (metricName.startsWith("timer") || metricName.startsWith("histogram")) {
+			return metricName;
+		}
+		return "timer." + metricName;
+	}
+
+}
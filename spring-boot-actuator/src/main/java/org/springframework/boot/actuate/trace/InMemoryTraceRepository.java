@@ -21,41 +21,108 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
 
 /**
- * In-memory implementation of {@link TraceRepository}.
+ * In-memory implementation of {@link TraceRepository}. Traces are kept in a fixed size
+ * ring buffer, so adding a trace is a constant time, lock-free operation regardless of
+ * the capacity, and the oldest trace is simply overwritten when the buffer is full.
+ * {@link #findAll()} returns a snapshot copy in the order the traces were added.
  *
  * @author Dave Syer
  */
 public class InMemoryTraceRepository implements TraceRepository {
 
-	private int capacity = 100;
+	private static final int DEFAULT_CAPACITY = 100;
 
-	private final List<Trace> traces = new ArrayList<Trace>();
+	private volatile RingBuffer traces = new RingBuffer(DEFAULT_CAPACITY);
 
 	/**
+	 * Set the maximum number of traces to keep. The most recent traces are retained if
+	 * the buffer already contains traces. Should not be called concurrently with
+	 * {@link #add(Map)}.
 	 * @param capacity the capacity to set
 	 */
 	public void setCapacity(int capacity) {
-		this.capacity = capacity;
+		Assert.isTrue(capacity > 0, "Capacity must be positive");
+		RingBuffer traces = new RingBuffer(capacity);
+		for (Trace trace : this.traces.snapshot()) {
+			traces.add(trace);
+		}
+		this.traces = traces;
 	}
 
 	@Override
 	public List<Trace> findAll() {
-		synchronized (this.traces) {
-			return Collections.unmodifiableList(this.traces);
-		}
+		return Collections.unmodifiableList(this.traces.snapshot());
 	}
 
 	@Override
 	public void add(Map<String, Object> map) {
-		Trace trace = new Trace(new Date(), map);
-		synchronized (this.traces) {
-			while (this.traces.size() >= this.capacity) {
-				this.traces.remove(0);
+		this.traces.add(new Trace(new Date(), map));
+	}
+
+	/**
+	 * Fixed capacity buffer where each write claims the next sequence number and
+	 * overwrites the slot of the trace that is {@code capacity} older.
+	 */
+	private static class RingBuffer {
+
+		private final int capacity;
+
+		private final AtomicReferenceArray<Entry> slots;
+
+		private final AtomicLong sequence = new AtomicLong();
+
+		RingBuffer(int capacity) {
+			this.capacity = capacity;
+			this.slots = new AtomicReferenceArray<Entry>(capacity);
+		}
+
+		public void add(Trace trace) {
+			long sequence = this.sequence.getAndIncrement();
+			int index = (int) (sequence % this.capacity);
+			Entry entry = new Entry(sequence, trace);
+			while (true) {
+				Entry current = this.slots.get(index);
+				// A delayed writer must not overwrite a more recent trace
+				if ((current != null && current.sequence > sequence)
+						|| this.slots.compareAndSet(index, current, entry)) {
+					return;
+				}
+			}
+		}
+
+		public List<Trace> snapshot() {
+			long end = this.sequence.get();
+			long start = Math.max(0, end - this.capacity);
+			List<Trace> traces = new ArrayList<Trace>((int) (end - start));
+			for (long sequence = start; sequence < end; sequence++) {
+				Entry entry = this.slots.get((int) (sequence % this.capacity));
+				// Skip slots that are still being written or have already been reused
+				if (entry != null && entry.sequence == sequence) {
+					traces.add(entry.trace);
+				}
 			}
-			this.traces.add(trace);
+			return traces;
+		}
+
+	}
+
+	private static class Entry {
+
+		private final long sequence;
+
+		private final Trace trace;
+
+		Entry(long sequence, Trace trace) {
+			this.sequence = sequence;
+			this.trace = trace;
 		}
+
 	}
 
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.trace;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for tracing of web requests by the
+ * {@link WebRequestTraceFilter}. By default every request is traced with all its
+ * headers.
+ *
+ * @author Dave Syer
+ */
+@ConfigurationProperties(prefix = "management.trace")
+public class TraceProperties {
+
+	/**
+	 * Probability (between 0 and 1) that a request is traced.
+	 */
+	private double sampleRate = 1.0;
+
+	/**
+	 * Trace one request in every N instead of sampling at random. Ignored unless greater
+	 * than 1.
+	 */
+	private int sampleInterval = 0;
+
+	/**
+	 * Always trace requests that complete with a 4xx or 5xx status, even if they are not
+	 * sampled.
+	 */
+	private boolean traceErrors = true;
+
+	/**
+	 * Always trace requests that take at least this many milliseconds, even if they are
+	 * not sampled. Negative to disable.
+	 */
+	private long slowRequestThreshold = -1;
+
+	/**
+	 * Names of the request and response headers to include in traces (case
+	 * insensitive). All headers are included if empty.
+	 */
+	private Set<String> headers = new LinkedHashSet<String>();
+
+	public double getSampleRate() {
+		return this.sampleRate;
+	}
+
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	public int getSampleInterval() {
+		return this.sampleInterval;
+	}
+
+	public void setSampleInterval(int sampleInterval) {
+		this.sampleInterval = sampleInterval;
+	}
+
+	public boolean isTraceErrors() {
+		return this.traceErrors;
+	}
+
+	public void setTraceErrors(boolean traceErrors) {
+		this.traceErrors = traceErrors;
+	}
+
+	public long getSlowRequestThreshold() {
+		return this.slowRequestThreshold;
+	}
+
+	public void setSlowRequestThreshold(long slowRequestThreshold) {
+		this.slowRequestThreshold = slowRequestThreshold;
+	}
+
+	public Set<String> getHeaders() {
+		return this.headers;
+	}
+
+	public void setHeaders(Set<String> headers) {
+		this.headers = headers;
+	}
+
+}
@@ -22,6 +22,10 @@ import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -33,12 +37,16 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.autoconfigure.web.ErrorAttributes;
 import org.springframework.core.Ordered;
+import org.springframework.util.Assert;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
- * Servlet {@link Filter} that logs all requests to a {@link TraceRepository}.
+ * Servlet {@link Filter} that logs requests to a {@link TraceRepository}. Which requests
+ * are traced, and which of their headers are captured, can be restricted using
+ * {@link TraceProperties}. The trace of a request is only built once the request has
+ * completed and only if it is to be kept, so untraced requests cost very little.
  *
  * @author Dave Syer
  */
@@ -56,11 +64,35 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 
 	private ErrorAttributes errorAttributes;
 
+	private final TraceProperties properties;
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
 	/**
-	 * @param traceRepository
+	 * Create a new {@link WebRequestTraceFilter} that traces all requests.
+	 * @param traceRepository the repository to add traces to
 	 */
 	public WebRequestTraceFilter(TraceRepository traceRepository) {
+		this(traceRepository, new TraceProperties());
+	}
+
+	/**
+	 * Create a new {@link WebRequestTraceFilter}.
+	 * @param traceRepository the repository to add traces to
+	 * @param properties the properties controlling which requests are traced
+	 */
+	public WebRequestTraceFilter(TraceRepository traceRepository,
+			TraceProperties properties) {
+		Assert.notNull(properties, "Properties must not be null");
 		this.traceRepository = traceRepository;
+		this.properties = properties;
 	}
 
 	/**
@@ -85,31 +117,64 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 			HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 
-		Map<String, Object> trace = getTrace(request);
+		boolean sampled = isSampled();
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace("Processing request " + request.getMethod() + " "
 					+ request.getRequestURI());
 			if (this.dumpRequests) {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> headers = (Map<String, Object>) trace.get("headers");
-				this.logger.trace("Headers: " + headers);
+				this.logger.trace("Headers: " + getRequestHeaders(request));
 			}
 		}
 
+		long start = System.nanoTime();
+		boolean completed = false;
 		try {
 			filterChain.doFilter(request, response);
+			completed = true;
 		}
 		finally {
-			enhanceTrace(trace, response);
-			this.traceRepository.add(trace);
+			if (sampled || isTraceRequired(response, completed, start)) {
+				Map<String, Object> trace = getTrace(request);
+				enhanceTrace(trace, response);
+				this.traceRepository.add(trace);
+			}
 		}
 	}
 
+	private boolean isSampled() {
+		int interval = this.properties.getSampleInterval();
+		if (interval > 1) {
+			return this.requestCount.getAndIncrement() % interval == 0;
+		}
+		double rate = this.properties.getSampleRate();
+		return (rate >= 1.0 || (rate > 0.0 && this.random.get().nextDouble() < rate));
+	}
+
+	private boolean isTraceRequired(HttpServletResponse response, boolean completed,
+			long start) {
+		if (this.properties.isTraceErrors()
+				&& (!completed || response.getStatus() >= 400)) {
+			return true;
+		}
+		long threshold = this.properties.getSlowRequestThreshold();
+		return (threshold >= 0 && TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+				- start) >= threshold);
+	}
+
 	protected void enhanceTrace(Map<String, Object> trace, HttpServletResponse response) {
 		Map<String, String> headers = new LinkedHashMap<String, String>();
-		for (String header : response.getHeaderNames()) {
-			String value = response.getHeader(header);
-			headers.put(header, value);
+		Set<String> names = this.properties.getHeaders();
+		if (names.isEmpty()) {
+			for (String header : response.getHeaderNames()) {
+				headers.put(header, response.getHeader(header));
+			}
+		}
+		else {
+			for (String header : names) {
+				if (response.containsHeader(header)) {
+					headers.put(header, response.getHeader(header));
+				}
+			}
 		}
 		headers.put("status", "" + response.getStatus());
 		@SuppressWarnings("unchecked")
@@ -119,22 +184,7 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 
 	protected Map<String, Object> getTrace(HttpServletRequest request) {
 
-		Map<String, Object> headers = new LinkedHashMap<String, Object>();
-		Enumeration<String> names = request.getHeaderNames();
-
-		while (names.hasMoreElements()) {
-			String name = names.nextElement();
-			List<String> values = Collections.list(request.getHeaders(name));
-			Object value = values;
-			if (values.size() == 1) {
-				value = values.get(0);
-			}
-			else if (values.isEmpty()) {
-				value = "";
-			}
-			headers.put(name, value);
-
-		}
+		Map<String, Object> headers = getRequestHeaders(request);
 		Map<String, Object> trace = new LinkedHashMap<String, Object>();
 		Map<String, Object> allHeaders = new LinkedHashMap<String, Object>();
 		allHeaders.put("request", headers);
@@ -152,6 +202,37 @@ public class WebRequestTraceFilter extends OncePerRequestFilter implements Order
 		return trace;
 	}
 
+	private Map<String, Object> getRequestHeaders(HttpServletRequest request) {
+		Map<String, Object> headers = new LinkedHashMap<String, Object>();
+		Set<String> included = this.properties.getHeaders();
+		if (included.isEmpty()) {
+			Enumeration<String> names = request.getHeaderNames();
+			while (names.hasMoreElements()) {
+				String name = names.nextElement();
+				headers.put(name, getHeaderValue(request, name));
+			}
+		}
+		else {
+			for (String name : included) {
+				if (request.getHeader(name) != null) {
+					headers.put(name, getHeaderValue(request, name));
+				}
+			}
+		}
+		return headers;
+	}
+
+	private Object getHeaderValue(HttpServletRequest request, String name) {
+		List<String> values = Collections.list(request.getHeaders(name));
+		if (values.size() == 1) {
+			return values.get(0);
+		}
+		if (values.isEmpty()) {
+			return "";
+		}
+		return values;
+	}
+
 	public void setErrorAttributes(ErrorAttributes errorAttributes) {
 		this.errorAttributes = errorAttributes;
 	}
@@ -27,6 +27,7 @@ import org.springframework.boot.actuate.endpoint.BeansEndpoint;
 import org.springframework.boot.actuate.endpoint.DumpEndpoint;
 import org.springframework.boot.actuate.endpoint.EnvironmentEndpoint;
 import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.endpoint.HealthPublicMetrics;
 import org.springframework.boot.actuate.endpoint.InfoEndpoint;
 import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
@@ -110,6 +111,21 @@ public class EndpointAutoConfigurationTests {
 		assertTrue(metrics.containsKey("heap.used"));
 	}
 
+	@Test
+	public void metricEndpointHasHealthMetricsWithBackgroundRefresh() {
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"endpoints.health.refresh-interval:60000");
+		this.context.register(PublicMetricsAutoConfiguration.class,
+				EndpointAutoConfiguration.class);
+		this.context.refresh();
+		assertNotNull(this.context.getBean(HealthPublicMetrics.class));
+		this.context.getBean(HealthEndpoint.class).invoke();
+		Map<String, Object> metrics = this.context.getBean(MetricsEndpoint.class)
+				.invoke();
+		assertTrue(metrics.containsKey("health.snapshot.age"));
+	}
+
 	@Test
 	public void metricEndpointCustomPublicMetrics() {
 		load(CustomPublicMetricsConfig.class, PublicMetricsAutoConfiguration.class,
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.export.Exporter;
+import org.springframework.boot.actuate.metrics.export.MetricExporters;
+import org.springframework.boot.actuate.metrics.statsd.StatsdMetricWriter;
+import org.springframework.boot.test.EnvironmentTestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link MetricExportAutoConfiguration}.
+ *
+ * @author Dave Syer
+ */
+public class MetricExportAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void exportsToStatsd() throws Exception {
+		DatagramSocket server = new DatagramSocket(0);
+		try {
+			server.setSoTimeout(5000);
+			load("spring.metrics.export.delayMillis:50",
+					"spring.metrics.export.statsd.host:localhost",
+					"spring.metrics.export.statsd.port:" + server.getLocalPort());
+			this.context.getBean(CounterService.class).increment("foo");
+			byte[] buffer = new byte[StatsdMetricWriter.DEFAULT_MAX_PACKET_SIZE];
+			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+			server.receive(packet);
+			assertThat(new String(packet.getData(), 0, packet.getLength(),
+					Charset.forName("UTF-8")), equalTo("counter.foo:1|c"));
+		}
+		finally {
+			server.close();
+		}
+	}
+
+	@Test
+	public void exporterBeansAreNotScheduled() throws Exception {
+		load(ExporterConfig.class, "spring.metrics.export.delayMillis:50");
+		MetricExporters exporters = this.context.getBean(MetricExporters.class);
+		assertThat(exporters.getExporters().size(), equalTo(0));
+	}
+
+	@Test
+	public void schedulesCustomExporters() throws Exception {
+		load(CustomExportersConfig.class, "spring.metrics.export.delayMillis:50");
+		MetricExporters exporters = this.context.getBean(MetricExporters.class);
+		assertThat(exporters.getExporters().size(), equalTo(1));
+		verify(this.context.getBean(Exporter.class), timeout(5000).atLeast(2))
+				.export();
+	}
+
+	@Test
+	public void noExportersByDefault() throws Exception {
+		load();
+		MetricExporters exporters = this.context.getBean(MetricExporters.class);
+		assertThat(exporters.getExporters().size(), equalTo(0));
+	}
+
+	@Test
+	public void disabled() throws Exception {
+		load("spring.metrics.export.enabled:false");
+		assertThat(this.context.getBeansOfType(MetricExporters.class).size(),
+				equalTo(0));
+	}
+
+	@Test
+	public void finalExportOnClose() throws Exception {
+		load(CustomExportersConfig.class, "spring.metrics.export.delayMillis:60000");
+		Exporter exporter = this.context.getBean(Exporter.class);
+		this.context.close();
+		verify(exporter, atLeastOnce()).export();
+	}
+
+	private void load(String... environment) {
+		load(null, environment);
+	}
+
+	private void load(Class<?> config, String... environment) {
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context, environment);
+		if (config != null) {
+			this.context.register(config);
+		}
+		this.context.register(SyncTaskExecutorConfiguration.class,
+				MetricRepositoryAutoConfiguration.class,
+				MetricExportAutoConfiguration.class);
+		this.context.refresh();
+	}
+
+	@Configuration
+	static class SyncTaskExecutorConfiguration {
+
+		@Bean
+		public Executor metricsExecutor() {
+			return new SyncTaskExecutor();
+		}
+
+	}
+
+	@Configuration
+	static class ExporterConfig {
+
+		@Bean
+		public Exporter exporter() {
+			return mock(Exporter.class);
+		}
+
+	}
+
+	@Configuration
+	static class CustomExportersConfig {
+
+		@Bean
+		public Exporter exporter() {
+			return mock(Exporter.class);
+		}
+
+		@Bean
+		public MetricExporters metricExporters(Exporter exporter) {
+			MetricExporters exporters = new MetricExporters(50);
+			exporters.addExporter(exporter);
+			return exporters;
+		}
+
+	}
+
+}
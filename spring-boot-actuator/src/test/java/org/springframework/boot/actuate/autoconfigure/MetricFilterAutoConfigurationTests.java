@@ -16,6 +16,8 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 
@@ -24,10 +26,13 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
+import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
@@ -42,8 +47,11 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -130,6 +138,51 @@ public class MetricFilterAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void recordsRepeatedInteractionsWithDifferentStatuses() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				Config.class, MetricFilterAutoConfiguration.class);
+		Filter filter = context.getBean(Filter.class);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new MetricFilterTestController())
+				.addFilter(filter).build();
+		mvc.perform(get("/templateVarTest/foo")).andExpect(status().isOk());
+		mvc.perform(get("/templateVarTest/bar")).andExpect(status().isOk());
+		mvc.perform(get("/errorTest/foo")).andExpect(status().isInternalServerError());
+		mvc.perform(get("/errorTest/bar")).andExpect(status().isOk());
+
+		CounterService counterService = context.getBean(CounterService.class);
+		verify(counterService, times(2)).increment(
+				"status.200.templateVarTest.someVariable");
+		verify(counterService).increment("status.500.errorTest.someVariable");
+		verify(counterService).increment("status.200.errorTest.someVariable");
+		verify(context.getBean(GaugeService.class), times(2)).submit(
+				eq("response.errorTest.someVariable"), anyDouble());
+		context.close();
+	}
+
+	@Test
+	public void recordsResponseTimesInHistogram() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"spring.metrics.filter.responseTimeHistogram:true");
+		context.register(Config.class, TimerConfig.class,
+				MetricFilterAutoConfiguration.class);
+		context.refresh();
+		Filter filter = context.getBean(Filter.class);
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new MetricFilterTestController())
+				.addFilter(filter).build();
+		mvc.perform(get("/templateVarTest/foo")).andExpect(status().isOk());
+
+		verify(context.getBean(CounterService.class)).increment(
+				"status.200.templateVarTest.someVariable");
+		verify(context.getBean(TimerService.class)).record(
+				eq("response.templateVarTest.someVariable"), anyLong(),
+				eq(TimeUnit.NANOSECONDS));
+		verify(context.getBean(GaugeService.class), never()).submit(anyString(),
+				anyDouble());
+		context.close();
+	}
+
 	@Test
 	public void skipsFilterIfMissingServices() throws Exception {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
@@ -153,6 +206,16 @@ public class MetricFilterAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	public static class TimerConfig {
+
+		@Bean
+		public TimerService timerService() {
+			return mock(TimerService.class);
+		}
+
+	}
+
 }
 
 @RestController
@@ -169,4 +232,11 @@ class MetricFilterTestController {
 	public String testKnownPathWith404Response(@PathVariable String someVariable) {
 		return someVariable;
 	}
+
+	@RequestMapping("errorTest/{someVariable}")
+	public ResponseEntity<String> testErrorResponse(@PathVariable String someVariable) {
+		HttpStatus status = ("foo".equals(someVariable) ? HttpStatus.INTERNAL_SERVER_ERROR
+				: HttpStatus.OK);
+		return new ResponseEntity<String>(someVariable, status);
+	}
 }
@@ -30,6 +30,7 @@ import org.junit.After;
 import org.junit.Test;
 import org.springframework.boot.actuate.endpoint.DataSourcePublicMetrics;
 import org.springframework.boot.actuate.endpoint.MetricReaderPublicMetrics;
+import org.springframework.boot.actuate.endpoint.MetricsEndpoint;
 import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.boot.actuate.endpoint.RichGaugeReaderPublicMetrics;
 import org.springframework.boot.actuate.endpoint.SystemPublicMetrics;
@@ -41,6 +42,7 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
 import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvidersConfiguration;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -83,6 +85,19 @@ public class PublicMetricsAutoConfigurationTests {
 		assertEquals(1, this.context.getBeansOfType(SystemPublicMetrics.class).size());
 	}
 
+	@Test
+	public void systemPublicMetricsSampleInterval() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"spring.metrics.system.sample-interval:1000");
+		this.context.register(PublicMetricsAutoConfiguration.class,
+				EndpointAutoConfiguration.class);
+		this.context.refresh();
+		assertEquals(1000, this.context.getBean(SystemPublicMetrics.class)
+				.getSampleInterval());
+		assertNotNull(this.context.getBean(MetricsEndpoint.class).getMetric("mem"));
+	}
+
 	@Test
 	public void metricReaderPublicMetrics() throws Exception {
 		load();
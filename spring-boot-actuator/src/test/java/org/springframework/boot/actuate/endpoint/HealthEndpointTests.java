@@ -16,9 +16,15 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
+import org.springframework.boot.test.EnvironmentTestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -29,6 +35,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -49,6 +59,127 @@ public class HealthEndpointTests extends AbstractEndpointTests<HealthEndpoint> {
 		assertThat(getEndpointBean().invoke().getStatus(), equalTo(Status.UNKNOWN));
 	}
 
+	@Test
+	public void bindIndicatorSettings() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context,
+				"endpoints.health.timeout:500",
+				"endpoints.health.indicators.status.timeout:100",
+				"endpoints.health.indicators.status.time-to-live:2000");
+		this.context.register(Config.class);
+		this.context.refresh();
+		HealthEndpoint endpoint = getEndpointBean();
+		assertThat(endpoint.getTimeout(), equalTo(500L));
+		assertThat(endpoint.getIndicators().get("status").getTimeout(), equalTo(100L));
+		assertThat(endpoint.getIndicators().get("status").getTimeToLive(),
+				equalTo(2000L));
+		assertThat(endpoint.invoke().getStatus(), equalTo(Status.UNKNOWN));
+	}
+
+	@Test
+	public void indicatorsInvokedOnCallingThreadEveryTimeByDefault() throws Exception {
+		final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+		HealthIndicator indicator = new HealthIndicator() {
+			@Override
+			public Health health() {
+				threads.add(Thread.currentThread());
+				return Health.up().build();
+			}
+		};
+		HealthEndpoint endpoint = new HealthEndpoint(new OrderedHealthAggregator(),
+				Collections.singletonMap("test", indicator));
+		endpoint.afterPropertiesSet();
+		endpoint.invoke();
+		endpoint.invoke();
+		assertThat(threads.size(), equalTo(2));
+		assertThat(threads.get(0), equalTo(Thread.currentThread()));
+		assertThat(threads.get(1), equalTo(Thread.currentThread()));
+	}
+
+	@Test
+	public void indicatorsInvokedInParallelWhenThreadsSet() throws Exception {
+		final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+		HealthIndicator indicator = new HealthIndicator() {
+			@Override
+			public Health health() {
+				threads.add(Thread.currentThread());
+				return Health.up().build();
+			}
+		};
+		HealthEndpoint endpoint = new HealthEndpoint(new OrderedHealthAggregator(),
+				Collections.singletonMap("test", indicator));
+		endpoint.setThreads(2);
+		endpoint.setIndicatorTimeToLive(60000);
+		endpoint.afterPropertiesSet();
+		try {
+			assertThat(endpoint.invoke().getStatus(), equalTo(Status.UP));
+			assertThat(endpoint.invoke().getStatus(), equalTo(Status.UP));
+			assertThat(threads.size(), equalTo(1));
+			assertThat(threads.get(0), not(equalTo(Thread.currentThread())));
+		}
+		finally {
+			endpoint.destroy();
+		}
+		threads.get(0).join(5000);
+		assertThat(threads.get(0).isAlive(), equalTo(false));
+	}
+
+	@Test
+	public void refreshInBackground() throws Exception {
+		final AtomicInteger invocations = new AtomicInteger();
+		HealthIndicator indicator = new HealthIndicator() {
+			@Override
+			public Health health() {
+				invocations.incrementAndGet();
+				return Health.up().build();
+			}
+		};
+		HealthEndpoint endpoint = new HealthEndpoint(new OrderedHealthAggregator(),
+				Collections.singletonMap("test", indicator));
+		endpoint.setRefreshInterval(60000);
+		endpoint.afterPropertiesSet();
+		try {
+			for (int i = 0; i < 10; i++) {
+				assertThat(endpoint.invoke().getStatus(), equalTo(Status.UP));
+			}
+			assertThat(invocations.get(), lessThanOrEqualTo(2));
+			assertThat(endpoint.getSnapshotAge(), greaterThanOrEqualTo(0L));
+		}
+		finally {
+			endpoint.destroy();
+		}
+	}
+
+	@Test
+	public void changedIndicatorIsRecheckedEagerly() throws Exception {
+		final List<Long> invocations = new CopyOnWriteArrayList<Long>();
+		HealthIndicator indicator = new HealthIndicator() {
+			@Override
+			public Health health() {
+				invocations.add(System.currentTimeMillis());
+				return (invocations.size() == 2 ? Health.down().build() : Health.up()
+						.build());
+			}
+		};
+		HealthEndpoint endpoint = new HealthEndpoint(new OrderedHealthAggregator(),
+				Collections.singletonMap("test", indicator));
+		endpoint.setRefreshInterval(1000);
+		endpoint.afterPropertiesSet();
+		try {
+			long timeout = System.currentTimeMillis() + 5000;
+			while (invocations.size() < 3 && System.currentTimeMillis() < timeout) {
+				Thread.sleep(10);
+			}
+			assertThat(invocations.size(), greaterThanOrEqualTo(3));
+			// The status changed on the second refresh so the third is not scheduled
+			assertThat(invocations.get(2) - invocations.get(1), lessThan(500L));
+			assertThat(endpoint.invoke().getStatus(), equalTo(Status.UP));
+		}
+		finally {
+			endpoint.destroy();
+		}
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.OrderedHealthAggregator;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link HealthPublicMetrics}.
+ *
+ * @author Dave Syer
+ */
+public class HealthPublicMetricsTests {
+
+	private HealthEndpoint endpoint;
+
+	@After
+	public void close() {
+		if (this.endpoint != null) {
+			this.endpoint.destroy();
+		}
+	}
+
+	@Test
+	public void noMetricsWithoutRefresh() throws Exception {
+		this.endpoint = createEndpoint(0);
+		this.endpoint.invoke();
+		assertThat(new HealthPublicMetrics(this.endpoint).metrics().size(), equalTo(0));
+	}
+
+	@Test
+	public void snapshotMetrics() throws Exception {
+		this.endpoint = createEndpoint(60000);
+		this.endpoint.invoke();
+		Map<String, Metric<?>> results = new HashMap<String, Metric<?>>();
+		for (Metric<?> metric : new HealthPublicMetrics(this.endpoint).metrics()) {
+			results.put(metric.getName(), metric);
+		}
+		assertThat(results.size(), equalTo(2));
+		assertThat(results.get("health.snapshot.age").getValue().longValue(),
+				greaterThanOrEqualTo(0L));
+		assertThat(results.get("health.refresh.time").getValue().longValue(),
+				greaterThanOrEqualTo(0L));
+	}
+
+	@Test
+	public void endpointLookedUpOnFirstUse() throws Exception {
+		final int[] lookups = new int[1];
+		HealthPublicMetrics metrics = new HealthPublicMetrics(
+				new ObjectFactory<HealthEndpoint>() {
+					@Override
+					public HealthEndpoint getObject() throws BeansException {
+						lookups[0]++;
+						return HealthPublicMetricsTests.this.endpoint;
+					}
+				});
+		assertThat(lookups[0], equalTo(0));
+		this.endpoint = createEndpoint(60000);
+		this.endpoint.invoke();
+		assertThat(metrics.metrics().size(), equalTo(2));
+		assertThat(metrics.metrics().size(), equalTo(2));
+		assertThat(lookups[0], equalTo(1));
+	}
+
+	@Test
+	public void noMetricsWithoutEndpoint() throws Exception {
+		HealthPublicMetrics metrics = new HealthPublicMetrics(
+				new ObjectFactory<HealthEndpoint>() {
+					@Override
+					public HealthEndpoint getObject() throws BeansException {
+						throw new NoSuchBeanDefinitionException(HealthEndpoint.class);
+					}
+				});
+		assertThat(metrics.metrics().size(), equalTo(0));
+	}
+
+	private HealthEndpoint createEndpoint(long refreshInterval) {
+		HealthIndicator indicator = new HealthIndicator() {
+			@Override
+			public Health health() {
+				return Health.up().build();
+			}
+		};
+		HealthEndpoint endpoint = new HealthEndpoint(new OrderedHealthAggregator(),
+				Collections.singletonMap("test", indicator));
+		endpoint.setRefreshInterval(refreshInterval);
+		endpoint.afterPropertiesSet();
+		return endpoint;
+	}
+
+}
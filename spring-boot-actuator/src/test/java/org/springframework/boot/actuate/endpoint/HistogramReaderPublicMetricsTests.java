@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.histogram.InMemoryHistogramRepository;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HistogramReaderPublicMetrics}.
+ *
+ * @author Dave Syer
+ */
+public class HistogramReaderPublicMetricsTests {
+
+	@Test
+	public void testMetrics() throws Exception {
+		InMemoryHistogramRepository repository = new InMemoryHistogramRepository();
+		for (int i = 1; i <= 100; i++) {
+			repository.record("a", i);
+		}
+		HistogramReaderPublicMetrics metrics = new HistogramReaderPublicMetrics(
+				repository);
+		Map<String, Metric<?>> results = new HashMap<String, Metric<?>>();
+		for (Metric<?> metric : metrics.metrics()) {
+			results.put(metric.getName(), metric);
+		}
+		assertThat(results.size(), equalTo(7));
+		assertThat(results.get("a.count").getValue().longValue(), equalTo(100L));
+		assertThat(results.get("a.max").getValue().doubleValue(), equalTo(100d));
+		assertThat(results.get("a.mean").getValue().doubleValue(), equalTo(50.5d));
+		assertThat(results.get("a.p50").getValue().doubleValue(), closeTo(50d, 1.6d));
+		assertThat(results.get("a.p99").getValue().doubleValue(), closeTo(99d, 3.1d));
+		assertTrue(results.containsKey("a.p95"));
+		assertTrue(results.containsKey("a.p999"));
+	}
+
+}
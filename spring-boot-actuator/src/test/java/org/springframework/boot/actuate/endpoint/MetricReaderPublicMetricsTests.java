@@ -22,10 +22,19 @@ import java.util.List;
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
+import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
 
 /**
  * Tests for {@link MetricReaderPublicMetrics}.
@@ -45,4 +54,42 @@ public class MetricReaderPublicMetricsTests {
 		assertEquals(metrics, publicMetrics.metrics());
 	}
 
+	@Test
+	public void findsMetrics() {
+		InMemoryMetricRepository repository = new InMemoryMetricRepository();
+		repository.set(new Metric<Number>("counter.status.200.foo", 1));
+		repository.set(new Metric<Number>("counter.status.404.foo", 2));
+		repository.set(new Metric<Number>("gauge.foo", 3));
+		MetricReaderPublicMetrics publicMetrics = new MetricReaderPublicMetrics(
+				repository);
+		assertThat(publicMetrics.findOne("gauge.foo").getValue(), equalTo((Number) 3));
+		assertThat(publicMetrics.findAll("counter.status.").size(), equalTo(2));
+		assertThat(publicMetrics.findAll("counter.status.2").size(), equalTo(1));
+		assertThat(publicMetrics.findAll("gauge.bar").size(), equalTo(0));
+	}
+
+	@Test
+	public void findsMetricsByPrefixWithoutReadingAll() {
+		InMemoryMetricRepository repository = spy(new InMemoryMetricRepository());
+		repository.set(new Metric<Number>("counter.status.200.foo", 1));
+		repository.set(new Metric<Number>("gauge.foo", 2));
+		MetricReaderPublicMetrics publicMetrics = new MetricReaderPublicMetrics(
+				repository);
+		assertThat(publicMetrics.findAll("counter.status.").size(), equalTo(1));
+		verify(repository, never()).findAll();
+	}
+
+	@Test
+	public void findsMetricsByNameFromGroupReader() {
+		List<Metric<?>> metrics = new ArrayList<Metric<?>>();
+		metrics.add(new Metric<Number>("counter.status.200.foo", 1));
+		metrics.add(new Metric<Number>("gauge.foo", 2));
+		MetricReader reader = mock(MetricReader.class, withSettings().extraInterfaces(
+				PrefixMetricReader.class));
+		given(reader.findAll()).willReturn(metrics);
+		MetricReaderPublicMetrics publicMetrics = new MetricReaderPublicMetrics(reader);
+		assertThat(publicMetrics.findAll("counter.status.").size(), equalTo(1));
+		verify((PrefixMetricReader) reader, never()).findAll(anyString());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,9 +33,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link MetricsEndpoint}.
@@ -73,6 +80,47 @@ public class MetricsEndpointTests extends AbstractEndpointTests<MetricsEndpoint>
 		assertFalse(iterator.hasNext());
 	}
 
+	@Test
+	public void getMetric() {
+		List<PublicMetrics> publicMetrics = new ArrayList<PublicMetrics>();
+		publicMetrics.add(new TestPublicMetrics(1, this.metric1, this.metric2));
+		publicMetrics.add(new TestPublicMetrics(2, new Metric<Number>("b", 4)));
+		MetricsEndpoint endpoint = new MetricsEndpoint(publicMetrics);
+		assertThat(endpoint.getMetric("a"), sameInstance((Object) this.metric1));
+		assertThat(endpoint.getMetric("b").getValue(), equalTo((Object) 4));
+		assertThat(endpoint.getMetric("c"), nullValue());
+	}
+
+	@Test
+	public void getMetricFromSearchablePublicMetrics() {
+		SearchablePublicMetrics searchable = mock(SearchablePublicMetrics.class);
+		willReturn(this.metric3).given(searchable).findOne("c");
+		List<PublicMetrics> publicMetrics = new ArrayList<PublicMetrics>();
+		publicMetrics.add(new TestPublicMetrics(1, this.metric1));
+		publicMetrics.add(searchable);
+		MetricsEndpoint endpoint = new MetricsEndpoint(publicMetrics);
+		assertThat(endpoint.getMetric("c"), sameInstance((Object) this.metric3));
+		verify(searchable, never()).metrics();
+	}
+
+	@Test
+	public void getMetricsWithPrefix() {
+		SearchablePublicMetrics searchable = mock(SearchablePublicMetrics.class);
+		given(searchable.findAll("counter.")).willReturn(
+				Collections.<Metric<?>> singleton(new Metric<Number>("counter.b", 2)));
+		List<PublicMetrics> publicMetrics = new ArrayList<PublicMetrics>();
+		publicMetrics.add(new TestPublicMetrics(1, new Metric<Number>("counter.a", 1),
+				this.metric1));
+		publicMetrics.add(searchable);
+		Map<String, Object> metrics = new MetricsEndpoint(publicMetrics)
+				.getMetrics("counter.");
+		Iterator<Entry<String, Object>> iterator = metrics.entrySet().iterator();
+		assertEquals("counter.a", iterator.next().getKey());
+		assertEquals("counter.b", iterator.next().getKey());
+		assertFalse(iterator.hasNext());
+		verify(searchable, never()).metrics();
+	}
+
 	private static class TestPublicMetrics implements PublicMetrics, Ordered {
 
 		private final int order;
@@ -25,6 +25,7 @@ import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.rich.InMemoryRichGaugeRepository;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -68,4 +69,18 @@ public class RichGaugeReaderPublicMetricsTests {
 		assertThat(results.get("a.alpha").getValue().doubleValue(), equalTo(-1.d));
 	}
 
+	@Test
+	public void testFindMetrics() throws Exception {
+		InMemoryRichGaugeRepository repository = new InMemoryRichGaugeRepository();
+		repository.set(new Metric<Double>("a.b", 0.5d, new Date()));
+		repository.set(new Metric<Double>("c", 1.5d, new Date()));
+		RichGaugeReaderPublicMetrics metrics = new RichGaugeReaderPublicMetrics(
+				repository);
+		assertThat(metrics.findOne("a.b.val").getValue().doubleValue(), equalTo(0.5d));
+		assertThat(metrics.findOne("a.b.foo"), nullValue());
+		assertThat(metrics.findOne("a.val"), nullValue());
+		assertThat(metrics.findAll("a.").size(), equalTo(6));
+		assertThat(metrics.findAll("c.m").size(), equalTo(2));
+	}
+
 }
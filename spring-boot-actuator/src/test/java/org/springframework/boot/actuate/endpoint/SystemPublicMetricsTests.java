@@ -16,12 +16,21 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.util.ClassUtils;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -56,6 +65,93 @@ public class SystemPublicMetricsTests {
 		assertTrue(results.containsKey("classes.loaded"));
 		assertTrue(results.containsKey("classes.unloaded"));
 		assertTrue(results.containsKey("classes"));
+
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			String name = "gc." + bean.getName().replace(' ', '_').toLowerCase();
+			assertTrue(results.containsKey(name + ".count"));
+			assertTrue(results.containsKey(name + ".time"));
+			assertTrue(results.containsKey(name + ".count.delta"));
+			assertTrue(results.containsKey(name + ".time.delta"));
+		}
+		for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (bean.getType() == MemoryType.HEAP) {
+				String name = "heap." + bean.getName().replace(' ', '_').toLowerCase();
+				assertTrue(results.containsKey(name + ".used"));
+				assertTrue(results.containsKey(name + ".committed"));
+			}
+		}
+		if (ClassUtils.isPresent("java.lang.management.BufferPoolMXBean", null)) {
+			assertTrue(results.containsKey("buffers.direct.count"));
+			assertTrue(results.containsKey("buffers.direct.used"));
+			assertTrue(results.containsKey("buffers.direct.capacity"));
+		}
+	}
+
+	@Test
+	public void latestSampleIsReturnedWhenSampledInBackground() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		publicMetrics.setSampleInterval(60000);
+		publicMetrics.afterPropertiesSet();
+		try {
+			Collection<Metric<?>> metrics = publicMetrics.metrics();
+			assertSame(metrics, publicMetrics.metrics());
+		}
+		finally {
+			publicMetrics.destroy();
+		}
+	}
+
+	@Test
+	public void sampleIsReplacedInBackground() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		publicMetrics.setSampleInterval(10);
+		publicMetrics.afterPropertiesSet();
+		try {
+			Collection<Metric<?>> metrics = publicMetrics.metrics();
+			long timeout = System.currentTimeMillis() + 5000;
+			while (publicMetrics.metrics() == metrics
+					&& System.currentTimeMillis() < timeout) {
+				Thread.sleep(10);
+			}
+			assertNotSame(metrics, publicMetrics.metrics());
+		}
+		finally {
+			publicMetrics.destroy();
+		}
+	}
+
+	@Test
+	public void sampleIsTakenOnEveryCallWithoutInterval() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		publicMetrics.setSampleInterval(0);
+		publicMetrics.afterPropertiesSet();
+		Collection<Metric<?>> metrics = publicMetrics.metrics();
+		assertNotSame(metrics, publicMetrics.metrics());
+	}
+
+	@Test
+	public void garbageCollectionDeltasCoverTimeSincePreviousSample() throws Exception {
+		SystemPublicMetrics publicMetrics = new SystemPublicMetrics();
+		Map<String, Metric<?>> first = toMap(publicMetrics.metrics());
+		System.gc();
+		Map<String, Metric<?>> second = toMap(publicMetrics.metrics());
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			String name = "gc." + bean.getName().replace(' ', '_').toLowerCase();
+			assertEquals(second.get(name + ".count").getValue().longValue()
+					- first.get(name + ".count").getValue().longValue(),
+					second.get(name + ".count.delta").getValue().longValue());
+			assertEquals(second.get(name + ".time").getValue().longValue()
+					- first.get(name + ".time").getValue().longValue(),
+					second.get(name + ".time.delta").getValue().longValue());
+		}
+	}
+
+	private Map<String, Metric<?>> toMap(Collection<Metric<?>> metrics) {
+		Map<String, Metric<?>> result = new HashMap<String, Metric<?>>();
+		for (Metric<?> metric : metrics) {
+			result.put(metric.getName(), metric);
+		}
+		return result;
 	}
 
 }
@@ -18,6 +18,13 @@ package org.springframework.boot.actuate.health;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +38,8 @@ import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link CompositeHealthIndicator}
@@ -43,6 +52,8 @@ public class CompositeHealthIndicatorTests {
 
 	private HealthAggregator healthAggregator;
 
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
 	@Mock
 	private HealthIndicator one;
 
@@ -65,6 +76,11 @@ public class CompositeHealthIndicatorTests {
 		this.healthAggregator = new OrderedHealthAggregator();
 	}
 
+	@After
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
 	@Test
 	public void createWithIndicators() throws Exception {
 		Map<String, HealthIndicator> indicators = new HashMap<String, HealthIndicator>();
@@ -153,4 +169,116 @@ public class CompositeHealthIndicatorTests {
 				mapper.writeValueAsString(result));
 	}
 
+	@Test
+	public void parallelInvocation() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator);
+		composite.addHealthIndicator("one", new LatchHealthIndicator(latch));
+		composite.addHealthIndicator("two", new LatchHealthIndicator(latch));
+		composite.setExecutor(this.executor);
+		composite.setTimeout(10000);
+		Health result = composite.health();
+		assertThat(result.getStatus(), equalTo(Status.UP));
+	}
+
+	@Test
+	public void timeoutReportsDown() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator);
+		composite.addHealthIndicator("one", this.one);
+		composite.addHealthIndicator("slow", new LatchHealthIndicator(latch));
+		composite.setExecutor(this.executor);
+		composite.setTimeout(10000);
+		composite.setTimeout("slow", 50);
+		Health result = composite.health();
+		assertThat(result.getStatus(), equalTo(Status.DOWN));
+		Health slow = (Health) result.getDetails().get("slow");
+		assertThat(slow.getStatus(), equalTo(Status.DOWN));
+		assertThat(slow.getDetails().get("error"),
+				equalTo((Object) "Timed out after 50ms"));
+		assertThat(((Health) result.getDetails().get("one")).getStatus(),
+				equalTo(Status.UNKNOWN));
+	}
+
+	@Test
+	public void slowIndicatorIsNotInvokedAgainWhileRunning() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		LatchHealthIndicator slow = new LatchHealthIndicator(latch);
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator);
+		composite.addHealthIndicator("slow", slow);
+		composite.setExecutor(this.executor);
+		composite.setTimeout(10);
+		composite.health();
+		composite.health();
+		assertThat(slow.invocations.get(), equalTo(1));
+		latch.countDown();
+		assertThat(slow.completed.await(5, TimeUnit.SECONDS), equalTo(true));
+		composite.health();
+		assertThat(slow.invocations.get(), equalTo(2));
+	}
+
+	@Test
+	public void exceptionInParallelInvocationReportsDown() throws Exception {
+		given(this.two.health()).willThrow(new IllegalStateException("Fail"));
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator);
+		composite.addHealthIndicator("two", this.two);
+		composite.setExecutor(this.executor);
+		Health result = composite.health();
+		Health two = (Health) result.getDetails().get("two");
+		assertThat(two.getStatus(), equalTo(Status.DOWN));
+		assertThat(two.getDetails().get("error"),
+				equalTo((Object) "java.lang.IllegalStateException: Fail"));
+	}
+
+	@Test
+	public void resultsAreCached() throws Exception {
+		CompositeHealthIndicator composite = new CompositeHealthIndicator(
+				this.healthAggregator);
+		composite.addHealthIndicator("one", this.one);
+		composite.addHealthIndicator("two", this.two);
+		composite.setTimeToLive(10000);
+		composite.setTimeToLive("two", 0);
+		composite.health();
+		composite.health();
+		verify(this.one, times(1)).health();
+		verify(this.two, times(2)).health();
+	}
+
+	private static class LatchHealthIndicator implements HealthIndicator {
+
+		private final CountDownLatch latch;
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		private final CountDownLatch completed = new CountDownLatch(1);
+
+		LatchHealthIndicator(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public Health health() {
+			this.invocations.incrementAndGet();
+			this.latch.countDown();
+			try {
+				if (!this.latch.await(5, TimeUnit.SECONDS)) {
+					return Health.down().build();
+				}
+				return Health.up().build();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return Health.down(ex).build();
+			}
+			finally {
+				this.completed.countDown();
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.export;
+
+import java.util.Date;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.MetricWriter;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Tests for {@link DeltaMetricExporter}.
+ *
+ * @author Dave Syer
+ */
+public class DeltaMetricExporterTests {
+
+	private final InMemoryMetricRepository reader = new InMemoryMetricRepository();
+
+	private final MetricWriter writer = mock(MetricWriter.class);
+
+	private final DeltaMetricExporter exporter = new DeltaMetricExporter(this.reader,
+			this.writer, "app");
+
+	@Test
+	public void countersAreWrittenAsDeltas() {
+		this.reader.increment(new Delta<Long>("counter.foo", 3L));
+		this.exporter.export();
+		verify(this.writer).increment(argThat(delta("app.counter.foo", 3L)));
+		this.reader.increment(new Delta<Long>("counter.foo", 2L));
+		this.exporter.export();
+		verify(this.writer).increment(argThat(delta("app.counter.foo", 2L)));
+		this.exporter.export();
+		verifyNoMoreInteractions(this.writer);
+	}
+
+	@Test
+	public void resetCounterIsWrittenWithItsWholeValue() {
+		this.reader.increment(new Delta<Long>("counter.foo", 5L));
+		this.exporter.export();
+		verify(this.writer).increment(argThat(delta("app.counter.foo", 5L)));
+		this.reader.reset("counter.foo");
+		this.reader.increment(new Delta<Long>("counter.foo", 2L));
+		this.exporter.export();
+		verify(this.writer).increment(argThat(delta("app.counter.foo", 2L)));
+		verifyNoMoreInteractions(this.writer);
+	}
+
+	@Test
+	public void gaugesAreWrittenWhenUpdated() {
+		Date timestamp = new Date(System.currentTimeMillis() + 1000);
+		this.reader.set(new Metric<Double>("gauge.foo", 2.5, timestamp));
+		this.exporter.export();
+		verify(this.writer).set(argThat(metric("app.gauge.foo", 2.5)));
+		this.exporter.export();
+		verify(this.writer, never()).increment(any(Delta.class));
+		this.reader.set(new Metric<Double>("gauge.foo", 3.5, timestamp));
+		this.exporter.export();
+		verify(this.writer).set(argThat(metric("app.gauge.foo", 3.5)));
+		verifyNoMoreInteractions(this.writer);
+	}
+
+	private Matcher<Delta<?>> delta(String name, Number value) {
+		return new MetricMatcher<Delta<?>>(name, value);
+	}
+
+	private Matcher<Metric<?>> metric(String name, Number value) {
+		return new MetricMatcher<Metric<?>>(name, value);
+	}
+
+	private static class MetricMatcher<T> extends BaseMatcher<T> {
+
+		private final String name;
+
+		private final Number value;
+
+		public MetricMatcher(String name, Number value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		public boolean matches(Object item) {
+			Metric<?> metric = (Metric<?>) item;
+			return metric.getName().equals(this.name)
+					&& metric.getValue().equals(this.value);
+		}
+
+		@Override
+		public void describeTo(Description description) {
+			description.appendText(this.name + "=" + this.value);
+		}
+
+	}
+
+}
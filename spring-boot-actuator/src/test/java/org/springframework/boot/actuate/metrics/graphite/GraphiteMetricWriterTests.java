@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.graphite;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link GraphiteMetricWriter}.
+ *
+ * @author Dave Syer
+ */
+public class GraphiteMetricWriterTests {
+
+	private final ServerSocket server;
+
+	private final GraphiteMetricWriter writer;
+
+	public GraphiteMetricWriterTests() throws Exception {
+		this.server = new ServerSocket(0);
+		this.server.setSoTimeout(5000);
+		this.writer = new GraphiteMetricWriter("localhost", this.server.getLocalPort());
+	}
+
+	@After
+	public void close() throws Exception {
+		this.writer.close();
+		this.server.close();
+	}
+
+	@Test
+	public void writesPlaintextLines() throws Exception {
+		Date timestamp = new Date(123456789000L);
+		this.writer.set(new Metric<Double>("gauge.my bar", 2.5, timestamp));
+		this.writer.increment(new Delta<Long>("counter.foo", 3L, timestamp));
+		this.writer.increment(new Delta<Long>("counter.foo", 2L, timestamp));
+		Socket socket = this.server.accept();
+		socket.setSoTimeout(5000);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream(), "UTF-8"));
+		assertThat(reader.readLine(), equalTo("gauge.my_bar 2.5 123456789"));
+		assertThat(reader.readLine(), equalTo("counter.foo 3 123456789"));
+		assertThat(reader.readLine(), equalTo("counter.foo 5 123456789"));
+		socket.close();
+	}
+
+}
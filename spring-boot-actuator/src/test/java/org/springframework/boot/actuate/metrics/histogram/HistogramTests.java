@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link Histogram}.
+ *
+ * @author Dave Syer
+ */
+public class HistogramTests {
+
+	private final Histogram histogram = new Histogram();
+
+	@Test
+	public void empty() {
+		HistogramSnapshot snapshot = this.histogram.snapshot("foo");
+		assertEquals("foo", snapshot.getName());
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0.0, snapshot.getValueAtPercentile(99), 0);
+		assertEquals(0.0, snapshot.getMean(), 0);
+	}
+
+	@Test
+	public void percentilesWithinPrecision() {
+		for (int i = 1; i <= 1000; i++) {
+			this.histogram.record(i);
+		}
+		HistogramSnapshot snapshot = this.histogram.snapshot("foo");
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(1000.0, snapshot.getMax(), 0);
+		assertEquals(500.5, snapshot.getMean(), 0.001);
+		assertWithinPrecision(500, snapshot.getValueAtPercentile(50));
+		assertWithinPrecision(950, snapshot.getValueAtPercentile(95));
+		assertWithinPrecision(990, snapshot.getValueAtPercentile(99));
+		assertWithinPrecision(999, snapshot.getValueAtPercentile(99.9));
+		assertEquals(1000.0, snapshot.getValueAtPercentile(100), 0);
+	}
+
+	@Test
+	public void wideRangeOfValues() {
+		double[] values = { 0.001, 0.5, 3.0, 250.0, 60000.0, 3600000.0 };
+		for (double value : values) {
+			Histogram histogram = new Histogram();
+			histogram.record(value);
+			assertWithinPrecision(value, histogram.snapshot("foo")
+					.getValueAtPercentile(50));
+		}
+	}
+
+	@Test
+	public void negativeValuesCountAsZero() {
+		this.histogram.record(-1);
+		HistogramSnapshot snapshot = this.histogram.snapshot("foo");
+		assertEquals(1, snapshot.getCount());
+		assertEquals(0.0, snapshot.getValueAtPercentile(50), 0);
+	}
+
+	@Test
+	public void reset() {
+		this.histogram.record(10);
+		this.histogram.reset();
+		HistogramSnapshot snapshot = this.histogram.snapshot("foo");
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0.0, snapshot.getMax(), 0);
+	}
+
+	@Test
+	public void concurrentRecords() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 10000; j++) {
+						HistogramTests.this.histogram.record(j % 100);
+					}
+					return true;
+				}
+			}));
+		}
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get());
+		}
+		executor.shutdown();
+		HistogramSnapshot snapshot = this.histogram.snapshot("foo");
+		assertEquals(80000, snapshot.getCount());
+		assertEquals(99.0, snapshot.getMax(), 0);
+		assertEquals(49.5, snapshot.getMean(), 0.001);
+	}
+
+	private void assertWithinPrecision(double expected, double actual) {
+		assertTrue("Expected " + expected + " but was " + actual,
+				Math.abs(expected - actual) <= expected / Histogram.SUB_BUCKETS);
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link InMemoryHistogramRepository}.
+ *
+ * @author Dave Syer
+ */
+public class InMemoryHistogramRepositoryTests {
+
+	private final InMemoryHistogramRepository repository = new InMemoryHistogramRepository();
+
+	@Test
+	public void recordAndFind() {
+		this.repository.record("foo", 1);
+		this.repository.record("foo", 3);
+		HistogramSnapshot snapshot = this.repository.findOne("foo");
+		assertEquals("foo", snapshot.getName());
+		assertEquals(2, snapshot.getCount());
+		assertEquals(3.0, snapshot.getMax(), 0);
+		assertNull(this.repository.findOne("bar"));
+	}
+
+	@Test
+	public void findAll() {
+		this.repository.record("foo", 1);
+		this.repository.record("bar", 1);
+		assertEquals(2, this.repository.count());
+		assertEquals("bar", this.repository.findAll().iterator().next().getName());
+	}
+
+	@Test
+	public void reset() {
+		this.repository.record("foo", 1);
+		this.repository.reset("foo");
+		assertNull(this.repository.findOne("foo"));
+		assertEquals(0, this.repository.count());
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.histogram;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link WindowedHistogram}.
+ *
+ * @author Dave Syer
+ */
+public class WindowedHistogramTests {
+
+	@Test
+	public void snapshotCoversAllSlices() {
+		WindowedHistogram histogram = new WindowedHistogram(60000, 2);
+		histogram.record(1);
+		histogram.record(2);
+		assertEquals(2, histogram.snapshot("foo").getCount());
+	}
+
+	@Test
+	public void valuesExpireAfterWindow() throws Exception {
+		WindowedHistogram histogram = new WindowedHistogram(100, 2);
+		histogram.record(1);
+		Thread.sleep(150);
+		histogram.record(2);
+		HistogramSnapshot snapshot = histogram.snapshot("foo");
+		assertEquals(2.0, snapshot.getMax(), 0);
+		Thread.sleep(250);
+		assertEquals(0, histogram.snapshot("foo").getCount());
+	}
+
+	@Test
+	public void reset() {
+		WindowedHistogram histogram = new WindowedHistogram(60000, 2);
+		histogram.record(1);
+		histogram.reset();
+		assertEquals(0, histogram.snapshot("foo").getCount());
+	}
+
+}
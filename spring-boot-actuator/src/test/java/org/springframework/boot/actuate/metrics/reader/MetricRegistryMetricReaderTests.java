@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MetricRegistryMetricReader}.
+ *
+ * @author Dave Syer
+ */
+public class MetricRegistryMetricReaderTests {
+
+	private final MetricRegistry registry = new MetricRegistry();
+
+	private final MetricRegistryMetricReader reader = new MetricRegistryMetricReader(
+			this.registry);
+
+	@Test
+	public void readsCounter() {
+		this.registry.counter("counter.foo").inc(3);
+		assertEquals(3L, this.reader.findOne("counter.foo").getValue());
+		assertEquals(1, this.reader.count());
+	}
+
+	@Test
+	public void readsGauge() {
+		this.registry.register("gauge.foo", new Gauge<Double>() {
+			@Override
+			public Double getValue() {
+				return 2.5;
+			}
+		});
+		assertEquals(2.5, this.reader.findOne("gauge.foo").getValue());
+	}
+
+	@Test
+	public void readsMetricsRegisteredBeforeReader() {
+		MetricRegistry registry = new MetricRegistry();
+		registry.counter("counter.foo").inc();
+		MetricRegistryMetricReader reader = new MetricRegistryMetricReader(registry);
+		assertEquals(1L, reader.findOne("counter.foo").getValue());
+	}
+
+	@Test
+	public void expandsTimer() {
+		this.registry.timer("timer.foo").update(200, TimeUnit.MILLISECONDS);
+		assertEquals(1L, this.reader.findOne("timer.foo.count").getValue());
+		assertEquals(200L, this.reader.findOne("timer.foo.snapshot.max").getValue());
+		Map<String, Metric<?>> metrics = findAll();
+		assertTrue(metrics.containsKey("timer.foo.meanRate"));
+		assertTrue(metrics.containsKey("timer.foo.snapshot.median"));
+		assertEquals(200L, metrics.get("timer.foo.snapshot.max").getValue());
+		assertEquals(metrics.size(), this.reader.count());
+	}
+
+	@Test
+	public void expandsHistogram() {
+		this.registry.histogram("histogram.foo").update(5);
+		assertEquals(5L, this.reader.findOne("histogram.foo.snapshot.max").getValue());
+		assertEquals(1L, this.reader.findOne("histogram.foo.count").getValue());
+	}
+
+	@Test
+	public void removedMetricsAreForgotten() {
+		this.registry.histogram("histogram.foo").update(5);
+		this.registry.counter("counter.foo").inc();
+		this.registry.remove("histogram.foo");
+		assertNull(this.reader.findOne("histogram.foo.count"));
+		assertNull(this.reader.findOne("histogram.foo.snapshot.max"));
+		assertEquals(1, this.reader.count());
+		assertEquals(1, findAll().size());
+	}
+
+	private Map<String, Metric<?>> findAll() {
+		Map<String, Metric<?>> metrics = new HashMap<String, Metric<?>>();
+		for (Metric<?> metric : this.reader.findAll()) {
+			metrics.put(metric.getName(), metric);
+		}
+		return metrics;
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StripedMetricRepository}.
+ *
+ * @author Dave Syer
+ */
+public class StripedMetricRepositoryTests {
+
+	private final StripedMetricRepository repository = new StripedMetricRepository();
+
+	@Test
+	public void increment() {
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		this.repository.increment(new Delta<Integer>("foo", 2, new Date()));
+		assertEquals(3L, this.repository.findOne("foo").getValue());
+	}
+
+	@Test
+	public void set() {
+		this.repository.set(new Metric<Double>("foo", 2.5, new Date()));
+		assertEquals(2.5, this.repository.findOne("foo").getValue().doubleValue(), 0.01);
+	}
+
+	@Test
+	public void incrementAfterSet() {
+		this.repository.set(new Metric<Long>("foo", 5L, new Date()));
+		this.repository.increment(new Delta<Long>("foo", 2L, new Date()));
+		assertEquals(7L, this.repository.findOne("foo").getValue());
+	}
+
+	@Test
+	public void setAfterIncrement() {
+		this.repository.increment(new Delta<Long>("foo", 2L, new Date()));
+		this.repository.set(new Metric<Long>("foo", 5L, new Date()));
+		assertEquals(5L, this.repository.findOne("foo").getValue());
+	}
+
+	@Test
+	public void timestamp() {
+		Date date = new Date(123456789L);
+		this.repository.increment(new Delta<Long>("foo", 2L, date));
+		assertEquals(date, this.repository.findOne("foo").getTimestamp());
+	}
+
+	@Test
+	public void reset() {
+		this.repository.increment(new Delta<Long>("foo", 2L, new Date()));
+		this.repository.reset("foo");
+		assertNull(this.repository.findOne("foo"));
+		assertEquals(0, this.repository.count());
+	}
+
+	@Test
+	public void findWithPrefix() {
+		this.repository.increment(new Delta<Number>("foo.bar", 1));
+		this.repository.increment(new Delta<Number>("foo.spam", 1));
+		this.repository.increment(new Delta<Number>("foobar.spam", 1));
+		this.repository.set(new Metric<Number>("foo", 1));
+		Set<String> names = new HashSet<String>();
+		for (Metric<?> metric : this.repository.findAll("foo.*")) {
+			names.add(metric.getName());
+		}
+		assertEquals(2, names.size());
+		assertTrue(names.contains("foo.bar"));
+		assertTrue(names.contains("foo.spam"));
+		assertEquals(4, this.repository.count());
+	}
+
+	@Test
+	public void incrementGroup() {
+		this.repository.increment("foo", new Delta<Number>("bar", 1));
+		this.repository.increment("foo", new Delta<Number>("foo.bar", 2));
+		assertEquals(3L, this.repository.findOne("foo.bar").getValue());
+		assertEquals(1, this.repository.countGroups());
+		assertEquals("foo", this.repository.groups().iterator().next());
+	}
+
+	@Test
+	public void resetGroup() {
+		this.repository.increment("foo", new Delta<Number>("bar", 1));
+		this.repository.increment("foo", new Delta<Number>("spam", 2));
+		this.repository.increment(new Delta<Number>("food.bar", 3));
+		this.repository.reset("foo");
+		assertNull(this.repository.findOne("foo.bar"));
+		assertNull(this.repository.findOne("foo.spam"));
+		assertEquals(3L, this.repository.findOne("food.bar").getValue());
+		assertEquals(0, this.repository.countGroups());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void concurrentIncrements() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 10000; j++) {
+						StripedMetricRepositoryTests.this.repository
+								.increment(new Delta<Long>("foo", 1L));
+					}
+					return true;
+				}
+			}));
+		}
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get());
+		}
+		executor.shutdown();
+		assertEquals(80000L, this.repository.findOne("foo").getValue());
+	}
+
+}
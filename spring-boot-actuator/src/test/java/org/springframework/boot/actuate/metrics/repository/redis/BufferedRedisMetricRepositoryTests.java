@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository.redis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Iterables;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link BufferedRedisMetricRepository}.
+ *
+ * @author Dave Syer
+ */
+public class BufferedRedisMetricRepositoryTests {
+
+	@Rule
+	public RedisServer redis = RedisServer.running();
+
+	private BufferedRedisMetricRepository repository;
+
+	@Before
+	public void init() {
+		String prefix = "spring.test." + System.currentTimeMillis();
+		this.repository = new BufferedRedisMetricRepository(new RedisMetricRepository(
+				this.redis.getResource(), prefix));
+		this.repository.setFlushInterval(60000);
+		this.repository.afterPropertiesSet();
+	}
+
+	@After
+	public void clear() {
+		this.repository.reset("foo");
+		this.repository.reset("bar");
+		this.repository.destroy();
+	}
+
+	@Test
+	public void incrementsAreBufferedUntilFlush() {
+		for (int i = 0; i < 1000; i++) {
+			this.repository.increment(new Delta<Long>("foo", 1L));
+		}
+		assertNull(this.repository.findOne("foo"));
+		this.repository.flush();
+		assertEquals(1000, this.repository.findOne("foo").getValue().longValue());
+	}
+
+	@Test
+	public void setAndIncrement() {
+		this.repository.set(new Metric<Number>("foo", 12.3));
+		this.repository.flush();
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.increment(new Delta<Long>("foo", 2L));
+		this.repository.set(new Metric<Number>("bar", 1.5));
+		this.repository.flush();
+		assertEquals(17.3, this.repository.findOne("foo").getValue().doubleValue(), 0.01);
+		assertEquals(1.5, this.repository.findOne("bar").getValue().doubleValue(), 0.01);
+		assertEquals(2, Iterables.collection(this.repository.findAll()).size());
+		assertEquals(2, this.repository.count());
+	}
+
+	@Test
+	public void incrementAfterSetInSameFlush() {
+		this.repository.set(new Metric<Number>("foo", 5));
+		this.repository.increment(new Delta<Long>("foo", 2L));
+		this.repository.flush();
+		assertEquals(7, this.repository.findOne("foo").getValue().longValue());
+	}
+
+	@Test
+	public void setAfterIncrementInSameFlush() {
+		this.repository.increment(new Delta<Long>("foo", 2L));
+		this.repository.set(new Metric<Number>("foo", 5));
+		this.repository.flush();
+		assertEquals(5, this.repository.findOne("foo").getValue().longValue());
+	}
+
+	@Test
+	public void resetDiscardsPendingIncrements() {
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.reset("foo");
+		this.repository.flush();
+		assertNull(this.repository.findOne("foo"));
+	}
+
+	@Test
+	public void flushWhenThresholdReached() throws Exception {
+		this.repository.setFlushThreshold(10);
+		for (int i = 0; i < 10; i++) {
+			this.repository.increment(new Delta<Long>("foo", 1L));
+		}
+		for (int i = 0; i < 50 && this.repository.findOne("foo") == null; i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(10, this.repository.findOne("foo").getValue().longValue());
+	}
+
+	@Test
+	public void flushOnDestroy() {
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.destroy();
+		assertEquals(3, this.repository.findOne("foo").getValue().longValue());
+	}
+
+}
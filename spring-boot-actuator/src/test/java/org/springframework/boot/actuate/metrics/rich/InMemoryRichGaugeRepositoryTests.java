@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,14 @@
 
 package org.springframework.boot.actuate.metrics.rich;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
 
@@ -36,4 +44,72 @@ public class InMemoryRichGaugeRepositoryTests {
 		assertEquals(2d, this.repository.findOne("foo").getValue(), 0.01);
 	}
 
+	@Test
+	public void aggregates() {
+		this.repository.set(new Metric<Double>("foo", 3d));
+		this.repository.set(new Metric<Double>("foo", 1d));
+		this.repository.set(new Metric<Double>("foo", 2d));
+		RichGauge gauge = this.repository.findOne("foo");
+		assertEquals(2d, gauge.getValue(), 0.01);
+		assertEquals(1d, gauge.getMin(), 0.01);
+		assertEquals(3d, gauge.getMax(), 0.01);
+		assertEquals(2d, gauge.getAverage(), 0.01);
+		assertEquals(-1d, gauge.getAlpha(), 0.01);
+	}
+
+	@Test
+	public void exponentialMovingAverage() {
+		this.repository.setAlpha("foo", 0.5);
+		this.repository.set(new Metric<Double>("foo", 4d));
+		this.repository.set(new Metric<Double>("foo", 2d));
+		this.repository.set(new Metric<Double>("foo", 0d));
+		RichGauge gauge = this.repository.findOne("foo");
+		assertEquals(0.5d, gauge.getAlpha(), 0.01);
+		// Each update averages in the previous value
+		assertEquals(3d, gauge.getAverage(), 0.01);
+	}
+
+	@Test
+	public void findReturnsSnapshot() {
+		this.repository.set(new Metric<Double>("foo", 1d));
+		RichGauge gauge = this.repository.findOne("foo");
+		this.repository.set(new Metric<Double>("foo", 5d));
+		assertEquals(1L, gauge.getCount());
+		assertEquals(1d, gauge.getMax(), 0.01);
+		assertEquals(5d, this.repository.findOne("foo").getMax(), 0.01);
+	}
+
+	@Test
+	public void concurrentUpdates() throws Exception {
+		final int threads = 8;
+		final int updates = 10000;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < threads; i++) {
+			final double value = i;
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					start.await();
+					for (int j = 0; j < updates; j++) {
+						InMemoryRichGaugeRepositoryTests.this.repository
+								.set(new Metric<Double>("foo", value));
+					}
+					return null;
+				}
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		RichGauge gauge = this.repository.findOne("foo");
+		assertEquals(threads * updates, gauge.getCount());
+		assertEquals(0d, gauge.getMin(), 0.01);
+		assertEquals(threads - 1, gauge.getMax(), 0.01);
+		assertEquals((threads - 1) / 2d, gauge.getAverage(), 0.01);
+	}
+
 }
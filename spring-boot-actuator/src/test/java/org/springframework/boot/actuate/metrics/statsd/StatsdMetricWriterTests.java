@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.statsd;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link StatsdMetricWriter}.
+ *
+ * @author Dave Syer
+ */
+public class StatsdMetricWriterTests {
+
+	private final DatagramSocket server;
+
+	private final StatsdMetricWriter writer;
+
+	public StatsdMetricWriterTests() throws Exception {
+		this.server = new DatagramSocket(0);
+		this.server.setSoTimeout(5000);
+		this.writer = new StatsdMetricWriter("localhost", this.server.getLocalPort());
+	}
+
+	@After
+	public void close() {
+		this.writer.close();
+		this.server.close();
+	}
+
+	@Test
+	public void writesCountersAndGauges() throws Exception {
+		this.writer.increment(new Delta<Long>("counter.foo", 3L));
+		this.writer.set(new Metric<Double>("gauge.bar", 2.5));
+		this.writer.set(new Metric<Integer>("gauge.neg:x", -1));
+		assertThat(receive(4), contains("counter.foo:3|c", "gauge.bar:2.5|g",
+				"gauge.neg_x:0|g", "gauge.neg_x:-1|g"));
+	}
+
+	private List<String> receive(int count) throws Exception {
+		List<String> lines = new ArrayList<String>();
+		byte[] buffer = new byte[StatsdMetricWriter.DEFAULT_MAX_PACKET_SIZE];
+		while (lines.size() < count) {
+			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+			this.server.receive(packet);
+			String data = new String(packet.getData(), 0, packet.getLength(),
+					Charset.forName("UTF-8"));
+			lines.addAll(Arrays.asList(data.split("\n")));
+		}
+		return lines;
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StripedLong}.
+ *
+ * @author Dave Syer
+ */
+public class StripedLongTests {
+
+	private final StripedLong value = new StripedLong();
+
+	@Test
+	public void addAndSum() {
+		this.value.add(3);
+		this.value.increment();
+		this.value.decrement();
+		assertEquals(3L, this.value.sum());
+	}
+
+	@Test
+	public void sumThenReset() {
+		this.value.add(5);
+		assertEquals(5L, this.value.sumThenReset());
+		assertEquals(0L, this.value.sum());
+	}
+
+	@Test
+	public void concurrentAdds() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 16; i++) {
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 100000; j++) {
+						StripedLongTests.this.value.increment();
+					}
+					return true;
+				}
+			}));
+		}
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get());
+		}
+		executor.shutdown();
+		assertEquals(1600000L, this.value.sum());
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link BufferedMetricWriter}.
+ *
+ * @author Dave Syer
+ */
+public class BufferedMetricWriterTests {
+
+	private TestBufferedMetricWriter writer;
+
+	@After
+	public void close() {
+		if (this.writer != null) {
+			this.writer.release();
+			this.writer.close();
+		}
+	}
+
+	@Test
+	public void sendsLinesInBatches() throws Exception {
+		this.writer = new TestBufferedMetricWriter(10, 8);
+		this.writer.set(new Metric<Integer>("a", 1));
+		assertTrue(this.writer.sending.await(1, TimeUnit.SECONDS));
+		this.writer.set(new Metric<Integer>("b", 2));
+		this.writer.set(new Metric<Integer>("c", 3));
+		this.writer.increment(new Delta<Integer>("d", 4));
+		this.writer.release();
+		this.writer.close();
+		assertThat(this.writer.batches, contains("a=1\n", "b=2\nc=3\n", "d+4\n"));
+		assertThat(this.writer.getDroppedCount(), equalTo(0L));
+	}
+
+	@Test
+	public void dropsWhenQueueIsFull() throws Exception {
+		this.writer = new TestBufferedMetricWriter(2, 100);
+		this.writer.set(new Metric<Integer>("a", 1));
+		assertTrue(this.writer.sending.await(1, TimeUnit.SECONDS));
+		for (int i = 0; i < 5; i++) {
+			this.writer.set(new Metric<Integer>("b", i));
+		}
+		assertThat(this.writer.getDroppedCount(), equalTo(3L));
+		this.writer.release();
+		this.writer.close();
+		assertThat(this.writer.batches, contains("a=1\n", "b=0\nb=1\n"));
+	}
+
+	@Test
+	public void countsFailedSendsAsDropped() throws Exception {
+		this.writer = new TestBufferedMetricWriter(10, 100);
+		this.writer.fail = true;
+		this.writer.release();
+		this.writer.set(new Metric<Integer>("a", 1));
+		this.writer.close();
+		assertThat(this.writer.getDroppedCount(), equalTo(1L));
+		assertTrue(this.writer.disconnected);
+	}
+
+	@Test
+	public void keepsSendingAfterRuntimeException() throws Exception {
+		this.writer = new TestBufferedMetricWriter(10, 100);
+		this.writer.runtimeFailure = new IllegalArgumentException("Unresolved");
+		this.writer.release();
+		this.writer.set(new Metric<Integer>("a", 1));
+		waitForDropped(1);
+		this.writer.set(new Metric<Integer>("b", 2));
+		this.writer.close();
+		assertThat(this.writer.batches, contains("b=2\n"));
+		assertThat(this.writer.getDroppedCount(), equalTo(1L));
+		assertTrue(this.writer.disconnected);
+	}
+
+	@Test
+	public void restartsSenderAfterError() throws Exception {
+		this.writer = new TestBufferedMetricWriter(10, 100);
+		this.writer.error = new TestError();
+		this.writer.release();
+		this.writer.set(new Metric<Integer>("a", 1));
+		for (int i = 0; i < 100 && this.writer.error != null; i++) {
+			Thread.sleep(10);
+		}
+		this.writer.set(new Metric<Integer>("b", 2));
+		this.writer.close();
+		assertThat(this.writer.batches, contains("b=2\n"));
+	}
+
+	@Test
+	public void dropsWhenClosed() throws Exception {
+		this.writer = new TestBufferedMetricWriter(10, 100);
+		this.writer.close();
+		this.writer.set(new Metric<Integer>("a", 1));
+		assertThat(this.writer.getDroppedCount(), equalTo(1L));
+	}
+
+	private void waitForDropped(long count) throws InterruptedException {
+		for (int i = 0; i < 100 && this.writer.getDroppedCount() < count; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static class TestBufferedMetricWriter extends BufferedMetricWriter {
+
+		private final List<String> batches = new CopyOnWriteArrayList<String>();
+
+		private final CountDownLatch sending = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		private volatile boolean fail;
+
+		private volatile RuntimeException runtimeFailure;
+
+		private volatile Error error;
+
+		private volatile boolean disconnected;
+
+		public TestBufferedMetricWriter(int queueCapacity, int maxBatchSize) {
+			super(queueCapacity, maxBatchSize);
+		}
+
+		public void release() {
+			this.released.countDown();
+		}
+
+		@Override
+		protected String formatIncrement(Delta<?> delta) {
+			return delta.getName() + "+" + delta.getValue();
+		}
+
+		@Override
+		protected String formatSet(Metric<?> value) {
+			return value.getName() + "=" + value.getValue();
+		}
+
+		@Override
+		protected void send(byte[] bytes, int length) throws IOException {
+			this.sending.countDown();
+			try {
+				this.released.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.fail) {
+				throw new IOException("Failed");
+			}
+			RuntimeException runtimeFailure = this.runtimeFailure;
+			if (runtimeFailure != null) {
+				this.runtimeFailure = null;
+				throw runtimeFailure;
+			}
+			Error error = this.error;
+			if (error != null) {
+				this.error = null;
+				throw error;
+			}
+			this.batches.add(new String(bytes, 0, length, Charset.forName("UTF-8")));
+		}
+
+		@Override
+		protected void disconnect() {
+			this.disconnected = true;
+		}
+
+	}
+
+	@SuppressWarnings("serial")
+	private static class TestError extends Error {
+
+		public TestError() {
+			super("Expected");
+			setStackTrace(new StackTraceElement[0]);
+		}
+
+	}
+
+}
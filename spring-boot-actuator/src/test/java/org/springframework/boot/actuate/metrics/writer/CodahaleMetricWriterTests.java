@@ -18,15 +18,19 @@ package org.springframework.boot.actuate.metrics.writer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Dave Syer
@@ -66,6 +70,64 @@ public class CodahaleMetricWriterTests {
 		assertEquals(new Double(2.3), gauge.getValue());
 	}
 
+	@Test
+	public void gaugeIsRegisteredOnce() {
+		final AtomicInteger added = new AtomicInteger();
+		this.registry.addListener(new MetricRegistryListener.Base() {
+			@Override
+			public void onGaugeAdded(String name, Gauge<?> gauge) {
+				added.incrementAndGet();
+			}
+		});
+		this.writer.set(new Metric<Number>("foo", 2.1));
+		Object gauge = this.registry.getMetrics().get("foo");
+		this.writer.set(new Metric<Number>("foo", 2.3));
+		assertSame(gauge, this.registry.getMetrics().get("foo"));
+		assertEquals(1, added.get());
+	}
+
+	@Test
+	public void setGaugeAfterReset() {
+		this.writer.set(new Metric<Number>("foo", 2.1));
+		this.writer.reset("foo");
+		assertFalse(this.registry.getMetrics().containsKey("foo"));
+		this.writer.set(new Metric<Number>("foo", 2.3));
+		@SuppressWarnings("unchecked")
+		Gauge<Double> gauge = (Gauge<Double>) this.registry.getMetrics().get("foo");
+		assertEquals(new Double(2.3), gauge.getValue());
+	}
+
+	@Test
+	public void setTimerAfterRemovalFromRegistry() {
+		this.writer.set(new Metric<Number>("timer.foo", 200));
+		this.registry.remove("timer.foo");
+		this.writer.set(new Metric<Number>("timer.foo", 300));
+		assertEquals(1, this.registry.timer("timer.foo").getCount());
+	}
+
+	@Test
+	public void counterRemovedWhileCachingIsNotReused() {
+		MetricRegistry registry = new MetricRegistry() {
+
+			private boolean removed;
+
+			@Override
+			public Counter counter(String name) {
+				Counter counter = super.counter(name);
+				if (!this.removed) {
+					this.removed = true;
+					remove(name);
+				}
+				return counter;
+			}
+
+		};
+		CodahaleMetricWriter writer = new CodahaleMetricWriter(registry);
+		writer.increment(new Delta<Number>("foo", 2));
+		writer.increment(new Delta<Number>("foo", 1));
+		assertEquals(1, registry.getCounters().get("foo").getCount());
+	}
+
 	@Test
 	public void setPredfinedTimer() {
 		this.writer.set(new Metric<Number>("timer.foo", 200));
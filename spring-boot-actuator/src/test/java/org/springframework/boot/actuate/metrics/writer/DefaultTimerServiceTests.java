@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.histogram.HistogramRepository;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link DefaultTimerService}.
+ *
+ * @author Dave Syer
+ */
+public class DefaultTimerServiceTests {
+
+	private final HistogramRepository repository = mock(HistogramRepository.class);
+
+	private final DefaultTimerService service = new DefaultTimerService(this.repository);
+
+	@Test
+	public void recordPrependsTimerAndConvertsToMillis() {
+		this.service.record("foo", 1500, TimeUnit.MICROSECONDS);
+		verify(this.repository).record("timer.foo", 1.5);
+	}
+
+	@Test
+	public void recordHistogram() {
+		this.service.record("histogram.foo", 2, TimeUnit.SECONDS);
+		verify(this.repository).record("histogram.foo", 2000.0);
+	}
+
+	@Test
+	public void reset() {
+		this.service.reset("foo");
+		verify(this.repository).reset("timer.foo");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,18 @@
 
 package org.springframework.boot.actuate.trace;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link InMemoryTraceRepository}.
@@ -43,4 +49,66 @@ public class InMemoryTraceRepositoryTests {
 		assertEquals("bar", traces.get(1).getInfo().get("bar"));
 	}
 
+	@Test
+	public void findAllReturnsSnapshot() {
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		assertEquals(1, traces.size());
+		assertEquals(2, this.repository.findAll().size());
+	}
+
+	@Test
+	public void increaseCapacityKeepsTraces() {
+		this.repository.setCapacity(2);
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		this.repository.setCapacity(3);
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(3, traces.size());
+		assertEquals("bar", traces.get(0).getInfo().get("foo"));
+	}
+
+	@Test
+	public void concurrentAdds() throws Exception {
+		this.repository.setCapacity(50);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 8; i++) {
+			final int thread = i;
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 10000; j++) {
+						InMemoryTraceRepositoryTests.this.repository.add(Collections
+								.<String, Object> singletonMap("thread" + thread, j));
+						List<Trace> traces = InMemoryTraceRepositoryTests.this.repository
+								.findAll();
+						if (traces.size() > 50) {
+							return false;
+						}
+					}
+					return true;
+				}
+			}));
+		}
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get());
+		}
+		executor.shutdown();
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(50, traces.size());
+		int[] last = new int[8];
+		for (Trace trace : traces) {
+			for (int i = 0; i < 8; i++) {
+				Integer value = (Integer) trace.getInfo().get("thread" + i);
+				if (value != null) {
+					assertTrue("Traces out of order", value > last[i] || last[i] == 0);
+					last[i] = value;
+				}
+			}
+		}
+	}
+
 }
@@ -16,14 +16,24 @@
 
 package org.springframework.boot.actuate.trace;
 
+import java.io.IOException;
 import java.util.Map;
 
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
 import org.junit.Test;
 import org.springframework.boot.autoconfigure.web.DefaultErrorAttributes;
+import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StringUtils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link WebRequestTraceFilter}.
@@ -90,4 +100,132 @@ public class WebRequestTraceFilterTests {
 		System.err.println(map);
 		assertEquals("Foo", map.get("message").toString());
 	}
+
+	@Test
+	public void sampleIntervalTracesEveryNthRequest() throws Exception {
+		TraceProperties properties = new TraceProperties();
+		properties.setSampleInterval(3);
+		InMemoryTraceRepository repository = new InMemoryTraceRepository();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(repository, properties);
+		for (int i = 0; i < 7; i++) {
+			filter.doFilter(new MockHttpServletRequest("GET", "/foo"),
+					new MockHttpServletResponse(), new MockFilterChain());
+		}
+		assertEquals(3, repository.findAll().size());
+	}
+
+	@Test
+	public void errorsAreTracedWhenNotSampled() throws Exception {
+		TraceProperties properties = new TraceProperties();
+		properties.setSampleRate(0.0);
+		InMemoryTraceRepository repository = new InMemoryTraceRepository();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(repository, properties);
+		filter.doFilter(new MockHttpServletRequest("GET", "/foo"),
+				new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(new MockHttpServletRequest("GET", "/bar"),
+				new MockHttpServletResponse(), new StatusFilterChain(500));
+		assertEquals(1, repository.findAll().size());
+		assertEquals("/bar", repository.findAll().get(0).getInfo().get("path"));
+	}
+
+	@Test
+	public void failedRequestsAreTracedWhenNotSampled() throws Exception {
+		TraceProperties properties = new TraceProperties();
+		properties.setSampleRate(0.0);
+		InMemoryTraceRepository repository = new InMemoryTraceRepository();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(repository, properties);
+		try {
+			filter.doFilter(new MockHttpServletRequest("GET", "/foo"),
+					new MockHttpServletResponse(), new FilterChain() {
+						@Override
+						public void doFilter(ServletRequest request,
+								ServletResponse response) throws IOException,
+								ServletException {
+							throw new ServletException("Expected");
+						}
+					});
+			fail("Expected ServletException");
+		}
+		catch (ServletException ex) {
+			// expected
+		}
+		assertEquals(1, repository.findAll().size());
+	}
+
+	@Test
+	public void errorsAreNotTracedWhenDisabled() throws Exception {
+		TraceProperties properties = new TraceProperties();
+		properties.setSampleRate(0.0);
+		properties.setTraceErrors(false);
+		InMemoryTraceRepository repository = new InMemoryTraceRepository();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(repository, properties);
+		filter.doFilter(new MockHttpServletRequest("GET", "/foo"),
+				new MockHttpServletResponse(), new StatusFilterChain(500));
+		assertEquals(0, repository.findAll().size());
+	}
+
+	@Test
+	public void slowRequestsAreTracedWhenNotSampled() throws Exception {
+		TraceProperties properties = new TraceProperties();
+		properties.setSampleRate(0.0);
+		properties.setSlowRequestThreshold(0);
+		InMemoryTraceRepository repository = new InMemoryTraceRepository();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(repository, properties);
+		filter.doFilter(new MockHttpServletRequest("GET", "/foo"),
+				new MockHttpServletResponse(), new MockFilterChain());
+		assertEquals(1, repository.findAll().size());
+	}
+
+	@Test
+	public void onlyAllowedHeadersAreCaptured() {
+		TraceProperties properties = new TraceProperties();
+		properties.setHeaders(StringUtils.commaDelimitedListToSet("accept,content-type"));
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(
+				new InMemoryTraceRepository(), properties);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.addHeader("Accept", "application/json");
+		request.addHeader("Authorization", "secret");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.addHeader("Content-Type", "application/json");
+		response.addHeader("Set-Cookie", "secret");
+		Map<String, Object> trace = filter.getTrace(request);
+		filter.enhanceTrace(trace, response);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> map = (Map<String, Object>) trace.get("headers");
+		assertEquals("{accept=application/json}", map.get("request").toString());
+		assertEquals("{content-type=application/json, status=200}",
+				map.get("response").toString());
+	}
+
+	@Test
+	public void headersAreReadWhenTracing() {
+		TraceProperties properties = new TraceProperties();
+		WebRequestTraceFilter filter = new WebRequestTraceFilter(
+				new InMemoryTraceRepository(), properties);
+		properties.setHeaders(StringUtils.commaDelimitedListToSet("accept"));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.addHeader("Accept", "application/json");
+		request.addHeader("Authorization", "secret");
+		Map<String, Object> trace = filter.getTrace(request);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> map = (Map<String, Object>) trace.get("headers");
+		assertEquals("{accept=application/json}", map.get("request").toString());
+	}
+
+	private static class StatusFilterChain implements FilterChain {
+
+		private final int status;
+
+		StatusFilterChain(int status) {
+			this.status = status;
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response)
+				throws IOException, ServletException {
+			((HttpServletResponse) response).setStatus(this.status);
+		}
+
+	}
+
 }
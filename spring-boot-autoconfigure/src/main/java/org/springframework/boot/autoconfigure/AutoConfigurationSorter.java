@@ -28,6 +28,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -41,21 +43,62 @@ import org.springframework.util.Assert;
 /**
  * Sort {@link EnableAutoConfiguration auto-configuration} classes into priority order by
  * reading {@link Ordered}, {@link AutoConfigureBefore} and {@link AutoConfigureAfter}
- * annotations (without loading classes).
+ * annotations (without loading classes). The resulting order is cached per
+ * {@link ClassLoader} so that contexts sharing the same class loader and candidates do
+ * not need to read the class files again.
  *
  * @author Phillip Webb
  */
 class AutoConfigurationSorter {
 
-	private final CachingMetadataReaderFactory metadataReaderFactory;
+	private static final Map<ClassLoader, Map<Set<String>, List<String>>> cache = Collections
+			.synchronizedMap(new WeakHashMap<ClassLoader, Map<Set<String>, List<String>>>());
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	private final ClassLoader classLoader;
 
 	public AutoConfigurationSorter(ResourceLoader resourceLoader) {
+		this(resourceLoader, new CachingMetadataReaderFactory(resourceLoader));
+	}
+
+	public AutoConfigurationSorter(ResourceLoader resourceLoader,
+			MetadataReaderFactory metadataReaderFactory) {
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
-		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+		Assert.notNull(metadataReaderFactory, "MetadataReaderFactory must not be null");
+		this.metadataReaderFactory = metadataReaderFactory;
+		this.classLoader = resourceLoader.getClassLoader();
 	}
 
 	public List<String> getInPriorityOrder(Collection<String> classNames)
 			throws IOException {
+		Set<String> key = new HashSet<String>(classNames);
+		Map<Set<String>, List<String>> orders = getOrders();
+		List<String> orderedClassNames = (orders == null ? null : orders.get(key));
+		if (orderedClassNames == null) {
+			orderedClassNames = Collections.unmodifiableList(sort(classNames));
+			if (orders != null) {
+				orders.put(key, orderedClassNames);
+			}
+		}
+		return new ArrayList<String>(orderedClassNames);
+	}
+
+	private Map<Set<String>, List<String>> getOrders() {
+		if (this.classLoader == null) {
+			return null;
+		}
+		synchronized (cache) {
+			Map<Set<String>, List<String>> orders = cache.get(this.classLoader);
+			if (orders == null) {
+				orders = new ConcurrentHashMap<Set<String>, List<String>>();
+				cache.put(this.classLoader, orders);
+			}
+			return orders;
+		}
+	}
+
+	private List<String> sort(Collection<String> classNames) throws IOException {
 
 		final AutoConfigurationClasses classes = new AutoConfigurationClasses(
 				this.metadataReaderFactory, classNames);
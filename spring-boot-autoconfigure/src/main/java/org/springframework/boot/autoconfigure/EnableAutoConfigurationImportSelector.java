@@ -19,19 +19,33 @@ package org.springframework.boot.autoconfigure;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Properties;
 
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.DeferredImportSelector;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * {@link DeferredImportSelector} to handle {@link EnableAutoConfiguration
@@ -43,12 +57,23 @@ import org.springframework.util.Assert;
  */
 @Order(Ordered.LOWEST_PRECEDENCE)
 class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
-		BeanClassLoaderAware, ResourceLoaderAware {
+		BeanClassLoaderAware, ResourceLoaderAware, BeanFactoryAware {
+
+	/**
+	 * Location of the outcomes of class conditions that were evaluated when the
+	 * application was packaged. Each entry maps an auto-configuration class to a class
+	 * that it requires but that was not packaged.
+	 */
+	static final String PRECOMPUTED_OUTCOMES_LOCATION = "META-INF/spring-autoconfigure-outcomes.properties";
+
+	private static final Condition PRECOMPUTED_CONDITION = new PrecomputedOnClassCondition();
 
 	private ClassLoader beanClassLoader;
 
 	private ResourceLoader resourceLoader;
 
+	private BeanFactory beanFactory;
+
 	@Override
 	public String[] selectImports(AnnotationMetadata metadata) {
 		try {
@@ -68,9 +93,11 @@ class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
 			// Remove those specifically disabled
 			factories.removeAll(Arrays.asList(attributes.getStringArray("exclude")));
 
+			// Remove those that could not match when the application was packaged
+			removePrecomputedNonMatches(factories);
+
 			// Sort
-			factories = new AutoConfigurationSorter(this.resourceLoader)
-					.getInPriorityOrder(factories);
+			factories = getAutoConfigurationSorter().getInPriorityOrder(factories);
 
 			return factories.toArray(new String[factories.size()]);
 		}
@@ -79,6 +106,51 @@ class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
 		}
 	}
 
+	private void removePrecomputedNonMatches(List<String> factories) throws IOException {
+		Properties outcomes = PropertiesLoaderUtils.loadAllProperties(
+				PRECOMPUTED_OUTCOMES_LOCATION, this.beanClassLoader);
+		if (outcomes.isEmpty()) {
+			return;
+		}
+		ConditionEvaluationReport report = getConditionEvaluationReport();
+		for (Iterator<String> iterator = factories.iterator(); iterator.hasNext();) {
+			String factory = iterator.next();
+			String missing = outcomes.getProperty(factory);
+			// Checking for the resource is much cheaper than reading the metadata and
+			// protects against classes that are provided by the runtime environment
+			if (missing != null
+					&& this.beanClassLoader.getResource(ClassUtils
+							.convertClassNameToResourcePath(missing) + ".class") == null) {
+				iterator.remove();
+				if (report != null) {
+					report.recordConditionEvaluation(factory, PRECOMPUTED_CONDITION,
+							ConditionOutcome.noMatch("required @ConditionalOnClass "
+									+ "classes not found when packaged: " + missing));
+				}
+			}
+		}
+	}
+
+	private AutoConfigurationSorter getAutoConfigurationSorter() {
+		MetadataReaderFactory metadataReaderFactory = null;
+		if (this.beanFactory instanceof ConfigurableListableBeanFactory) {
+			metadataReaderFactory = SharedMetadataReaderFactoryContextInitializer
+					.getSharedMetadataReaderFactory((ConfigurableListableBeanFactory) this.beanFactory);
+		}
+		if (metadataReaderFactory == null) {
+			return new AutoConfigurationSorter(this.resourceLoader);
+		}
+		return new AutoConfigurationSorter(this.resourceLoader, metadataReaderFactory);
+	}
+
+	private ConditionEvaluationReport getConditionEvaluationReport() {
+		if (this.beanFactory instanceof ConfigurableListableBeanFactory) {
+			return ConditionEvaluationReport
+					.get((ConfigurableListableBeanFactory) this.beanFactory);
+		}
+		return null;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.beanClassLoader = classLoader;
@@ -89,4 +161,22 @@ class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
 		this.resourceLoader = resourceLoader;
 	}
 
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * {@link Condition} used to report auto-configuration classes that were removed
+	 * because of a precomputed outcome.
+	 */
+	private static class PrecomputedOnClassCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+
+	}
+
 }
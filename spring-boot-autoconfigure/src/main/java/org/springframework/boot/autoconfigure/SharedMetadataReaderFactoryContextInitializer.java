@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ConfigurationClassPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link ApplicationContextInitializer} to create a shared
+ * {@link ConcurrentReferenceCachingMetadataReaderFactory} between the
+ * {@link ConfigurationClassPostProcessor} and Spring Boot. A child context reuses the
+ * factory of its parent when both use the same class loader so that class files are
+ * only read once for the whole hierarchy.
+ *
+ * @author Phillip Webb
+ */
+public class SharedMetadataReaderFactoryContextInitializer implements
+		ApplicationContextInitializer<ConfigurableApplicationContext>, Ordered {
+
+	public static final String BEAN_NAME = "org.springframework.boot.autoconfigure."
+			+ "internalCachingMetadataReaderFactory";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext applicationContext) {
+		applicationContext
+				.addBeanFactoryPostProcessor(new CachingMetadataReaderFactoryPostProcessor(
+						applicationContext));
+	}
+
+	@Override
+	public int getOrder() {
+		return 0;
+	}
+
+	/**
+	 * Return the shared {@link MetadataReaderFactory} registered with the given bean
+	 * factory.
+	 * @param beanFactory the bean factory
+	 * @return the shared factory or {@code null} if none has been registered
+	 */
+	static MetadataReaderFactory getSharedMetadataReaderFactory(
+			ConfigurableListableBeanFactory beanFactory) {
+		if (beanFactory != null && beanFactory.containsSingleton(BEAN_NAME)) {
+			return beanFactory.getBean(BEAN_NAME, MetadataReaderFactory.class);
+		}
+		return null;
+	}
+
+	/**
+	 * {@link BeanDefinitionRegistryPostProcessor} to register the shared
+	 * {@link MetadataReaderFactory} and configure the
+	 * {@link ConfigurationClassPostProcessor} to use it.
+	 */
+	private static class CachingMetadataReaderFactoryPostProcessor implements
+			BeanDefinitionRegistryPostProcessor {
+
+		private final ConfigurableApplicationContext applicationContext;
+
+		public CachingMetadataReaderFactoryPostProcessor(
+				ConfigurableApplicationContext applicationContext) {
+			this.applicationContext = applicationContext;
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory)
+				throws BeansException {
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry)
+				throws BeansException {
+			if (!(registry instanceof ConfigurableListableBeanFactory)) {
+				return;
+			}
+			ConfigurableListableBeanFactory beanFactory = (ConfigurableListableBeanFactory) registry;
+			if (!beanFactory.containsSingleton(BEAN_NAME)) {
+				beanFactory.registerSingleton(BEAN_NAME, getMetadataReaderFactory());
+			}
+			configureConfigurationClassPostProcessor(registry);
+		}
+
+		private MetadataReaderFactory getMetadataReaderFactory() {
+			ApplicationContext parent = this.applicationContext.getParent();
+			if (parent instanceof ConfigurableApplicationContext
+					&& ObjectUtils.nullSafeEquals(parent.getClassLoader(),
+							this.applicationContext.getClassLoader())) {
+				MetadataReaderFactory factory = getSharedMetadataReaderFactory(((ConfigurableApplicationContext) parent)
+						.getBeanFactory());
+				if (factory != null) {
+					return factory;
+				}
+			}
+			return new ConcurrentReferenceCachingMetadataReaderFactory(
+					this.applicationContext);
+		}
+
+		private void configureConfigurationClassPostProcessor(
+				BeanDefinitionRegistry registry) {
+			try {
+				BeanDefinition definition = registry
+						.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME);
+				definition.getPropertyValues().add("metadataReaderFactory",
+						new RuntimeBeanReference(BEAN_NAME));
+			}
+			catch (NoSuchBeanDefinitionException ex) {
+			}
+		}
+
+	}
+
+}
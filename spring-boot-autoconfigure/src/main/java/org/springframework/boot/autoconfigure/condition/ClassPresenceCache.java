@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Cache of class presence checks, shared by all class conditions. Both positive and
+ * negative results are held per {@link ClassLoader}. Class loaders are weakly
+ * referenced so that the cache never prevents them from being garbage collected.
+ * Only the time of negative checks is counted as saved when they are served from the
+ * cache, since repeating a positive check finds the class already loaded.
+ * Classes made available to a class loader after they were first checked will not be
+ * detected.
+ *
+ * @author Phillip Webb
+ * @see OnClassCondition
+ * @see OnWebApplicationCondition
+ */
+final class ClassPresenceCache {
+
+	private static final Map<ClassLoader, Map<String, Presence>> cache = Collections
+			.synchronizedMap(new WeakHashMap<ClassLoader, Map<String, Presence>>());
+
+	private ClassPresenceCache() {
+	}
+
+	/**
+	 * Determine whether the {@link Class} identified by the supplied name is present and
+	 * can be loaded, recording cache statistics in the report of the context's bean
+	 * factory.
+	 * @param className the name of the class to check
+	 * @param context the condition context
+	 * @return {@code true} if the class is present
+	 */
+	public static boolean isPresent(String className, ConditionContext context) {
+		ConditionEvaluationReport report = (context.getBeanFactory() == null ? null
+				: ConditionEvaluationReport.get(context.getBeanFactory()));
+		return isPresent(className, context.getClassLoader(), report);
+	}
+
+	/**
+	 * Determine whether the {@link Class} identified by the supplied name is present and
+	 * can be loaded.
+	 * @param className the name of the class to check
+	 * @param classLoader the class loader to use (may be {@code null} to indicate the
+	 * default class loader)
+	 * @param report the report used to record cache statistics (may be {@code null})
+	 * @return {@code true} if the class is present
+	 */
+	public static boolean isPresent(String className, ClassLoader classLoader,
+			ConditionEvaluationReport report) {
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+		}
+		Map<String, Presence> presences = getPresences(classLoader);
+		Presence presence = (presences == null ? null : presences.get(className));
+		if (presence != null) {
+			if (report != null) {
+				report.recordClassPresenceCheck(true, presence.getSavedTime());
+			}
+			return presence.isPresent();
+		}
+		long startTime = System.nanoTime();
+		presence = new Presence(ClassUtils.isPresent(className, classLoader),
+				System.nanoTime() - startTime);
+		if (presences != null) {
+			presences.put(className, presence);
+		}
+		if (report != null) {
+			report.recordClassPresenceCheck(false, presence.getLookupTime());
+		}
+		return presence.isPresent();
+	}
+
+	private static Map<String, Presence> getPresences(ClassLoader classLoader) {
+		if (classLoader == null) {
+			return null;
+		}
+		synchronized (cache) {
+			Map<String, Presence> presences = cache.get(classLoader);
+			if (presences == null) {
+				presences = new ConcurrentHashMap<String, Presence>();
+				cache.put(classLoader, presences);
+			}
+			return presences;
+		}
+	}
+
+	/**
+	 * The result of a single class presence check.
+	 */
+	private static class Presence {
+
+		private final boolean present;
+
+		private final long lookupTime;
+
+		public Presence(boolean present, long lookupTime) {
+			this.present = present;
+			this.lookupTime = lookupTime;
+		}
+
+		public boolean isPresent() {
+			return this.present;
+		}
+
+		public long getLookupTime() {
+			return this.lookupTime;
+		}
+
+		/**
+		 * Return the time that serving this result from the cache saves. A repeated
+		 * check for a present class is cheap because the class is already loaded, so
+		 * only the time of a failed lookup is saved.
+		 * @return the saved time in nanoseconds
+		 */
+		public long getSavedTime() {
+			return (this.present ? 0 : this.lookupTime);
+		}
+
+	}
+
+}
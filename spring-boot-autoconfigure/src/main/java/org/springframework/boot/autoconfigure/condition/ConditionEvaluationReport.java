@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -43,6 +45,12 @@ public class ConditionEvaluationReport {
 
 	private final SortedMap<String, ConditionAndOutcomes> outcomes = new TreeMap<String, ConditionAndOutcomes>();
 
+	private final AtomicLong classPresenceCacheHits = new AtomicLong();
+
+	private final AtomicLong classPresenceCacheMisses = new AtomicLong();
+
+	private final AtomicLong classPresenceTimeSaved = new AtomicLong();
+
 	private ConditionEvaluationReport parent;
 
 	/**
@@ -69,6 +77,44 @@ public class ConditionEvaluationReport {
 		this.outcomes.get(source).add(condition, outcome);
 	}
 
+	/**
+	 * Record a class presence check made by a class condition.
+	 * @param cached if the result was served from the cache
+	 * @param lookupTime the time in nanoseconds that the check took or, if the result was
+	 * cached, the time that the cache saved
+	 */
+	void recordClassPresenceCheck(boolean cached, long lookupTime) {
+		if (cached) {
+			this.classPresenceCacheHits.incrementAndGet();
+			this.classPresenceTimeSaved.addAndGet(lookupTime);
+		}
+		else {
+			this.classPresenceCacheMisses.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the number of class presence checks that were served from the cache.
+	 */
+	public long getClassPresenceCacheHits() {
+		return this.classPresenceCacheHits.get();
+	}
+
+	/**
+	 * Returns the number of class presence checks that required a class to be loaded.
+	 */
+	public long getClassPresenceCacheMisses() {
+		return this.classPresenceCacheMisses.get();
+	}
+
+	/**
+	 * Returns an estimate of the time in milliseconds saved by serving class presence
+	 * checks from the cache.
+	 */
+	public long getClassPresenceCacheTimeSaved() {
+		return TimeUnit.NANOSECONDS.toMillis(this.classPresenceTimeSaved.get());
+	}
+
 	/**
 	 * Returns condition outcomes from this report, grouped by the source.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,6 @@ import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.type.AnnotatedTypeMetadata;
-import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
@@ -44,54 +43,71 @@ class OnClassCondition extends SpringBootCondition {
 			AnnotatedTypeMetadata metadata) {
 
 		StringBuffer matchMessage = new StringBuffer();
+		ClassLoader classLoader = context.getClassLoader();
+		ConditionEvaluationReport report = getReport(context);
 
 		MultiValueMap<String, Object> onClasses = getAttributes(metadata,
 				ConditionalOnClass.class);
 		if (onClasses != null) {
-			List<String> missing = getMatchingClasses(onClasses, MatchType.MISSING,
-					context);
+			List<String> candidates = getCandidates(onClasses);
+			List<String> missing = getMatchingClasses(candidates, MatchType.MISSING,
+					classLoader, report);
 			if (!missing.isEmpty()) {
 				return ConditionOutcome
 						.noMatch("required @ConditionalOnClass classes not found: "
 								+ StringUtils.collectionToCommaDelimitedString(missing));
 			}
+			// None are missing so all of the candidates are present
 			matchMessage.append("@ConditionalOnClass classes found: "
-					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onClasses, MatchType.PRESENT, context)));
+					+ StringUtils.collectionToCommaDelimitedString(candidates));
 		}
 
 		MultiValueMap<String, Object> onMissingClasses = getAttributes(metadata,
 				ConditionalOnMissingClass.class);
 		if (onMissingClasses != null) {
-			List<String> present = getMatchingClasses(onMissingClasses,
-					MatchType.PRESENT, context);
+			List<String> candidates = getCandidates(onMissingClasses);
+			List<String> present = getMatchingClasses(candidates, MatchType.PRESENT,
+					classLoader, report);
 			if (!present.isEmpty()) {
 				return ConditionOutcome
 						.noMatch("required @ConditionalOnMissing classes found: "
 								+ StringUtils.collectionToCommaDelimitedString(present));
 			}
+			// None are present so all of the candidates are missing
 			matchMessage.append(matchMessage.length() == 0 ? "" : " ");
 			matchMessage.append("@ConditionalOnMissing classes not found: "
-					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onMissingClasses, MatchType.MISSING, context)));
+					+ StringUtils.collectionToCommaDelimitedString(candidates));
 		}
 
 		return ConditionOutcome.match(matchMessage.toString());
 	}
 
+	private ConditionEvaluationReport getReport(ConditionContext context) {
+		if (context.getBeanFactory() == null) {
+			return null;
+		}
+		return ConditionEvaluationReport.get(context.getBeanFactory());
+	}
+
 	private MultiValueMap<String, Object> getAttributes(AnnotatedTypeMetadata metadata,
 			Class<?> annotationType) {
 		return metadata.getAllAnnotationAttributes(annotationType.getName(), true);
 	}
 
-	private List<String> getMatchingClasses(MultiValueMap<String, Object> attributes,
-			MatchType matchType, ConditionContext context) {
-		List<String> matches = new LinkedList<String>();
-		addAll(matches, attributes.get("value"));
-		addAll(matches, attributes.get("name"));
+	private List<String> getCandidates(MultiValueMap<String, Object> attributes) {
+		List<String> candidates = new LinkedList<String>();
+		addAll(candidates, attributes.get("value"));
+		addAll(candidates, attributes.get("name"));
+		return candidates;
+	}
+
+	private List<String> getMatchingClasses(List<String> candidates,
+			MatchType matchType, ClassLoader classLoader,
+			ConditionEvaluationReport report) {
+		List<String> matches = new LinkedList<String>(candidates);
 		Iterator<String> iterator = matches.iterator();
 		while (iterator.hasNext()) {
-			if (!matchType.matches(iterator.next(), context)) {
+			if (!matchType.matches(iterator.next(), classLoader, report)) {
 				iterator.remove();
 			}
 		}
@@ -112,19 +128,22 @@ class OnClassCondition extends SpringBootCondition {
 
 		PRESENT {
 			@Override
-			public boolean matches(String className, ConditionContext context) {
-				return ClassUtils.isPresent(className, context.getClassLoader());
+			public boolean matches(String className, ClassLoader classLoader,
+					ConditionEvaluationReport report) {
+				return ClassPresenceCache.isPresent(className, classLoader, report);
 			}
 		},
 
 		MISSING {
 			@Override
-			public boolean matches(String className, ConditionContext context) {
-				return !ClassUtils.isPresent(className, context.getClassLoader());
+			public boolean matches(String className, ClassLoader classLoader,
+					ConditionEvaluationReport report) {
+				return !ClassPresenceCache.isPresent(className, classLoader, report);
 			}
 		};
 
-		public abstract boolean matches(String className, ConditionContext context);
+		public abstract boolean matches(String className, ClassLoader classLoader,
+				ConditionEvaluationReport report);
 
 	};
 
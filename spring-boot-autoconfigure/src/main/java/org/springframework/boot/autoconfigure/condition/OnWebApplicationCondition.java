@@ -21,7 +21,6 @@ import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.type.AnnotatedTypeMetadata;
-import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.StandardServletEnvironment;
@@ -61,7 +60,7 @@ class OnWebApplicationCondition extends SpringBootCondition {
 	private ConditionOutcome isWebApplication(ConditionContext context,
 			AnnotatedTypeMetadata metadata) {
 
-		if (!ClassUtils.isPresent(WEB_CONTEXT_CLASS, context.getClassLoader())) {
+		if (!ClassPresenceCache.isPresent(WEB_CONTEXT_CLASS, context)) {
 			return ConditionOutcome.noMatch("web application classes not found");
 		}
 
@@ -111,6 +111,7 @@ public class AutoConfigurationReportLoggingInitializer implements
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug(getLogMessage(this.report
 						.getConditionAndOutcomesBySource()));
+				this.logger.debug(getClassPresenceCacheLogMessage(this.report));
 			}
 		}
 	}
@@ -141,6 +142,14 @@ public class AutoConfigurationReportLoggingInitializer implements
 		return message;
 	}
 
+	private String getClassPresenceCacheLogMessage(ConditionEvaluationReport report) {
+		long hits = report.getClassPresenceCacheHits();
+		long total = hits + report.getClassPresenceCacheMisses();
+		return "Class presence cache: " + hits + " of " + total + " checks cached ("
+				+ (total == 0 ? 0 : hits * 100 / total) + "%), approximately "
+				+ report.getClassPresenceCacheTimeSaved() + "ms saved";
+	}
+
 	private Map<String, ConditionAndOutcomes> orderByName(
 			Map<String, ConditionAndOutcomes> outcomes) {
 		Map<String, ConditionAndOutcomes> result = new LinkedHashMap<String, ConditionAndOutcomes>();
@@ -37,6 +37,12 @@ public class ResourceProperties {
 	 */
 	private boolean addMappings = true;
 
+	/**
+	 * Serve large resources using the servlet container's sendfile support (Tomcat
+	 * only). Resources must be plain files or uncompressed entries in an executable jar.
+	 */
+	private boolean sendfile = false;
+
 	public Integer getCachePeriod() {
 		return this.cachePeriod;
 	}
@@ -53,4 +59,12 @@ public class ResourceProperties {
 		this.addMappings = addMappings;
 	}
 
+	public boolean isSendfile() {
+		return this.sendfile;
+	}
+
+	public void setSendfile(boolean sendfile) {
+		this.sendfile = sendfile;
+	}
+
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLConnection;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * {@link ResourceHttpRequestHandler} that asks the servlet container to send large
+ * resources directly from the file that contains them (using {@code sendfile}) rather
+ * than copying them through the response stream. Resources can be plain files or
+ * entries that are stored without compression in an executable jar. Currently only
+ * supported by Tomcat, other containers fall back to the standard behavior.
+ *
+ * @author Phillip Webb
+ */
+class SendfileResourceHttpRequestHandler extends ResourceHttpRequestHandler {
+
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * Smaller resources are cheaper to copy (same default as Tomcat's DefaultServlet).
+	 */
+	private static final long MINIMUM_SIZE = 48 * 1024;
+
+	@Override
+	protected void writeContent(HttpServletResponse response, Resource resource)
+			throws IOException {
+		HttpServletRequest request = getSendfileRequest();
+		if (request != null && resource.contentLength() >= MINIMUM_SIZE) {
+			FileRegion region = FileRegion.get(resource);
+			if (region != null) {
+				request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, region.getFile()
+						.getAbsolutePath());
+				request.setAttribute(SENDFILE_START_ATTRIBUTE, region.getStart());
+				request.setAttribute(SENDFILE_END_ATTRIBUTE, region.getEnd());
+				return;
+			}
+		}
+		super.writeContent(response, resource);
+	}
+
+	private HttpServletRequest getSendfileRequest() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes) {
+			HttpServletRequest request = ((ServletRequestAttributes) attributes)
+					.getRequest();
+			if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+				return request;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Create a new {@link SendfileResourceHttpRequestHandler} with the same
+	 * configuration as an existing handler.
+	 * @param handler the handler to copy
+	 * @param servletContext the servlet context
+	 * @param applicationContext the application context
+	 * @return the new handler
+	 */
+	public static SendfileResourceHttpRequestHandler copyOf(
+			ResourceHttpRequestHandler handler, ServletContext servletContext,
+			ApplicationContext applicationContext) {
+		SendfileResourceHttpRequestHandler copy = new SendfileResourceHttpRequestHandler();
+		copy.setLocations(handler.getLocations());
+		copy.setResourceResolvers(handler.getResourceResolvers());
+		copy.setResourceTransformers(handler.getResourceTransformers());
+		copy.setCacheSeconds(handler.getCacheSeconds());
+		copy.setServletContext(servletContext);
+		copy.setApplicationContext(applicationContext);
+		try {
+			copy.afterPropertiesSet();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+		return copy;
+	}
+
+	/**
+	 * A region of a file that holds the content of a resource.
+	 */
+	static class FileRegion {
+
+		private final File file;
+
+		private final long start;
+
+		private final long end;
+
+		FileRegion(File file, long start, long end) {
+			this.file = file;
+			this.start = start;
+			this.end = end;
+		}
+
+		public File getFile() {
+			return this.file;
+		}
+
+		public long getStart() {
+			return this.start;
+		}
+
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * Return the {@link FileRegion} of the given resource.
+		 * @param resource the resource
+		 * @return the region or {@code null} if the resource is not a file or an
+		 * uncompressed entry in an executable jar
+		 * @throws IOException if the resource cannot be read
+		 */
+		public static FileRegion get(Resource resource) throws IOException {
+			URL url = resource.getURL();
+			if (ResourceUtils.isFileURL(url)) {
+				File file = resource.getFile();
+				return new FileRegion(file, 0, file.length());
+			}
+			if (ResourceUtils.isJarURL(url)) {
+				return getStoredEntry(url.openConnection(), resource.contentLength());
+			}
+			return null;
+		}
+
+		private static FileRegion getStoredEntry(URLConnection connection, long length)
+				throws IOException {
+			// Exposed by the jar URL support of the Spring Boot loader. It may not be
+			// visible to this class loader so it is called reflectively.
+			Method fileMethod = ReflectionUtils.findMethod(connection.getClass(),
+					"getStoredEntryFile");
+			Method offsetMethod = ReflectionUtils.findMethod(connection.getClass(),
+					"getStoredEntryOffset");
+			if (fileMethod == null || offsetMethod == null) {
+				return null;
+			}
+			ReflectionUtils.makeAccessible(fileMethod);
+			ReflectionUtils.makeAccessible(offsetMethod);
+			File file = (File) invoke(fileMethod, connection);
+			if (file == null) {
+				return null;
+			}
+			long offset = (Long) invoke(offsetMethod, connection);
+			return new FileRegion(file, offset, offset + length);
+		}
+
+		private static Object invoke(Method method, URLConnection connection)
+				throws IOException {
+			try {
+				return method.invoke(connection);
+			}
+			catch (Exception ex) {
+				if (ex.getCause() instanceof IOException) {
+					throw (IOException) ex.getCause();
+				}
+				ReflectionUtils.handleReflectionException(ex);
+				return null;
+			}
+		}
+
+	}
+
+}
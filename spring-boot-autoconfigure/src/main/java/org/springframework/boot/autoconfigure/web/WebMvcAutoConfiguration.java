@@ -22,8 +22,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +41,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -61,6 +64,7 @@ import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.context.request.RequestContextListener;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
@@ -335,6 +339,25 @@ public class WebMvcAutoConfiguration {
 		@Autowired(required = false)
 		private WebMvcProperties mvcProperties;
 
+		@Autowired(required = false)
+		private ResourceProperties resourceProperties;
+
+		private ApplicationContext applicationContext;
+
+		private ServletContext servletContext;
+
+		@Override
+		public void setApplicationContext(ApplicationContext applicationContext) {
+			super.setApplicationContext(applicationContext);
+			this.applicationContext = applicationContext;
+		}
+
+		@Override
+		public void setServletContext(ServletContext servletContext) {
+			super.setServletContext(servletContext);
+			this.servletContext = servletContext;
+		}
+
 		@Bean
 		@Override
 		public RequestMappingHandlerAdapter requestMappingHandlerAdapter() {
@@ -344,5 +367,29 @@ public class WebMvcAutoConfiguration {
 			return adapter;
 		}
 
+		@Bean
+		@Override
+		public HandlerMapping resourceHandlerMapping() {
+			HandlerMapping mapping = super.resourceHandlerMapping();
+			if (this.resourceProperties != null && this.resourceProperties.isSendfile()
+					&& mapping instanceof SimpleUrlHandlerMapping) {
+				useSendfile(((SimpleUrlHandlerMapping) mapping).getUrlMap());
+			}
+			return mapping;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void useSendfile(Map<String, ?> urlMap) {
+			for (Map.Entry<String, Object> entry : ((Map<String, Object>) urlMap)
+					.entrySet()) {
+				Object handler = entry.getValue();
+				if (ResourceHttpRequestHandler.class.equals(handler.getClass())) {
+					entry.setValue(SendfileResourceHttpRequestHandler.copyOf(
+							(ResourceHttpRequestHandler) handler, this.servletContext,
+							this.applicationContext));
+				}
+			}
+		}
+
 	}
 }
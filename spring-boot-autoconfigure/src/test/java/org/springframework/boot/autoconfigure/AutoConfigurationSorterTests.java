@@ -30,8 +30,11 @@ import org.junit.rules.ExpectedException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 /**
  * Tests for {@link AutoConfigurationSorter}.
@@ -115,6 +118,16 @@ public class AutoConfigurationSorterTests {
 		this.sorter.getInPriorityOrder(Arrays.asList(A, B, C, D));
 	}
 
+	@Test
+	public void orderIsCachedPerClassLoader() throws Exception {
+		this.sorter.getInPriorityOrder(Arrays.asList(X, Y, Z));
+		MetadataReaderFactory metadataReaderFactory = mock(MetadataReaderFactory.class);
+		List<String> actual = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				metadataReaderFactory).getInPriorityOrder(Arrays.asList(Z, Y, X));
+		assertThat(actual, nameMatcher(Z, Y, X));
+		verifyZeroInteractions(metadataReaderFactory);
+	}
+
 	private Matcher<? super List<String>> nameMatcher(String... names) {
 
 		final List<String> list = Arrays.asList(names);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.StandardAnnotationMetadata;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link EnableAutoConfigurationImportSelector}.
+ *
+ * @author Phillip Webb
+ */
+public class EnableAutoConfigurationImportSelectorTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final EnableAutoConfigurationImportSelector selector = new EnableAutoConfigurationImportSelector();
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	@Before
+	public void setup() {
+		this.selector.setBeanFactory(this.beanFactory);
+		this.selector.setResourceLoader(new DefaultResourceLoader());
+	}
+
+	@Test
+	public void precomputedOutcomesRemoveAutoConfiguration() throws Exception {
+		Properties outcomes = new Properties();
+		outcomes.setProperty(JmsAutoConfiguration.class.getName(), "com.example.Missing");
+		outcomes.setProperty(AopAutoConfiguration.class.getName(),
+				String.class.getName());
+		this.selector.setBeanClassLoader(new OutcomesClassLoader(outcomes));
+		List<String> imports = selectImports();
+		assertThat(imports, not(hasItem(JmsAutoConfiguration.class.getName())));
+		assertThat(imports, hasItem(AopAutoConfiguration.class.getName()));
+		ConditionEvaluationReport report = ConditionEvaluationReport
+				.get(this.beanFactory);
+		assertFalse(report.getConditionAndOutcomesBySource()
+				.get(JmsAutoConfiguration.class.getName()).isFullMatch());
+	}
+
+	@Test
+	public void noPrecomputedOutcomes() throws Exception {
+		this.selector.setBeanClassLoader(getClass().getClassLoader());
+		assertThat(selectImports(), hasItem(JmsAutoConfiguration.class.getName()));
+	}
+
+	private List<String> selectImports() {
+		return Arrays.asList(this.selector.selectImports(new StandardAnnotationMetadata(
+				Config.class)));
+	}
+
+	@EnableAutoConfiguration
+	private static class Config {
+
+	}
+
+	private class OutcomesClassLoader extends ClassLoader {
+
+		private final URL outcomes;
+
+		public OutcomesClassLoader(Properties outcomes) throws IOException {
+			super(EnableAutoConfigurationImportSelectorTests.class.getClassLoader());
+			File file = EnableAutoConfigurationImportSelectorTests.this.temporaryFolder
+					.newFile();
+			FileOutputStream outputStream = new FileOutputStream(file);
+			try {
+				outcomes.store(outputStream, null);
+			}
+			finally {
+				outputStream.close();
+			}
+			this.outcomes = file.toURI().toURL();
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			if (EnableAutoConfigurationImportSelector.PRECOMPUTED_OUTCOMES_LOCATION
+					.equals(name)) {
+				return Collections.enumeration(Collections.singleton(this.outcomes));
+			}
+			return super.getResources(name);
+		}
+
+	}
+
+}
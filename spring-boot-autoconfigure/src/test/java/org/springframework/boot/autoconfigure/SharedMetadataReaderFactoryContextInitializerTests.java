@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SharedMetadataReaderFactoryContextInitializer}.
+ *
+ * @author Phillip Webb
+ */
+public class SharedMetadataReaderFactoryContextInitializerTests {
+
+	private AnnotationConfigApplicationContext parent;
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+		if (this.parent != null) {
+			this.parent.close();
+		}
+	}
+
+	@Test
+	public void configurationClassPostProcessorUsesSharedFactory() {
+		this.context = createContext();
+		this.context.refresh();
+		Object factory = this.context
+				.getBean(SharedMetadataReaderFactoryContextInitializer.BEAN_NAME);
+		assertThat(factory,
+				instanceOf(ConcurrentReferenceCachingMetadataReaderFactory.class));
+		Object postProcessor = this.context
+				.getBean(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME);
+		assertThat(ReflectionTestUtils.getField(postProcessor, "metadataReaderFactory"),
+				sameInstance(factory));
+	}
+
+	@Test
+	public void childContextReusesParentFactory() {
+		this.parent = createContext();
+		this.parent.refresh();
+		this.context = createContext();
+		this.context.setParent(this.parent);
+		this.context.refresh();
+		assertThat(this.context.getBeanFactory().getSingleton(
+				SharedMetadataReaderFactoryContextInitializer.BEAN_NAME),
+				sameInstance(this.parent.getBeanFactory().getSingleton(
+						SharedMetadataReaderFactoryContextInitializer.BEAN_NAME)));
+	}
+
+	private AnnotationConfigApplicationContext createContext() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		new SharedMetadataReaderFactoryContextInitializer().initialize(context);
+		context.register(TestConfiguration.class);
+		return context;
+	}
+
+	@Configuration
+	static class TestConfiguration {
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2013 the original author or authors.
+ * Copyright 2012-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,27 @@
 
 package org.springframework.boot.autoconfigure.condition;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportResource;
+import org.springframework.core.type.StandardAnnotationMetadata;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link ConditionalOnClass}.
@@ -68,6 +79,58 @@ public class ConditionalOnClassTests {
 		assertEquals("bar", this.context.getBean("bar"));
 	}
 
+	@Test
+	public void testClassPresenceIsCachedPerClassLoader() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass()
+				.getClassLoader());
+		ConditionEvaluationReport first = refreshWithClassLoader(classLoader);
+		assertEquals(0, first.getClassPresenceCacheHits());
+		assertEquals(1, first.getClassPresenceCacheMisses());
+		ConditionEvaluationReport second = refreshWithClassLoader(classLoader);
+		assertEquals(1, second.getClassPresenceCacheHits());
+		assertEquals(0, second.getClassPresenceCacheMisses());
+	}
+
+	@Test
+	public void testPresentClassIsLookedUpOnce() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass()
+				.getClassLoader());
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ConditionContext context = mock(ConditionContext.class);
+		given(context.getClassLoader()).willReturn(classLoader);
+		given(context.getBeanFactory()).willReturn(beanFactory);
+		ConditionOutcome outcome = new OnClassCondition().getMatchOutcome(context,
+				new StandardAnnotationMetadata(BasicConfiguration.class));
+		assertTrue(outcome.isMatch());
+		ConditionEvaluationReport report = ConditionEvaluationReport.get(beanFactory);
+		assertEquals(0, report.getClassPresenceCacheHits());
+		assertEquals(1, report.getClassPresenceCacheMisses());
+	}
+
+	@Test
+	public void testCachedPresentClassSavesNoTime() {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass()
+				.getClassLoader());
+		ConditionEvaluationReport report = mock(ConditionEvaluationReport.class);
+		String className = getClass().getName();
+		assertTrue(ClassPresenceCache.isPresent(className, classLoader, report));
+		assertTrue(ClassPresenceCache.isPresent(className, classLoader, report));
+		verify(report).recordClassPresenceCheck(eq(false), anyLong());
+		verify(report).recordClassPresenceCheck(true, 0L);
+	}
+
+	private ConditionEvaluationReport refreshWithClassLoader(ClassLoader classLoader) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(classLoader);
+		context.register(MissingConfiguration.class, FooConfiguration.class);
+		context.refresh();
+		assertFalse(context.containsBean("bar"));
+		ConditionEvaluationReport report = ConditionEvaluationReport.get(context
+				.getBeanFactory());
+		context.close();
+		return report;
+	}
+
 	@Configuration
 	@ConditionalOnClass(ConditionalOnClassTests.class)
 	protected static class BasicConfiguration {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SendfileResourceHttpRequestHandler}.
+ *
+ * @author Phillip Webb
+ */
+public class SendfileResourceHttpRequestHandlerTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private SendfileResourceHttpRequestHandler handler;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Before
+	public void setup() throws Exception {
+		File folder = this.temporaryFolder.newFolder();
+		FileCopyUtils.copy(new byte[64 * 1024], new File(folder, "large.bin"));
+		FileCopyUtils.copy(new byte[16], new File(folder, "small.bin"));
+		this.handler = new SendfileResourceHttpRequestHandler();
+		this.handler.setLocations(Collections.<Resource> singletonList(
+				new FileSystemResource(folder.getAbsolutePath() + "/")));
+		this.handler.setServletContext(new MockServletContext());
+		this.handler.afterPropertiesSet();
+		this.request = new MockHttpServletRequest("GET", "");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+				this.request));
+	}
+
+	@After
+	public void cleanup() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void largeFileUsesSendfile() throws Exception {
+		File file = new File(handle("large.bin", true).getAttribute(
+				"org.apache.tomcat.sendfile.filename").toString());
+		assertThat(file.getName(), equalTo("large.bin"));
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.start"),
+				equalTo((Object) 0L));
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.end"),
+				equalTo((Object) (64 * 1024L)));
+		assertThat(this.response.getContentLength(), equalTo(64 * 1024));
+		assertThat(this.response.getContentAsByteArray().length, equalTo(0));
+	}
+
+	@Test
+	public void smallFileIsCopied() throws Exception {
+		assertThat(handle("small.bin", true).getAttribute(
+				"org.apache.tomcat.sendfile.filename"), nullValue());
+		assertThat(this.response.getContentAsByteArray().length, equalTo(16));
+	}
+
+	@Test
+	public void sendfileNotSupported() throws Exception {
+		assertThat(handle("large.bin", false).getAttribute(
+				"org.apache.tomcat.sendfile.filename"), nullValue());
+		assertThat(this.response.getContentAsByteArray().length, equalTo(64 * 1024));
+	}
+
+	private MockHttpServletRequest handle(String path, boolean sendfileSupported)
+			throws Exception {
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE,
+				path);
+		if (sendfileSupported) {
+			this.request.setAttribute("org.apache.tomcat.sendfile.support", true);
+		}
+		this.handler.handleRequest(this.request, this.response);
+		return this.request;
+	}
+
+}
@@ -156,6 +156,23 @@ public class WebMvcAutoConfigurationTests {
 				equalTo((Resource) new ClassPathResource("/foo/")));
 	}
 
+	@Test
+	public void resourceHandlerMappingWithSendfile() throws Exception {
+		this.context = new AnnotationConfigEmbeddedWebApplicationContext();
+		EnvironmentTestUtils.addEnvironment(this.context, "spring.resources.sendfile:true");
+		this.context.register(Config.class, WebMvcAutoConfiguration.class,
+				HttpMessageConvertersAutoConfiguration.class,
+				PropertyPlaceholderAutoConfiguration.class);
+		this.context.refresh();
+		Map<String, List<Resource>> mappingLocations = getMappingLocations();
+		assertThat(mappingLocations.get("/**").size(), equalTo(5));
+		SimpleUrlHandlerMapping mapping = this.context.getBean(
+				"resourceHandlerMapping", SimpleUrlHandlerMapping.class);
+		for (Object handler : mapping.getHandlerMap().values()) {
+			assertThat(handler, instanceOf(SendfileResourceHttpRequestHandler.class));
+		}
+	}
+
 	@Test
 	public void resourceHandlerMappingDisabled() throws Exception {
 		this.context = new AnnotationConfigEmbeddedWebApplicationContext();
@@ -91,6 +91,19 @@ public class SpringBootPluginExtension {
 	 */
 	boolean backupSource = true;
 
+	/**
+	 * If the class conditions of auto-configuration classes should be evaluated against
+	 * the packaged dependencies so that those that can never match are skipped at startup.
+	 * Only use this if the archive is run with the same dependencies that it was packaged with.
+	 */
+	boolean precomputeConditions = false;
+
+	/**
+	 * If an index of the packages in each nested library should be written so that the
+	 * launcher can load classes without searching every library.
+	 */
+	boolean writeClassPathIndex = false;
+
 	/**
 	 * The layout of the archive if it can't be derived from the file extension.
 	 * Valid values are JAR, WAR, ZIP, DIR (for exploded zip file). ZIP and DIR
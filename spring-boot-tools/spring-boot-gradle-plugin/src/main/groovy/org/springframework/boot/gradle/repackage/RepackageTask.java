@@ -169,6 +169,8 @@ public class RepackageTask extends DefaultTask {
 				repackager.setLayout(this.extension.convertLayout());
 			}
 			repackager.setBackupSource(this.extension.isBackupSource());
+			repackager.setPrecomputeConditions(this.extension.isPrecomputeConditions());
+			repackager.setWriteClassPathIndex(this.extension.isWriteClassPathIndex());
 			try {
 				repackager.repackage(file, this.libraries);
 			}
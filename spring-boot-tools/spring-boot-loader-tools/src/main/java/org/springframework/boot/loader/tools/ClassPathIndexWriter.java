@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Builds the class path index that allows the launcher to find the nested archives that
+ * contain a package without searching all of them. The index lists each archive followed
+ * by the packages that it contains classes for, one per line, with a blank line between
+ * archives. Packages are written as folders (e.g. {@code org/example/}) and {@code /} is
+ * used for both the root archive and the default package.
+ *
+ * @author Phillip Webb
+ * @see Repackager
+ */
+class ClassPathIndexWriter {
+
+	static final String LOCATION = "META-INF/classpath.idx";
+
+	private static final String ROOT = "/";
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	private final Map<String, Set<String>> archives = new LinkedHashMap<String, Set<String>>();
+
+	/**
+	 * Add the classes of the root archive.
+	 * @param entryNames the names of the entries in the archive
+	 * @param classesLocation the location of the application classes (may be an empty
+	 * string if they are in the root)
+	 */
+	public void addRoot(Collection<String> entryNames, String classesLocation) {
+		Set<String> root = getPackages(ROOT);
+		Set<String> classes = (classesLocation.length() == 0 ? null
+				: getPackages(classesLocation.substring(0,
+						classesLocation.length() - 1)));
+		for (String name : entryNames) {
+			addPackage(root, name);
+			if (classes != null && name.startsWith(classesLocation)) {
+				addPackage(classes, name.substring(classesLocation.length()));
+			}
+		}
+	}
+
+	/**
+	 * Add the classes of a nested library.
+	 * @param name the name of the nested entry
+	 * @param file the library file
+	 * @throws IOException
+	 */
+	public void addLibrary(String name, File file) throws IOException {
+		Set<String> packages = getPackages(name);
+		ZipFile zipFile = new ZipFile(file);
+		try {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				addPackage(packages, entries.nextElement().getName());
+			}
+		}
+		finally {
+			zipFile.close();
+		}
+	}
+
+	private Set<String> getPackages(String archive) {
+		Set<String> packages = this.archives.get(archive);
+		if (packages == null) {
+			packages = new TreeSet<String>();
+			this.archives.put(archive, packages);
+		}
+		return packages;
+	}
+
+	private void addPackage(Set<String> packages, String name) {
+		if (name.endsWith(CLASS_SUFFIX)) {
+			int lastSlash = name.lastIndexOf('/');
+			packages.add(lastSlash == -1 ? ROOT : name.substring(0, lastSlash + 1));
+		}
+	}
+
+	/**
+	 * Write the index to the specified jar.
+	 * @param writer the jar writer
+	 * @throws IOException
+	 */
+	public void writeTo(JarWriter writer) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Writer output = new OutputStreamWriter(bytes, "UTF-8");
+		String separator = "";
+		for (Map.Entry<String, Set<String>> archive : this.archives.entrySet()) {
+			output.write(separator);
+			output.write(archive.getKey());
+			output.write("\n");
+			for (String name : archive.getValue()) {
+				output.write(name);
+				output.write("\n");
+			}
+			separator = "\n";
+		}
+		output.close();
+		writer.writeEntry(LOCATION, new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Evaluates the class-level {@code @ConditionalOnClass} conditions of the
+ * auto-configuration classes in an archive against the classes that are packaged with
+ * it. Auto-configuration classes that can never match are written as properties
+ * mapping the class name to the first required class that is missing, allowing them to
+ * be skipped at startup without being parsed.
+ *
+ * @author Phillip Webb
+ * @see Repackager#setPrecomputeConditions(boolean)
+ */
+class ConditionOutcomesWriter {
+
+	static final String LOCATION = "META-INF/spring-autoconfigure-outcomes.properties";
+
+	private static final String FACTORIES_LOCATION = "META-INF/spring.factories";
+
+	private static final String AUTO_CONFIGURATION_KEY = "org.springframework.boot.autoconfigure.EnableAutoConfiguration";
+
+	private static final String CONDITIONAL_ON_CLASS_DESCRIPTOR = "Lorg/springframework/boot/autoconfigure/condition/ConditionalOnClass;";
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	private final Map<String, File> classes = new HashMap<String, File>();
+
+	private final Set<String> candidates = new LinkedHashSet<String>();
+
+	private final ClassLoader platformClassLoader = ClassLoader.getSystemClassLoader()
+			.getParent();
+
+	/**
+	 * Add the classes and auto-configurations of a nested library.
+	 * @param file the library file
+	 * @throws IOException
+	 */
+	public void addLibrary(File file) throws IOException {
+		ZipFile zipFile = new ZipFile(file);
+		try {
+			addArchive(zipFile, "", file);
+		}
+		finally {
+			zipFile.close();
+		}
+	}
+
+	private void addArchive(ZipFile zipFile, String classesLocation, File file)
+			throws IOException {
+		Enumeration<? extends ZipEntry> entries = zipFile.entries();
+		while (entries.hasMoreElements()) {
+			String name = entries.nextElement().getName();
+			if (name.startsWith(classesLocation) && name.endsWith(CLASS_SUFFIX)) {
+				name = name.substring(classesLocation.length());
+				// Root classes come first on the class path, then libraries in order
+				if (file == null || !this.classes.containsKey(name)) {
+					this.classes.put(name, file);
+				}
+			}
+		}
+		ZipEntry factories = zipFile.getEntry(classesLocation + FACTORIES_LOCATION);
+		if (factories != null) {
+			Properties properties = new Properties();
+			InputStream inputStream = zipFile.getInputStream(factories);
+			try {
+				properties.load(inputStream);
+			}
+			finally {
+				inputStream.close();
+			}
+			String names = properties.getProperty(AUTO_CONFIGURATION_KEY);
+			for (String name : StringUtils.commaDelimitedListToStringArray(names)) {
+				this.candidates.add(name.trim());
+			}
+		}
+	}
+
+	/**
+	 * Evaluate the conditions and write the outcomes to the specified jar. Must be
+	 * called after all the libraries have been added.
+	 * @param root the root archive
+	 * @param classesLocation the location of the application classes in the root
+	 * archive (may be an empty string if they are in the root)
+	 * @param writer the jar writer
+	 * @throws IOException
+	 */
+	public void writeTo(ZipFile root, String classesLocation, JarWriter writer)
+			throws IOException {
+		addArchive(root, classesLocation, null);
+		Map<String, String> outcomes = new TreeMap<String, String>();
+		for (String candidate : this.candidates) {
+			byte[] bytes = getClassBytes(root, classesLocation, candidate);
+			if (bytes != null) {
+				ConditionalOnClassVisitor visitor = new ConditionalOnClassVisitor();
+				new ClassReader(bytes).accept(visitor, ClassReader.SKIP_CODE
+						| ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+				String missing = getMissingClass(visitor.getClassNames());
+				if (missing != null) {
+					outcomes.put(candidate, missing);
+				}
+			}
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Writer output = new OutputStreamWriter(bytes, "ISO-8859-1");
+		for (Map.Entry<String, String> outcome : outcomes.entrySet()) {
+			output.write(outcome.getKey() + "=" + outcome.getValue() + "\n");
+		}
+		output.close();
+		writer.writeEntry(LOCATION, new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	private byte[] getClassBytes(ZipFile root, String classesLocation, String className)
+			throws IOException {
+		String name = getClassEntryName(className);
+		if (!this.classes.containsKey(name)) {
+			return null;
+		}
+		File file = this.classes.get(name);
+		if (file == null) {
+			return getEntryBytes(root, classesLocation + name);
+		}
+		ZipFile zipFile = new ZipFile(file);
+		try {
+			return getEntryBytes(zipFile, name);
+		}
+		finally {
+			zipFile.close();
+		}
+	}
+
+	private byte[] getEntryBytes(ZipFile zipFile, String name) throws IOException {
+		return FileCopyUtils.copyToByteArray(zipFile.getInputStream(zipFile
+				.getEntry(name)));
+	}
+
+	private String getMissingClass(Set<String> classNames) {
+		for (String className : classNames) {
+			if (!isPresent(className)) {
+				return className;
+			}
+		}
+		return null;
+	}
+
+	private boolean isPresent(String className) {
+		String name = getClassEntryName(className);
+		return this.classes.containsKey(name)
+				|| this.platformClassLoader.getResource(name) != null;
+	}
+
+	private String getClassEntryName(String className) {
+		return className.replace(".", "/") + CLASS_SUFFIX;
+	}
+
+	/**
+	 * {@link ClassVisitor} to collect the class names of a class-level
+	 * {@code @ConditionalOnClass} annotation without loading any classes.
+	 */
+	private static class ConditionalOnClassVisitor extends ClassVisitor {
+
+		private final Set<String> classNames = new LinkedHashSet<String>();
+
+		public ConditionalOnClassVisitor() {
+			super(SpringAsmInfo.ASM_VERSION);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			if (!CONDITIONAL_ON_CLASS_DESCRIPTOR.equals(desc)) {
+				return null;
+			}
+			return new AnnotationVisitor(SpringAsmInfo.ASM_VERSION) {
+				@Override
+				public AnnotationVisitor visitArray(String name) {
+					return this;
+				}
+
+				@Override
+				public void visit(String name, Object value) {
+					ConditionalOnClassVisitor.this.classNames
+							.add(value instanceof Type ? ((Type) value).getClassName()
+									: value.toString());
+				}
+			};
+		}
+
+		public Set<String> getClassNames() {
+			return this.classNames;
+		}
+
+	}
+
+}
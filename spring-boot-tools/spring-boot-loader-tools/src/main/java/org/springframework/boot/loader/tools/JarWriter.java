@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
@@ -153,6 +154,14 @@ public class JarWriter {
 		inputStream.close();
 	}
 
+	/**
+	 * Returns the names of the entries that have been written.
+	 * @return the entry names
+	 */
+	Set<String> getWrittenEntries() {
+		return Collections.unmodifiableSet(this.writtenEntries);
+	}
+
 	/**
 	 * Close the writer.
 	 * @throws IOException
@@ -45,6 +45,10 @@ public class Repackager {
 
 	private boolean backupSource = true;
 
+	private boolean precomputeConditions;
+
+	private boolean writeClassPathIndex;
+
 	private final File source;
 
 	private Layout layout;
@@ -75,6 +79,27 @@ public class Repackager {
 		this.backupSource = backupSource;
 	}
 
+	/**
+	 * Sets if auto-configuration conditions that only depend on the classes in the
+	 * archive should be evaluated when repackaging. Auto-configuration classes that can
+	 * not match are then skipped at startup without being parsed. Should only be used
+	 * when the archive will be run with the same classes that it was packaged with.
+	 * @param precomputeConditions if conditions should be precomputed
+	 */
+	public void setPrecomputeConditions(boolean precomputeConditions) {
+		this.precomputeConditions = precomputeConditions;
+	}
+
+	/**
+	 * Sets if an index of the packages in each nested library should be written to
+	 * executable archives. The launcher uses the index to load classes without
+	 * searching every library. Defaults to {@code false}.
+	 * @param writeClassPathIndex if the class path index should be written
+	 */
+	public void setWriteClassPathIndex(boolean writeClassPathIndex) {
+		this.writeClassPathIndex = writeClassPathIndex;
+	}
+
 	/**
 	 * Sets the layout to use for the jar. Defaults to {@link Layouts#forFile(File)}.
 	 * @param layout the layout
@@ -156,6 +181,10 @@ public class Repackager {
 		final JarWriter writer = new JarWriter(destination);
 		try {
 			final Set<String> seen = new HashSet<String>();
+			final ClassPathIndexWriter index = (this.writeClassPathIndex
+					&& this.layout.isExecutable() ? new ClassPathIndexWriter() : null);
+			final ConditionOutcomesWriter outcomes = (this.precomputeConditions
+					&& this.layout.isExecutable() ? new ConditionOutcomesWriter() : null);
 			writer.writeManifest(buildManifest(sourceJar));
 			writer.writeEntries(sourceJar);
 			libraries.doWithLibraries(new LibraryCallback() {
@@ -172,6 +201,12 @@ public class Repackager {
 										+ library.getName());
 							}
 							writer.writeNestedLibrary(destination, library);
+							if (index != null) {
+								index.addLibrary(destination + library.getName(), file);
+							}
+							if (outcomes != null) {
+								outcomes.addLibrary(file);
+							}
 						}
 					}
 				}
@@ -179,6 +214,15 @@ public class Repackager {
 
 			if (this.layout.isExecutable()) {
 				writer.writeLoaderClasses();
+				if (index != null) {
+					index.addRoot(writer.getWrittenEntries(),
+							this.layout.getClassesLocation());
+					index.writeTo(writer);
+				}
+				if (outcomes != null) {
+					outcomes.writeTo(sourceJar, this.layout.getClassesLocation(),
+							writer);
+				}
 			}
 		}
 		finally {
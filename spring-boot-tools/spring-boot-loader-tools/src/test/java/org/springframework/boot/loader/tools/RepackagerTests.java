@@ -17,6 +17,7 @@
 package org.springframework.boot.loader.tools;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
@@ -29,11 +30,19 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
 import org.springframework.boot.loader.tools.sample.ClassWithMainMethod;
 import org.springframework.boot.loader.tools.sample.ClassWithoutMainMethod;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -299,6 +308,88 @@ public class RepackagerTests {
 		assertThat(entry.getComment().length(), equalTo(47));
 	}
 
+	@Test
+	public void classPathIndex() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		libJar.addClass("D.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("e/F.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setWriteClassPathIndex(true);
+		repackager.repackage(new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			}
+		});
+		String index = getContent(file, "META-INF/classpath.idx");
+		assertThat(index, startsWith("lib/" + libJarFile.getName() + "\n/\na/b/\n\n/\n"));
+		assertThat(index, containsString("\ne/\n"));
+		assertThat(index, containsString("\norg/springframework/boot/loader/\n"));
+	}
+
+	@Test
+	public void classPathIndexNotWrittenByDefault() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.repackage(NO_LIBRARIES);
+		assertThat(hasEntry(file, "META-INF/classpath.idx"), equalTo(false));
+	}
+
+	@Test
+	public void classPathIndexForWar() throws Exception {
+		this.testJarFile.addClass("WEB-INF/classes/a/b/C.class",
+				ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setLayout(new Layouts.War());
+		repackager.setWriteClassPathIndex(true);
+		repackager.repackage(NO_LIBRARIES);
+		String index = getContent(file, "META-INF/classpath.idx");
+		assertThat(index, endsWith("\n\nWEB-INF/classes\na/b/\n"));
+		assertThat(index, containsString("\nWEB-INF/classes/a/b/\n"));
+	}
+
+	@Test
+	public void precomputeConditions() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		libJar.addFile("com/example/MissingAutoConfiguration.class",
+				createAutoConfiguration("com/example/MissingAutoConfiguration",
+						"a/b/C", "com/example/Absent"));
+		libJar.addFile("com/example/PresentAutoConfiguration.class",
+				createAutoConfiguration("com/example/PresentAutoConfiguration",
+						"a/b/C", "java/lang/String"));
+		libJar.addFile("META-INF/spring.factories", createFactories(
+				"com.example.MissingAutoConfiguration",
+				"com.example.PresentAutoConfiguration"));
+		final File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.setPrecomputeConditions(true);
+		repackager.repackage(new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(new Library(libJarFile, LibraryScope.COMPILE));
+			}
+		});
+		assertThat(getContent(file, "META-INF/spring-autoconfigure-outcomes.properties"),
+				equalTo("com.example.MissingAutoConfiguration=com.example.Absent\n"));
+	}
+
+	@Test
+	public void conditionsNotPrecomputedByDefault() throws Exception {
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		new Repackager(file).repackage(NO_LIBRARIES);
+		assertThat(getEntry(file, "META-INF/spring-autoconfigure-outcomes.properties"),
+				nullValue());
+	}
+
 	@Test
 	public void duplicateLibraries() throws Exception {
 		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
@@ -410,6 +501,45 @@ public class RepackagerTests {
 		}
 	}
 
+	private File createAutoConfiguration(String name, String... requiredClasses)
+			throws IOException {
+		ClassWriter classWriter = new ClassWriter(0);
+		classWriter.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null,
+				"java/lang/Object", null);
+		AnnotationVisitor annotation = classWriter.visitAnnotation(
+				"Lorg/springframework/boot/autoconfigure/condition/ConditionalOnClass;",
+				true);
+		AnnotationVisitor value = annotation.visitArray("value");
+		for (String requiredClass : requiredClasses) {
+			value.visit(null, Type.getObjectType(requiredClass));
+		}
+		value.visitEnd();
+		annotation.visitEnd();
+		classWriter.visitEnd();
+		File file = this.temporaryFolder.newFile();
+		FileCopyUtils.copy(classWriter.toByteArray(), file);
+		return file;
+	}
+
+	private File createFactories(String... autoConfigurations) throws IOException {
+		File file = this.temporaryFolder.newFile();
+		FileCopyUtils.copy("org.springframework.boot.autoconfigure.EnableAutoConfiguration="
+				+ StringUtils.arrayToCommaDelimitedString(autoConfigurations), new FileWriter(
+				file));
+		return file;
+	}
+
+	private String getContent(File file, String name) throws IOException {
+		JarFile jarFile = new JarFile(file);
+		try {
+			return new String(FileCopyUtils.copyToByteArray(jarFile.getInputStream(jarFile
+					.getEntry(name))), "UTF-8");
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
 	private Manifest getManifest(File file) throws IOException {
 		JarFile jarFile = new JarFile(file);
 		try {
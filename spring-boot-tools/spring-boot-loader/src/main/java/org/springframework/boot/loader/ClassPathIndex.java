@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.loader.archive.Archive;
+
+/**
+ * Index of the packages that each class path archive contains classes for. The index is
+ * written to {@value #LOCATION} by the build tooling and allows the
+ * {@link LaunchedURLClassLoader} to go straight to the archives that can contain a class
+ * rather than searching all of its URLs in turn.
+ *
+ * @author Phillip Webb
+ * @see LaunchedURLClassLoader
+ */
+public class ClassPathIndex {
+
+	/**
+	 * The location of the index within the root archive.
+	 */
+	public static final String LOCATION = "META-INF/classpath.idx";
+
+	private static final String ROOT = "/";
+
+	private static final String NESTED_SEPARATOR = "!/";
+
+	private static final int[] NONE = {};
+
+	private final Map<String, int[]> positions;
+
+	ClassPathIndex(Map<String, int[]> positions) {
+		this.positions = positions;
+	}
+
+	/**
+	 * Returns the positions of the class path URLs that contain classes in the specified
+	 * package.
+	 * @param packageName the package name (an empty string for the default package)
+	 * @return the positions of the URLs in class path order, never {@code null}
+	 */
+	public int[] getPositions(String packageName) {
+		int[] positions = this.positions.get(packageName);
+		return (positions == null ? NONE : positions);
+	}
+
+	/**
+	 * Load the index of the specified root archive for the given class path.
+	 * @param archive the root archive
+	 * @param urls the class path URLs
+	 * @return the index or {@code null} if the archive has no index or if it does not
+	 * cover all of the URLs
+	 * @throws IOException
+	 */
+	public static ClassPathIndex load(Archive archive, URL[] urls) throws IOException {
+		String root = archive.getUrl().toString();
+		Map<String, Integer> archives = new HashMap<String, Integer>();
+		for (int i = 0; i < urls.length; i++) {
+			String name = getArchiveName(root, urls[i]);
+			if (name == null) {
+				return null;
+			}
+			archives.put(name, i);
+		}
+		InputStream inputStream;
+		try {
+			inputStream = new URL(archive.getUrl(), LOCATION).openStream();
+		}
+		catch (FileNotFoundException ex) {
+			return null;
+		}
+		try {
+			return load(inputStream, archives);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private static String getArchiveName(String root, URL url) {
+		String name = url.toString();
+		if (!"jar".equals(url.getProtocol()) || !name.startsWith(root)) {
+			return null;
+		}
+		if (name.length() == root.length()) {
+			return ROOT;
+		}
+		if (!name.endsWith(NESTED_SEPARATOR)) {
+			return null;
+		}
+		return name.substring(root.length(), name.length() - NESTED_SEPARATOR.length());
+	}
+
+	private static ClassPathIndex load(InputStream inputStream,
+			Map<String, Integer> archives) throws IOException {
+		Map<String, List<Integer>> packages = new HashMap<String, List<Integer>>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream,
+				"UTF-8"));
+		Integer position = null;
+		boolean archiveLine = true;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.length() == 0) {
+				archiveLine = true;
+			}
+			else if (archiveLine) {
+				position = archives.remove(line);
+				archiveLine = false;
+			}
+			else if (position != null) {
+				String packageName = getPackageName(line);
+				List<Integer> positions = packages.get(packageName);
+				if (positions == null) {
+					positions = new ArrayList<Integer>(1);
+					packages.put(packageName, positions);
+				}
+				positions.add(position);
+			}
+		}
+		if (!archives.isEmpty()) {
+			return null;
+		}
+		Map<String, int[]> index = new HashMap<String, int[]>(packages.size() * 2);
+		for (Map.Entry<String, List<Integer>> entry : packages.entrySet()) {
+			List<Integer> positions = entry.getValue();
+			Collections.sort(positions);
+			int[] sorted = new int[positions.size()];
+			for (int i = 0; i < sorted.length; i++) {
+				sorted[i] = positions.get(i);
+			}
+			index.put(entry.getKey(), sorted);
+		}
+		return new ClassPathIndex(index);
+	}
+
+	private static String getPackageName(String folder) {
+		if (ROOT.equals(folder)) {
+			return "";
+		}
+		return folder.substring(0, folder.length() - 1).replace('/', '.');
+	}
+
+}
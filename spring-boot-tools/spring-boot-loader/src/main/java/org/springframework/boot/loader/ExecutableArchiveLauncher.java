@@ -22,7 +22,10 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.jar.JarEntry;
+import java.util.logging.Level;
 
 import org.springframework.boot.loader.archive.Archive;
 import org.springframework.boot.loader.archive.Archive.Entry;
@@ -36,6 +39,20 @@ import org.springframework.boot.loader.archive.Archive.EntryFilter;
  */
 public abstract class ExecutableArchiveLauncher extends Launcher {
 
+	/**
+	 * System property key for the number of threads used to open nested archives. Use
+	 * {@code true} for one thread per available processor. By default nested archives are
+	 * opened one after another on the main thread.
+	 */
+	public static final String PARALLEL = "loader.parallel";
+
+	/**
+	 * System property key used to turn off the {@link ClassPathIndex}. Set to
+	 * {@code false} to search every nested archive for classes even if the archive has
+	 * an index.
+	 */
+	public static final String INDEX = "loader.index";
+
 	private final Archive archive;
 
 	private final JavaAgentDetector javaAgentDetector;
@@ -70,17 +87,54 @@ public abstract class ExecutableArchiveLauncher extends Launcher {
 
 	@Override
 	protected List<Archive> getClassPathArchives() throws Exception {
-		List<Archive> archives = new ArrayList<Archive>(
-				this.archive.getNestedArchives(new EntryFilter() {
-					@Override
-					public boolean matches(Entry entry) {
-						return isNestedArchive(entry);
-					}
-				}));
+		EntryFilter filter = new EntryFilter() {
+			@Override
+			public boolean matches(Entry entry) {
+				return isNestedArchive(entry);
+			}
+		};
+		long start = System.currentTimeMillis();
+		int threads = getParallelism();
+		List<Archive> archives;
+		if (threads > 1) {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				archives = new ArrayList<Archive>(this.archive.getNestedArchives(filter,
+						executor));
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
+		else {
+			archives = new ArrayList<Archive>(this.archive.getNestedArchives(filter));
+		}
+		this.logger.log(threads > 1 ? Level.INFO : Level.FINE, "Opened "
+				+ archives.size() + " nested archives in "
+				+ (System.currentTimeMillis() - start) + "ms using "
+				+ Math.max(threads, 1) + " thread(s)");
 		postProcessClassPathArchives(archives);
 		return archives;
 	}
 
+	private int getParallelism() {
+		String parallel = System.getProperty(PARALLEL);
+		if (parallel == null || "false".equals(parallel)) {
+			return 0;
+		}
+		if ("true".equals(parallel)) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		try {
+			return Integer.parseInt(parallel.trim());
+		}
+		catch (NumberFormatException ex) {
+			this.logger.warning("Ignoring invalid " + PARALLEL + " value '" + parallel
+					+ "'");
+			return 0;
+		}
+	}
+
 	@Override
 	protected ClassLoader createClassLoader(URL[] urls) throws Exception {
 		Set<URL> copy = new LinkedHashSet<URL>(urls.length);
@@ -95,7 +149,19 @@ public abstract class ExecutableArchiveLauncher extends Launcher {
 		for (URL url : urls) {
 			copy.add(url);
 		}
-		return super.createClassLoader(copy.toArray(new URL[copy.size()]));
+		URL[] classPath = copy.toArray(new URL[copy.size()]);
+		ClassPathIndex index = (isIndexEnabled() ? ClassPathIndex.load(this.archive,
+				classPath) : null);
+		if (index != null) {
+			this.logger.fine("Using class path index of " + this.archive);
+			return new LaunchedURLClassLoader(classPath, getClass().getClassLoader(),
+					index);
+		}
+		return super.createClassLoader(classPath);
+	}
+
+	private boolean isIndexEnabled() {
+		return !"false".equals(System.getProperty(INDEX));
 	}
 
 	private boolean addDefaultClassloaderUrl(URL[] urls, URL url) {
@@ -17,19 +17,30 @@
 package org.springframework.boot.loader;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.security.AccessController;
+import java.security.CodeSource;
+import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.Manifest;
 
 import org.springframework.boot.loader.jar.Handler;
 import org.springframework.boot.loader.jar.JarFile;
+import org.springframework.boot.loader.util.AsciiBytes;
 
 /**
- * {@link ClassLoader} used by the {@link Launcher}.
+ * {@link ClassLoader} used by the {@link Launcher}. If a {@link ClassPathIndex} is
+ * provided classes are loaded directly from the nested jars that the index lists for
+ * their package, rather than searching each URL in turn. Classes that are not found
+ * that way are searched for in all of the URLs.
  *
  * @author Phillip Webb
  * @author Dave Syer
@@ -38,16 +49,38 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 
 	private static LockProvider LOCK_PROVIDER = setupLockProvider();
 
+	private static final String CLASS_SUFFIX = ".class";
+
 	private final ClassLoader rootClassLoader;
 
+	private final URL[] urls;
+
+	private final ClassPathIndex index;
+
+	private final AtomicReferenceArray<JarFile> jarFiles;
+
 	/**
 	 * Create a new {@link LaunchedURLClassLoader} instance.
 	 * @param urls the URLs from which to load classes and resources
 	 * @param parent the parent class loader for delegation
 	 */
 	public LaunchedURLClassLoader(URL[] urls, ClassLoader parent) {
+		this(urls, parent, null);
+	}
+
+	/**
+	 * Create a new {@link LaunchedURLClassLoader} instance.
+	 * @param urls the URLs from which to load classes and resources
+	 * @param parent the parent class loader for delegation
+	 * @param index an index of the packages contained in each of the URLs or
+	 * {@code null}
+	 */
+	public LaunchedURLClassLoader(URL[] urls, ClassLoader parent, ClassPathIndex index) {
 		super(urls, parent);
 		this.rootClassLoader = findRootClassLoader(parent);
+		this.urls = urls.clone();
+		this.index = index;
+		this.jarFiles = new AtomicReferenceArray<JarFile>(urls.length);
 	}
 
 	private ClassLoader findRootClassLoader(ClassLoader classLoader) {
@@ -75,11 +108,17 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 			if (name.equals("") && hasURLs()) {
 				return getURLs()[0];
 			}
+			if (this.index != null && name.endsWith(CLASS_SUFFIX)) {
+				return findIndexedResource(name);
+			}
 			return super.findResource(name);
 		}
 		catch (IllegalArgumentException ex) {
 			return null;
 		}
+		catch (IOException ex) {
+			return null;
+		}
 	}
 
 	@Override
@@ -90,6 +129,22 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 		return super.findResources(name);
 	}
 
+	private URL findIndexedResource(String name) throws IOException {
+		int lastSlash = name.lastIndexOf('/');
+		String packageName = (lastSlash == -1 ? "" : name.substring(0, lastSlash)
+				.replace('/', '.'));
+		for (int position : this.index.getPositions(packageName)) {
+			JarFile jarFile = getJarFile(position);
+			if (jarFile == null) {
+				return super.findResource(name);
+			}
+			if (jarFile.getJarEntryData(name) != null) {
+				return new URL(this.urls[position], name);
+			}
+		}
+		return super.findResource(name);
+	}
+
 	private boolean hasURLs() {
 		return getURLs().length > 0;
 	}
@@ -170,9 +225,153 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 		return super.loadClass(name, false);
 	}
 
+	@Override
+	protected Class<?> findClass(final String name) throws ClassNotFoundException {
+		if (this.index == null) {
+			return super.findClass(name);
+		}
+		try {
+			return AccessController.doPrivileged(
+					new PrivilegedExceptionAction<Class<?>>() {
+						@Override
+						public Class<?> run() throws ClassNotFoundException,
+								IOException {
+							return findIndexedClass(name);
+						}
+					}, AccessController.getContext());
+		}
+		catch (PrivilegedActionException ex) {
+			if (ex.getException() instanceof ClassNotFoundException) {
+				throw (ClassNotFoundException) ex.getException();
+			}
+			throw new ClassNotFoundException(name, ex.getException());
+		}
+	}
+
+	private Class<?> findIndexedClass(String name) throws ClassNotFoundException,
+			IOException {
+		String path = name.replace('.', '/').concat(CLASS_SUFFIX);
+		int lastDot = name.lastIndexOf('.');
+		String packageName = (lastDot == -1 ? "" : name.substring(0, lastDot));
+		for (int position : this.index.getPositions(packageName)) {
+			JarFile jarFile = getJarFile(position);
+			if (jarFile == null) {
+				return super.findClass(name);
+			}
+			JarEntry entry = jarFile.getJarEntry(path);
+			if (entry != null) {
+				return defineClass(name, packageName, this.urls[position], jarFile,
+						entry);
+			}
+		}
+		return super.findClass(name);
+	}
+
+	private Class<?> defineClass(String name, String packageName, URL url,
+			JarFile jarFile, JarEntry entry) throws IOException {
+		if (packageName.length() > 0) {
+			definePackageIfNecessary(packageName, jarFile.getManifest(), url);
+		}
+		byte[] bytes = readEntry(jarFile, entry);
+		CodeSource codeSource = new CodeSource(url, entry.getCodeSigners());
+		return defineClass(name, bytes, 0, bytes.length, codeSource);
+	}
+
+	/**
+	 * Define the package of a class that is about to be loaded from the given URL or,
+	 * if it has already been defined, check that loading the class does not violate its
+	 * sealing (in the same way as {@link URLClassLoader}).
+	 */
+	private void definePackageIfNecessary(String packageName, Manifest manifest, URL url) {
+		Package pkg = getPackage(packageName);
+		if (pkg == null) {
+			try {
+				if (manifest != null) {
+					definePackage(packageName, manifest, url);
+				}
+				else {
+					definePackage(packageName, null, null, null, null, null, null, null);
+				}
+				return;
+			}
+			catch (IllegalArgumentException ex) {
+				// Defined concurrently by another thread so verify it instead
+				pkg = getPackage(packageName);
+				if (pkg == null) {
+					throw new IllegalStateException("Package " + packageName
+							+ " has already been defined but could not be found", ex);
+				}
+			}
+		}
+		if (pkg.isSealed()) {
+			if (!pkg.isSealed(url)) {
+				throw new SecurityException("sealing violation: package "
+						+ packageName + " is sealed");
+			}
+		}
+		else if (manifest != null && isSealed(packageName, manifest)) {
+			throw new SecurityException("sealing violation: can't seal package "
+					+ packageName + ": already loaded");
+		}
+	}
+
+	private boolean isSealed(String packageName, Manifest manifest) {
+		String path = packageName.replace('.', '/').concat("/");
+		Attributes attributes = manifest.getAttributes(path);
+		String sealed = (attributes == null ? null : attributes
+				.getValue(Attributes.Name.SEALED));
+		if (sealed == null) {
+			attributes = manifest.getMainAttributes();
+			sealed = (attributes == null ? null : attributes
+					.getValue(Attributes.Name.SEALED));
+		}
+		return "true".equalsIgnoreCase(sealed);
+	}
+
+	private byte[] readEntry(JarFile jarFile, JarEntry entry) throws IOException {
+		byte[] bytes = new byte[(int) entry.getSize()];
+		InputStream inputStream = jarFile.getInputStream(entry);
+		try {
+			int offset = 0;
+			while (offset < bytes.length) {
+				int read = inputStream.read(bytes, offset, bytes.length - offset);
+				if (read == -1) {
+					throw new IOException("Unexpected end of " + entry.getName());
+				}
+				offset += read;
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Return the {@link JarFile} for the URL at the specified position.
+	 * @param position the position of the URL
+	 * @return the jar file or {@code null} if the URL is not a jar
+	 * @throws IOException
+	 */
+	private JarFile getJarFile(int position) throws IOException {
+		JarFile jarFile = this.jarFiles.get(position);
+		if (jarFile == null) {
+			if (!"jar".equals(this.urls[position].getProtocol())) {
+				return null;
+			}
+			Object content = this.urls[position].getContent();
+			if (!(content instanceof JarFile)) {
+				return null;
+			}
+			jarFile = (JarFile) content;
+			this.jarFiles.set(position, jarFile);
+		}
+		return jarFile;
+	}
+
 	private void findPackage(final String name) throws ClassNotFoundException {
 		int lastDot = name.lastIndexOf('.');
-		if (lastDot != -1) {
+		if (lastDot != -1 && this.index == null) {
 			String packageName = name.substring(0, lastDot);
 			if (getPackage(packageName) == null) {
 				try {
@@ -188,6 +387,8 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 	/**
 	 * Define a package before a {@code findClass} call is made. This is necessary to
 	 * ensure that the appropriate manifest for nested JARs associated with the package.
+	 * The package is defined from the first nested jar that contains the class, found
+	 * using the entry name index of each jar.
 	 * @param name the class name being found
 	 * @param packageName the package
 	 */
@@ -195,24 +396,18 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 		try {
 			AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
 				@Override
-				public Object run() throws ClassNotFoundException {
-					String path = name.replace('.', '/').concat(".class");
-					for (URL url : getURLs()) {
-						try {
-							if (url.getContent() instanceof JarFile) {
-								JarFile jarFile = (JarFile) url.getContent();
-								// Check the jar entry data before needlessly creating the
-								// manifest
-								if (jarFile.getJarEntryData(path) != null
-										&& jarFile.getManifest() != null) {
-									definePackage(packageName, jarFile.getManifest(), url);
-									return null;
-								}
-
+				public Object run() throws IOException {
+					AsciiBytes path = new AsciiBytes(name.replace('.', '/').concat(
+							CLASS_SUFFIX));
+					URL[] urls = LaunchedURLClassLoader.this.urls;
+					for (int position = 0; position < urls.length; position++) {
+						JarFile jarFile = getJarFile(position);
+						if (jarFile != null && jarFile.getJarEntryData(path) != null) {
+							Manifest manifest = jarFile.getManifest();
+							if (manifest != null) {
+								definePackage(packageName, manifest, urls[position]);
 							}
-						}
-						catch (IOException ex) {
-							// Ignore
+							return null;
 						}
 					}
 					return null;
@@ -21,6 +21,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.jar.Manifest;
 
 import org.springframework.boot.loader.Launcher;
@@ -92,6 +93,20 @@ public abstract class Archive {
 	public abstract List<Archive> getNestedArchives(EntryFilter filter)
 			throws IOException;
 
+	/**
+	 * Returns nested {@link Archive}s for entries that match the specified filter, using
+	 * the given executor to open them. The archives are returned in the same order as
+	 * {@link #getNestedArchives(EntryFilter)}. By default the executor is not used.
+	 * @param filter the filter used to limit entries
+	 * @param executor the executor used to open the archives
+	 * @return nested archives
+	 * @throws IOException
+	 */
+	public List<Archive> getNestedArchives(EntryFilter filter, ExecutorService executor)
+			throws IOException {
+		return getNestedArchives(filter);
+	}
+
 	/**
 	 * Returns a filtered version of the archive.
 	 * @param filter the filter to apply
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.jar.Manifest;
 
 import org.springframework.boot.loader.util.AsciiBytes;
@@ -71,13 +72,23 @@ public class FilteredArchive extends Archive {
 
 	@Override
 	public List<Archive> getNestedArchives(final EntryFilter filter) throws IOException {
-		return this.parent.getNestedArchives(new EntryFilter() {
+		return this.parent.getNestedArchives(getNestedFilter(filter));
+	}
+
+	@Override
+	public List<Archive> getNestedArchives(EntryFilter filter, ExecutorService executor)
+			throws IOException {
+		return this.parent.getNestedArchives(getNestedFilter(filter), executor);
+	}
+
+	private EntryFilter getNestedFilter(final EntryFilter filter) {
+		return new EntryFilter() {
 			@Override
 			public boolean matches(Entry entry) {
 				return FilteredArchive.this.filter.matches(entry)
 						&& filter.matches(entry);
 			}
-		});
+		};
 	}
 
 	@Override
@@ -27,6 +27,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.Manifest;
 
@@ -95,6 +99,46 @@ public class JarFileArchive extends Archive {
 		return Collections.unmodifiableList(nestedArchives);
 	}
 
+	@Override
+	public List<Archive> getNestedArchives(EntryFilter filter, ExecutorService executor)
+			throws IOException {
+		List<Future<Archive>> futures = new ArrayList<Future<Archive>>();
+		for (final Entry entry : getEntries()) {
+			if (filter.matches(entry)) {
+				futures.add(executor.submit(new Callable<Archive>() {
+					@Override
+					public Archive call() throws IOException {
+						return getNestedArchive(entry);
+					}
+				}));
+			}
+		}
+		List<Archive> nestedArchives = new ArrayList<Archive>(futures.size());
+		for (Future<Archive> future : futures) {
+			nestedArchives.add(getNestedArchive(future));
+		}
+		return Collections.unmodifiableList(nestedArchives);
+	}
+
+	private Archive getNestedArchive(Future<Archive> future) throws IOException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while opening nested archives");
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
 	@Override
 	public Collection<Entry> getEntries() {
 		return Collections.unmodifiableCollection(this.entries);
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link RandomAccessData} implementation backed by a {@link ByteBuffer}, typically a
+ * memory mapped region of a file (see {@link RandomAccessDataFile#map()}).
+ *
+ * @author Phillip Webb
+ */
+public class ByteBufferRandomAccessData implements RandomAccessData {
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Create a new {@link ByteBufferRandomAccessData} for the remaining content of the
+	 * specified buffer. NOTE: the content of the buffer is not expected to change.
+	 * @param buffer the source buffer
+	 */
+	public ByteBufferRandomAccessData(ByteBuffer buffer) {
+		if (buffer == null) {
+			throw new IllegalArgumentException("Buffer must not be null");
+		}
+		this.buffer = buffer.slice();
+	}
+
+	/**
+	 * Return a new read-only view of the underlying buffer, positioned at the start of
+	 * the data. The byte order of the returned buffer is always big endian.
+	 * @return the buffer
+	 */
+	public ByteBuffer getByteBuffer() {
+		return this.buffer.asReadOnlyBuffer();
+	}
+
+	@Override
+	public InputStream getInputStream(ResourceAccess access) throws IOException {
+		return new ByteBufferInputStream(this.buffer.duplicate());
+	}
+
+	@Override
+	public RandomAccessData getSubsection(long offset, long length) {
+		if (offset < 0 || length < 0 || offset + length > getSize()) {
+			throw new IndexOutOfBoundsException();
+		}
+		ByteBuffer subsection = this.buffer.duplicate();
+		subsection.position((int) offset);
+		subsection.limit((int) (offset + length));
+		return new ByteBufferRandomAccessData(subsection);
+	}
+
+	@Override
+	public long getSize() {
+		return this.buffer.limit();
+	}
+
+	/**
+	 * {@link InputStream} that reads from a {@link ByteBuffer}.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (b == null) {
+				throw new NullPointerException("Bytes must not be null");
+			}
+			if (len == 0) {
+				return 0;
+			}
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, len);
+			return len;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (n <= 0) {
+				return 0;
+			}
+			int skipped = (int) Math.min(n, this.buffer.remaining());
+			this.buffer.position(this.buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return this.buffer.remaining();
+		}
+
+	}
+
+}
@@ -20,22 +20,25 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Semaphore;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 
 /**
- * {@link RandomAccessData} implementation backed by a {@link RandomAccessFile}.
+ * {@link RandomAccessData} implementation backed by a {@link RandomAccessFile}. Reads
+ * use positional {@link FileChannel} I/O on a single shared channel, so any number of
+ * threads can read concurrently without locking.
  *
  * @author Phillip Webb
  */
 public class RandomAccessDataFile implements RandomAccessData {
 
-	private static final int DEFAULT_CONCURRENT_READS = 4;
-
 	private final File file;
 
-	private final FilePool filePool;
+	private final FileAccess fileAccess;
 
 	private final long offset;
 
@@ -45,21 +48,8 @@ public class RandomAccessDataFile implements RandomAccessData {
 	 * Create a new {@link RandomAccessDataFile} backed by the specified file.
 	 * @param file the underlying file
 	 * @throws IllegalArgumentException if the file is null or does not exist
-	 * @see #RandomAccessDataFile(File, int)
 	 */
 	public RandomAccessDataFile(File file) {
-		this(file, DEFAULT_CONCURRENT_READS);
-	}
-
-	/**
-	 * Create a new {@link RandomAccessDataFile} backed by the specified file.
-	 * @param file the underlying file
-	 * @param concurrentReads the maximum number of concurrent reads allowed on the
-	 * underlying file before blocking
-	 * @throws IllegalArgumentException if the file is null or does not exist
-	 * @see #RandomAccessDataFile(File)
-	 */
-	public RandomAccessDataFile(File file, int concurrentReads) {
 		if (file == null) {
 			throw new IllegalArgumentException("File must not be null");
 		}
@@ -67,20 +57,33 @@ public class RandomAccessDataFile implements RandomAccessData {
 			throw new IllegalArgumentException("File must exist");
 		}
 		this.file = file;
-		this.filePool = new FilePool(concurrentReads);
+		this.fileAccess = new FileAccess(file);
 		this.offset = 0L;
 		this.length = file.length();
 	}
 
+	/**
+	 * Create a new {@link RandomAccessDataFile} backed by the specified file.
+	 * @param file the underlying file
+	 * @param concurrentReads ignored, concurrent reads are no longer limited
+	 * @throws IllegalArgumentException if the file is null or does not exist
+	 * @deprecated since reads no longer block, use {@link #RandomAccessDataFile(File)}
+	 */
+	@Deprecated
+	public RandomAccessDataFile(File file, int concurrentReads) {
+		this(file);
+	}
+
 	/**
 	 * Private constructor used to create a {@link #getSubsection(long, long) subsection}.
-	 * @param pool the underlying pool
+	 * @param fileAccess the underlying file access
 	 * @param offset the offset of the section
 	 * @param length the length of the section
 	 */
-	private RandomAccessDataFile(File file, FilePool pool, long offset, long length) {
+	private RandomAccessDataFile(File file, FileAccess fileAccess, long offset,
+			long length) {
 		this.file = file;
-		this.filePool = pool;
+		this.fileAccess = fileAccess;
 		this.offset = offset;
 		this.length = length;
 	}
@@ -93,9 +96,17 @@ public class RandomAccessDataFile implements RandomAccessData {
 		return this.file;
 	}
 
+	/**
+	 * Returns the offset of this data within the underlying file.
+	 * @return the offset within {@link #getFile()}
+	 */
+	public long getFileOffset() {
+		return this.offset;
+	}
+
 	@Override
 	public InputStream getInputStream(ResourceAccess access) throws IOException {
-		return new DataInputStream(access);
+		return new DataInputStream();
 	}
 
 	@Override
@@ -103,7 +114,7 @@ public class RandomAccessDataFile implements RandomAccessData {
 		if (offset < 0 || length < 0 || offset + length > this.length) {
 			throw new IndexOutOfBoundsException();
 		}
-		return new RandomAccessDataFile(this.file, this.filePool, this.offset + offset,
+		return new RandomAccessDataFile(this.file, this.fileAccess, this.offset + offset,
 				length);
 	}
 
@@ -112,8 +123,27 @@ public class RandomAccessDataFile implements RandomAccessData {
 		return this.length;
 	}
 
+	/**
+	 * Map this data into memory. The mapping remains valid after this file is closed.
+	 * Best suited to large sections that are read repeatedly, for example the central
+	 * directory of a jar with many entries.
+	 * @return a {@link ByteBufferRandomAccessData} for the mapped data
+	 * @throws IOException if the data cannot be mapped
+	 */
+	public ByteBufferRandomAccessData map() throws IOException {
+		RandomAccessFile file = new RandomAccessFile(this.file, "r");
+		try {
+			MappedByteBuffer buffer = file.getChannel().map(MapMode.READ_ONLY,
+					this.offset, this.length);
+			return new ByteBufferRandomAccessData(buffer);
+		}
+		finally {
+			file.close();
+		}
+	}
+
 	public void close() throws IOException {
-		this.filePool.close();
+		this.fileAccess.close();
 	}
 
 	/**
@@ -122,20 +152,14 @@ public class RandomAccessDataFile implements RandomAccessData {
 	 */
 	private class DataInputStream extends InputStream {
 
-		private RandomAccessFile file;
+		private final byte[] single = new byte[1];
 
 		private int position;
 
-		public DataInputStream(ResourceAccess access) throws IOException {
-			if (access == ResourceAccess.ONCE) {
-				this.file = new RandomAccessFile(RandomAccessDataFile.this.file, "r");
-				this.file.seek(RandomAccessDataFile.this.offset);
-			}
-		}
-
 		@Override
 		public int read() throws IOException {
-			return doRead(null, 0, 1);
+			int read = doRead(this.single, 0, 1);
+			return (read <= 0 ? -1 : this.single[0] & 0xFF);
 		}
 
 		@Override
@@ -153,11 +177,11 @@ public class RandomAccessDataFile implements RandomAccessData {
 
 		/**
 		 * Perform the actual read.
-		 * @param b the bytes to read or {@code null} when reading a single byte
+		 * @param b the bytes to read into
 		 * @param off the offset of the byte array
 		 * @param len the length of data to read
-		 * @return the number of bytes read into {@code b} or the actual read byte if
-		 * {@code b} is {@code null}. Returns -1 when the end of the stream is reached
+		 * @return the number of bytes read into {@code b}. Returns -1 when the end of the
+		 * stream is reached
 		 * @throws IOException
 		 */
 		public int doRead(byte[] b, int off, int len) throws IOException {
@@ -168,26 +192,9 @@ public class RandomAccessDataFile implements RandomAccessData {
 			if (cappedLen <= 0) {
 				return -1;
 			}
-			RandomAccessFile file = this.file;
-			if (file == null) {
-				file = RandomAccessDataFile.this.filePool.acquire();
-				file.seek(RandomAccessDataFile.this.offset + this.position);
-			}
-			try {
-				if (b == null) {
-					int rtn = file.read();
-					moveOn(rtn == -1 ? 0 : 1);
-					return rtn;
-				}
-				else {
-					return (int) moveOn(file.read(b, off, cappedLen));
-				}
-			}
-			finally {
-				if (this.file == null) {
-					RandomAccessDataFile.this.filePool.release(file);
-				}
-			}
+			int read = RandomAccessDataFile.this.fileAccess.read(b, off, cappedLen,
+					RandomAccessDataFile.this.offset + this.position);
+			return (int) moveOn(read);
 		}
 
 		@Override
@@ -195,13 +202,6 @@ public class RandomAccessDataFile implements RandomAccessData {
 			return (n <= 0 ? 0 : moveOn(cap(n)));
 		}
 
-		@Override
-		public void close() throws IOException {
-			if (this.file != null) {
-				this.file.close();
-			}
-		}
-
 		/**
 		 * Cap the specified value such that it cannot exceed the number of bytes
 		 * remaining.
@@ -225,57 +225,70 @@ public class RandomAccessDataFile implements RandomAccessData {
 	}
 
 	/**
-	 * Manage a pool that can be used to perform concurrent reads on the underlying
-	 * {@link RandomAccessFile}.
+	 * Shared access to the underlying file. Reads use positional {@link FileChannel} I/O
+	 * which is thread safe and does not need a seek. A channel is closed if a thread is
+	 * interrupted while reading from it, in which case a new one is opened for other
+	 * readers and the interrupted thread falls back to a plain {@link RandomAccessFile}.
+	 * The channel is also reopened on demand if the file is read after being closed.
 	 */
-	private class FilePool {
+	private static class FileAccess {
 
-		private final int size;
+		private final File file;
 
-		private final Semaphore available;
+		private volatile FileChannel channel;
 
-		private final Queue<RandomAccessFile> files;
+		private RandomAccessFile uninterruptibleFile;
 
-		public FilePool(int size) {
-			this.size = size;
-			this.available = new Semaphore(size);
-			this.files = new ConcurrentLinkedQueue<RandomAccessFile>();
+		public FileAccess(File file) {
+			this.file = file;
 		}
 
-		@SuppressWarnings("resource")
-		public RandomAccessFile acquire() throws IOException {
+		public int read(byte[] b, int off, int len, long position) throws IOException {
+			if (Thread.currentThread().isInterrupted()) {
+				return readUninterruptibly(b, off, len, position);
+			}
+			FileChannel channel = getChannel();
 			try {
-				this.available.acquire();
-				RandomAccessFile file = this.files.poll();
-				return (file == null ? new RandomAccessFile(
-						RandomAccessDataFile.this.file, "r") : file);
+				return channel.read(ByteBuffer.wrap(b, off, len), position);
+			}
+			catch (ClosedByInterruptException ex) {
+				return readUninterruptibly(b, off, len, position);
 			}
-			catch (InterruptedException ex) {
-				throw new IOException(ex);
+			catch (ClosedChannelException ex) {
+				// Closed by another thread (interrupted or calling close), try again
+				return getChannel().read(ByteBuffer.wrap(b, off, len), position);
 			}
 		}
 
-		public void release(RandomAccessFile file) {
-			this.files.add(file);
-			this.available.release();
+		private FileChannel getChannel() throws IOException {
+			FileChannel channel = this.channel;
+			if (channel != null && channel.isOpen()) {
+				return channel;
+			}
+			synchronized (this) {
+				if (this.channel == null || !this.channel.isOpen()) {
+					this.channel = new RandomAccessFile(this.file, "r").getChannel();
+				}
+				return this.channel;
+			}
 		}
 
-		public void close() throws IOException {
-			try {
-				this.available.acquire(this.size);
-				try {
-					RandomAccessFile file = this.files.poll();
-					while (file != null) {
-						file.close();
-						file = this.files.poll();
-					}
-				}
-				finally {
-					this.available.release(this.size);
-				}
+		private synchronized int readUninterruptibly(byte[] b, int off, int len,
+				long position) throws IOException {
+			if (this.uninterruptibleFile == null) {
+				this.uninterruptibleFile = new RandomAccessFile(this.file, "r");
+			}
+			this.uninterruptibleFile.seek(position);
+			return this.uninterruptibleFile.read(b, off, len);
+		}
+
+		public synchronized void close() throws IOException {
+			if (this.channel != null) {
+				this.channel.close();
 			}
-			catch (InterruptedException ex) {
-				throw new IOException(ex);
+			if (this.uninterruptibleFile != null) {
+				this.uninterruptibleFile.close();
+				this.uninterruptibleFile = null;
 			}
 		}
 
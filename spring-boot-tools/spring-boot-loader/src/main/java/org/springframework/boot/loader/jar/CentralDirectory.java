@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.springframework.boot.loader.data.ByteBufferRandomAccessData;
+import org.springframework.boot.loader.data.RandomAccessData;
+import org.springframework.boot.loader.data.RandomAccessDataFile;
+import org.springframework.boot.loader.util.AsciiBytes;
+
+/**
+ * The "Central directory" of a ZIP file, held as the raw record bytes plus a table of
+ * record offsets and a {@link JarEntryIndex} of the record names. Large directories are
+ * memory mapped, smaller ones are read in a single operation. {@link JarEntryData}
+ * instances are only created from a record when needed.
+ *
+ * @author Phillip Webb
+ * @see CentralDirectoryEndRecord
+ */
+final class CentralDirectory {
+
+	private static final int SIGNATURE = 0x02014b50;
+
+	private static final int HEADER_SIZE = 46;
+
+	private static final int INITIAL_HASH = 7;
+
+	private static final int MULTIPLIER = 31;
+
+	/**
+	 * Directories at least this large are memory mapped rather than read onto the heap.
+	 */
+	static final long MAPPING_THRESHOLD = 64 * 1024;
+
+	private final ByteBuffer buffer;
+
+	private final int[] offsets;
+
+	private final int size;
+
+	private final JarEntryIndex index;
+
+	private CentralDirectory(ByteBuffer buffer, int[] offsets, int[] hashes, int size) {
+		this.buffer = buffer;
+		this.offsets = offsets;
+		this.size = size;
+		this.index = new JarEntryIndex(hashes, size);
+	}
+
+	/**
+	 * @return the number of records in the directory
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return the index of the record names
+	 */
+	public JarEntryIndex getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * @return the approximate number of heap bytes used by the directory and its index
+	 */
+	public long getMemorySize() {
+		long size = 4L * this.offsets.length + this.index.getMemorySize();
+		return (this.buffer.isDirect() ? size : size + this.buffer.capacity());
+	}
+
+	/**
+	 * Return the length of the name of the record at the specified index.
+	 * @param index the record index
+	 * @return the name length
+	 */
+	public int getNameLength(int index) {
+		return getNameLengthAt(this.offsets[index]);
+	}
+
+	/**
+	 * Return if the name of the record at the specified index, ignoring its first
+	 * {@code from} bytes, starts with the given bytes.
+	 * @param index the record index
+	 * @param from the number of leading name bytes to skip
+	 * @param prefix the prefix
+	 * @return if the name starts with the prefix
+	 */
+	public boolean nameStartsWith(int index, int from, byte[] prefix) {
+		int offset = this.offsets[index];
+		if (getNameLengthAt(offset) < from + prefix.length) {
+			return false;
+		}
+		int position = offset + HEADER_SIZE + from;
+		for (int i = 0; i < prefix.length; i++) {
+			if (this.buffer.get(position + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Hash the name of the record at the specified index, ignoring its first
+	 * {@code from} bytes, in the same way as {@link AsciiBytes#hashCode()}.
+	 * @param index the record index
+	 * @param from the number of leading name bytes to skip
+	 * @return the hash
+	 */
+	public int hashName(int index, int from) {
+		int offset = this.offsets[index];
+		return hash(this.buffer, offset + HEADER_SIZE + from, getNameLengthAt(offset)
+				- from);
+	}
+
+	/**
+	 * Create a new {@link JarEntryData} for the record at the specified index.
+	 * @param source the source {@link JarFile}
+	 * @param index the record index
+	 * @param from the number of leading name bytes to drop from the entry name
+	 * @return the entry data
+	 */
+	public JarEntryData createEntryData(JarFile source, int index, int from) {
+		int offset = this.offsets[index];
+		int nameLength = getNameLengthAt(offset);
+		int extraLength = this.buffer.getShort(offset + 30) & 0xFFFF;
+		int commentLength = this.buffer.getShort(offset + 32) & 0xFFFF;
+		int position = offset + HEADER_SIZE;
+		byte[] header = getBytes(offset, HEADER_SIZE);
+		AsciiBytes name = new AsciiBytes(getBytes(position + from, nameLength - from));
+		position += nameLength;
+		byte[] extra = getBytes(position, extraLength);
+		position += extraLength;
+		AsciiBytes comment = new AsciiBytes(getBytes(position, commentLength));
+		return new JarEntryData(source, header, name, extra, comment);
+	}
+
+	private int getNameLengthAt(int offset) {
+		return this.buffer.getShort(offset + 28) & 0xFFFF;
+	}
+
+	private byte[] getBytes(int offset, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = this.buffer.get(offset + i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Load the central directory from the specified data.
+	 * @param data the central directory data
+	 * @param expectedSize the expected number of records
+	 * @return the central directory
+	 * @throws IOException if the data cannot be read
+	 */
+	public static CentralDirectory load(RandomAccessData data, int expectedSize)
+			throws IOException {
+		ByteBuffer buffer = getBuffer(data);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		int[] offsets = new int[Math.max(expectedSize, 16)];
+		int[] hashes = new int[offsets.length];
+		int size = 0;
+		int offset = 0;
+		int limit = buffer.limit();
+		while (offset + HEADER_SIZE <= limit && buffer.getInt(offset) == SIGNATURE) {
+			if (size == offsets.length) {
+				offsets = grow(offsets);
+				hashes = grow(hashes);
+			}
+			int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+			offsets[size] = offset;
+			hashes[size] = hash(buffer, offset + HEADER_SIZE, nameLength);
+			size++;
+			offset += HEADER_SIZE + nameLength + (buffer.getShort(offset + 30) & 0xFFFF)
+					+ (buffer.getShort(offset + 32) & 0xFFFF);
+		}
+		return new CentralDirectory(buffer, offsets, hashes, size);
+	}
+
+	private static int[] grow(int[] array) {
+		int[] grown = new int[array.length * 2];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	/**
+	 * Hash the given name bytes in the same way as {@link AsciiBytes#hashCode()}.
+	 */
+	private static int hash(ByteBuffer buffer, int offset, int length) {
+		int hash = INITIAL_HASH;
+		for (int i = 0; i < length; i++) {
+			hash = MULTIPLIER * hash + buffer.get(offset + i);
+		}
+		return hash;
+	}
+
+	private static ByteBuffer getBuffer(RandomAccessData data) throws IOException {
+		if (data instanceof RandomAccessDataFile && data.getSize() >= MAPPING_THRESHOLD) {
+			return ((RandomAccessDataFile) data).map().getByteBuffer();
+		}
+		if (data instanceof ByteBufferRandomAccessData) {
+			return ((ByteBufferRandomAccessData) data).getByteBuffer();
+		}
+		return ByteBuffer.wrap(Bytes.get(data));
+	}
+
+}
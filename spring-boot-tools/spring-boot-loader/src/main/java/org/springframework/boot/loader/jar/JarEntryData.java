@@ -68,6 +68,16 @@ public final class JarEntryData {
 		this.localHeaderOffset = Bytes.littleEndianValue(header, 42, 4);
 	}
 
+	JarEntryData(JarFile source, byte[] header, AsciiBytes name, byte[] extra,
+			AsciiBytes comment) {
+		this.source = source;
+		this.header = header;
+		this.name = name;
+		this.extra = extra;
+		this.comment = comment;
+		this.localHeaderOffset = Bytes.littleEndianValue(header, 42, 4);
+	}
+
 	private JarEntryData(JarEntryData master, JarFile source, AsciiBytes name) {
 		this.header = master.header;
 		this.extra = master.extra;
@@ -172,20 +182,4 @@ public final class JarEntryData {
 		return new JarEntryData(this, jarFile, name);
 	}
 
-	/**
-	 * Create a new {@link JarEntryData} instance from the specified input stream.
-	 * @param source the source {@link JarFile}
-	 * @param inputStream the input stream to load data from
-	 * @return a {@link JarEntryData} or {@code null}
-	 * @throws IOException
-	 */
-	static JarEntryData fromInputStream(JarFile source, InputStream inputStream)
-			throws IOException {
-		byte[] header = new byte[46];
-		if (!Bytes.fill(inputStream, header)) {
-			return null;
-		}
-		return new JarEntryData(source, header, inputStream);
-	}
-
 }
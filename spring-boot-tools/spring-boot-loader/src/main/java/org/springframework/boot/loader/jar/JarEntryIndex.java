@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+/**
+ * Compact index from the {@link org.springframework.boot.loader.util.AsciiBytes#hashCode()
+ * hash} of an entry name to the position of the entry in a jar, using open addressing
+ * over plain {@code int} arrays. Hashes may collide so callers must check the name of
+ * each candidate entry. Unlike a {@code HashMap} the index holds no per-entry objects so
+ * it is cheap to keep for the lifetime of the jar.
+ *
+ * @author Phillip Webb
+ */
+final class JarEntryIndex {
+
+	private final int[] hashes;
+
+	private final int[] table;
+
+	private final int mask;
+
+	/**
+	 * Create a new {@link JarEntryIndex}.
+	 * @param hashes the name hash of each entry, by position
+	 * @param size the number of entries (may be less than the length of the array)
+	 */
+	JarEntryIndex(int[] hashes, int size) {
+		this.hashes = hashes;
+		int capacity = 2;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		this.table = new int[capacity];
+		this.mask = capacity - 1;
+		for (int position = 0; position < size; position++) {
+			int slot = getSlot(hashes[position]);
+			while (this.table[slot] != 0) {
+				slot = getNextSlot(slot);
+			}
+			this.table[slot] = position + 1;
+		}
+	}
+
+	/**
+	 * Return the slot to start probing from for the given hash.
+	 * @param hash the name hash
+	 * @return the first slot
+	 */
+	public int getSlot(int hash) {
+		// Spread the bits since the table size is a power of two
+		int h = hash * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & this.mask;
+	}
+
+	/**
+	 * Return the slot to probe after the given slot.
+	 * @param slot the current slot
+	 * @return the next slot
+	 */
+	public int getNextSlot(int slot) {
+		return (slot + 1) & this.mask;
+	}
+
+	/**
+	 * Return the position of the entry in the given slot if it has the given hash.
+	 * @param slot the slot
+	 * @param hash the name hash
+	 * @return the entry position, {@code -1} if the entry has a different hash or
+	 * {@code -2} if the slot is empty (in which case probing should stop)
+	 */
+	public int getPosition(int slot, int hash) {
+		int position = this.table[slot] - 1;
+		if (position < 0) {
+			return -2;
+		}
+		return (this.hashes[position] == hash ? position : -1);
+	}
+
+	/**
+	 * @return the approximate number of bytes used by the index
+	 */
+	public long getMemorySize() {
+		return 4L * (this.hashes.length + this.table.length);
+	}
+
+}
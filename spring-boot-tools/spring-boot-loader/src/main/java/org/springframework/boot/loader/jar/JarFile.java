@@ -24,14 +24,18 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.net.URLStreamHandlerFactory;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 
 import org.springframework.boot.loader.data.RandomAccessData;
@@ -56,8 +60,13 @@ import org.springframework.boot.loader.util.AsciiBytes;
  */
 public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryData> {
 
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
 	private static final AsciiBytes META_INF = new AsciiBytes("META-INF/");
 
+	private static final byte[] META_INF_BYTES = META_INF.toString().getBytes(
+			Charset.forName("US-ASCII"));
+
 	private static final AsciiBytes MANIFEST_MF = new AsciiBytes("META-INF/MANIFEST.MF");
 
 	private static final AsciiBytes SIGNATURE_FILE_EXTENSION = new AsciiBytes(".SF");
@@ -68,15 +77,31 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 
 	private static final AsciiBytes SLASH = new AsciiBytes("/");
 
+	private static final Logger logger = Logger.getLogger(JarFile.class.getName());
+
 	private final RandomAccessDataFile rootFile;
 
 	private final String pathFromRoot;
 
 	private final RandomAccessData data;
 
-	private final List<JarEntryData> entries;
+	private final CentralDirectory centralDirectory;
+
+	/**
+	 * The central directory record of each entry or {@code null} if the entries are the
+	 * records in order.
+	 */
+	private final int[] records;
+
+	/**
+	 * The number of leading bytes of each record name that are not part of the entry
+	 * name.
+	 */
+	private final int namePrefixLength;
+
+	private final AtomicReferenceArray<JarEntryData> entries;
 
-	private SoftReference<Map<AsciiBytes, JarEntryData>> entriesByName;
+	private final JarEntryIndex index;
 
 	private boolean signed;
 
@@ -119,17 +144,59 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		this.rootFile = rootFile;
 		this.pathFromRoot = pathFromRoot;
 		this.data = getArchiveData(endRecord, data);
-		this.entries = loadJarEntries(endRecord);
+		this.centralDirectory = CentralDirectory.load(
+				endRecord.getCentralDirectory(this.data), endRecord.getNumberOfRecords());
+		this.records = null;
+		this.namePrefixLength = 0;
+		this.entries = new AtomicReferenceArray<JarEntryData>(
+				this.centralDirectory.size());
+		this.index = this.centralDirectory.getIndex();
+		processMetaInfEntries();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Indexed " + this.entries.length() + " entries of " + getName()
+					+ " using " + this.centralDirectory.getMemorySize() + " bytes");
+		}
+	}
+
+	/**
+	 * Private constructor used to create a new {@link JarFile} from the central
+	 * directory records of a parent file that share a common name prefix.
+	 * @param parent the parent file
+	 * @param pathFromRoot the name of this file
+	 * @param records the records of the entries
+	 * @param namePrefixLength the length of the common name prefix
+	 * @throws IOException
+	 */
+	private JarFile(JarFile parent, String pathFromRoot, int[] records,
+			int namePrefixLength) throws IOException {
+		super(parent.rootFile.getFile());
+		this.rootFile = parent.rootFile;
+		this.pathFromRoot = pathFromRoot;
+		this.data = parent.data;
+		this.centralDirectory = parent.centralDirectory;
+		this.records = records;
+		this.namePrefixLength = namePrefixLength;
+		this.entries = new AtomicReferenceArray<JarEntryData>(records.length);
+		int[] hashes = new int[records.length];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = this.centralDirectory.hashName(records[i], namePrefixLength);
+		}
+		this.index = new JarEntryIndex(hashes, hashes.length);
+		processMetaInfEntries();
 	}
 
 	private JarFile(RandomAccessDataFile rootFile, String pathFromRoot,
-			RandomAccessData data, List<JarEntryData> entries, JarEntryFilter... filters)
-			throws IOException {
+			RandomAccessData data, Iterable<JarEntryData> entries,
+			JarEntryFilter... filters) throws IOException {
 		super(rootFile.getFile());
 		this.rootFile = rootFile;
 		this.pathFromRoot = pathFromRoot;
 		this.data = data;
+		this.centralDirectory = null;
+		this.records = null;
+		this.namePrefixLength = 0;
 		this.entries = filterEntries(entries, filters);
+		this.index = createIndex(this.entries);
 	}
 
 	private RandomAccessData getArchiveData(CentralDirectoryEndRecord endRecord,
@@ -141,29 +208,18 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		return data.getSubsection(offset, data.getSize() - offset);
 	}
 
-	private List<JarEntryData> loadJarEntries(CentralDirectoryEndRecord endRecord)
-			throws IOException {
-		RandomAccessData centralDirectory = endRecord.getCentralDirectory(this.data);
-		int numberOfRecords = endRecord.getNumberOfRecords();
-		List<JarEntryData> entries = new ArrayList<JarEntryData>(numberOfRecords);
-		InputStream inputStream = centralDirectory.getInputStream(ResourceAccess.ONCE);
-		try {
-			JarEntryData entry = JarEntryData.fromInputStream(this, inputStream);
-			while (entry != null) {
-				entries.add(entry);
-				processEntry(entry);
-				entry = JarEntryData.fromInputStream(this, inputStream);
+	private void processMetaInfEntries() {
+		for (int i = 0; i < this.entries.length(); i++) {
+			if (this.centralDirectory.nameStartsWith(getRecord(i),
+					this.namePrefixLength, META_INF_BYTES)) {
+				processEntry(getEntry(i));
 			}
 		}
-		finally {
-			inputStream.close();
-		}
-		return entries;
 	}
 
-	private List<JarEntryData> filterEntries(List<JarEntryData> entries,
-			JarEntryFilter[] filters) {
-		List<JarEntryData> filteredEntries = new ArrayList<JarEntryData>(entries.size());
+	private AtomicReferenceArray<JarEntryData> filterEntries(
+			Iterable<JarEntryData> entries, JarEntryFilter[] filters) {
+		List<JarEntryData> filteredEntries = new ArrayList<JarEntryData>();
 		for (JarEntryData entry : entries) {
 			AsciiBytes name = entry.getName();
 			for (JarEntryFilter filter : filters) {
@@ -175,7 +231,38 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 				processEntry(filteredCopy);
 			}
 		}
-		return filteredEntries;
+		return new AtomicReferenceArray<JarEntryData>(
+				filteredEntries.toArray(new JarEntryData[filteredEntries.size()]));
+	}
+
+	private JarEntryIndex createIndex(AtomicReferenceArray<JarEntryData> entries) {
+		int[] hashes = new int[entries.length()];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = entries.get(i).getName().hashCode();
+		}
+		return new JarEntryIndex(hashes, hashes.length);
+	}
+
+	/**
+	 * Return the entry at the specified index, creating it from the central directory if
+	 * necessary.
+	 * @param index the entry index
+	 * @return the entry
+	 */
+	private JarEntryData getEntry(int index) {
+		JarEntryData entry = this.entries.get(index);
+		if (entry == null) {
+			entry = this.centralDirectory.createEntryData(this, getRecord(index),
+					this.namePrefixLength);
+			if (!this.entries.compareAndSet(index, null, entry)) {
+				entry = this.entries.get(index);
+			}
+		}
+		return entry;
+	}
+
+	private int getRecord(int index) {
+		return (this.records == null ? index : this.records[index]);
 	}
 
 	private void processEntry(JarEntryData entry) {
@@ -240,7 +327,29 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 
 	@Override
 	public Iterator<JarEntryData> iterator() {
-		return this.entries.iterator();
+		return new Iterator<JarEntryData>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.index < JarFile.this.entries.length();
+			}
+
+			@Override
+			public JarEntryData next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getEntry(this.index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+
+		};
 	}
 
 	@Override
@@ -265,24 +374,31 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		if (name == null) {
 			return null;
 		}
-		Map<AsciiBytes, JarEntryData> entriesByName = (this.entriesByName == null ? null
-				: this.entriesByName.get());
-		if (entriesByName == null) {
-			entriesByName = new HashMap<AsciiBytes, JarEntryData>();
-			for (JarEntryData entry : this.entries) {
-				entriesByName.put(entry.getName(), entry);
-			}
-			this.entriesByName = new SoftReference<Map<AsciiBytes, JarEntryData>>(
-					entriesByName);
-		}
-
-		JarEntryData entryData = entriesByName.get(name);
+		JarEntryData entryData = findEntry(name);
 		if (entryData == null && !name.endsWith(SLASH)) {
-			entryData = entriesByName.get(name.append(SLASH));
+			entryData = findEntry(name.append(SLASH));
 		}
 		return entryData;
 	}
 
+	private JarEntryData findEntry(AsciiBytes name) {
+		int hash = name.hashCode();
+		int slot = this.index.getSlot(hash);
+		while (true) {
+			int position = this.index.getPosition(slot, hash);
+			if (position == -2) {
+				return null;
+			}
+			if (position >= 0) {
+				JarEntryData entry = getEntry(position);
+				if (entry.getName().equals(name)) {
+					return entry;
+				}
+			}
+			slot = this.index.getNextSlot(slot);
+		}
+	}
+
 	boolean isSigned() {
 		return this.signed;
 	}
@@ -324,27 +440,29 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 * @return a {@link JarFile} for the entry
 	 * @throws IOException
 	 */
-	public synchronized JarFile getNestedJarFile(final ZipEntry ze) throws IOException {
+	public JarFile getNestedJarFile(final ZipEntry ze) throws IOException {
 		return getNestedJarFile(getContainedEntry(ze).getSource());
 	}
 
 	/**
-	 * Return a nested {@link JarFile} loaded from the specified entry.
+	 * Return a nested {@link JarFile} loaded from the specified entry. Different entries
+	 * can be opened concurrently.
 	 * @param sourceEntry the zip entry
 	 * @return a {@link JarFile} for the entry
 	 * @throws IOException
 	 */
-	public synchronized JarFile getNestedJarFile(JarEntryData sourceEntry)
-			throws IOException {
-		try {
-			if (sourceEntry.nestedJar == null) {
-				sourceEntry.nestedJar = createJarFileFromEntry(sourceEntry);
+	public JarFile getNestedJarFile(JarEntryData sourceEntry) throws IOException {
+		synchronized (sourceEntry) {
+			try {
+				if (sourceEntry.nestedJar == null) {
+					sourceEntry.nestedJar = createJarFileFromEntry(sourceEntry);
+				}
+				return sourceEntry.nestedJar;
+			}
+			catch (IOException ex) {
+				throw new IOException("Unable to open nested jar file '"
+						+ sourceEntry.getName() + "'", ex);
 			}
-			return sourceEntry.nestedJar;
-		}
-		catch (IOException ex) {
-			throw new IOException("Unable to open nested jar file '"
-					+ sourceEntry.getName() + "'", ex);
 		}
 	}
 
@@ -358,6 +476,12 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	private JarFile createJarFileFromDirectoryEntry(JarEntryData sourceEntry)
 			throws IOException {
 		final AsciiBytes sourceName = sourceEntry.getName();
+		String pathFromRoot = this.pathFromRoot + "!/"
+				+ sourceEntry.getName().substring(0, sourceName.length() - 1);
+		if (this.centralDirectory != null) {
+			return new JarFile(this, pathFromRoot, getRecords(sourceName),
+					this.namePrefixLength + sourceName.length());
+		}
 		JarEntryFilter filter = new JarEntryFilter() {
 			@Override
 			public AsciiBytes apply(AsciiBytes name, JarEntryData entryData) {
@@ -367,9 +491,27 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 				return null;
 			}
 		};
-		return new JarFile(this.rootFile, this.pathFromRoot + "!/"
-				+ sourceEntry.getName().substring(0, sourceName.length() - 1), this.data,
-				this.entries, filter);
+		return new JarFile(this.rootFile, pathFromRoot, this.data, this, filter);
+	}
+
+	/**
+	 * Return the records of the entries below the specified directory, found using the
+	 * central directory names rather than by creating entries.
+	 */
+	private int[] getRecords(AsciiBytes directoryName) {
+		byte[] prefix = directoryName.toString().getBytes(UTF_8);
+		int[] records = new int[this.entries.length()];
+		int size = 0;
+		for (int i = 0; i < records.length; i++) {
+			int record = getRecord(i);
+			if (this.centralDirectory.getNameLength(record) > this.namePrefixLength
+					+ prefix.length
+					&& this.centralDirectory.nameStartsWith(record,
+							this.namePrefixLength, prefix)) {
+				records[size++] = record;
+			}
+		}
+		return Arrays.copyOf(records, size);
 	}
 
 	private JarFile createJarFileFromFileEntry(JarEntryData sourceEntry)
@@ -392,8 +534,7 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 */
 	public synchronized JarFile getFilteredJarFile(JarEntryFilter... filters)
 			throws IOException {
-		return new JarFile(this.rootFile, this.pathFromRoot, this.data, this.entries,
-				filters);
+		return new JarFile(this.rootFile, this.pathFromRoot, this.data, this, filters);
 	}
 
 	private JarEntry getContainedEntry(ZipEntry zipEntry) throws IOException {
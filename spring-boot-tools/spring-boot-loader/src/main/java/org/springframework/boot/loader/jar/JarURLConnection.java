@@ -17,6 +17,7 @@
 package org.springframework.boot.loader.jar;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -25,7 +26,10 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
 
+import org.springframework.boot.loader.data.RandomAccessData;
+import org.springframework.boot.loader.data.RandomAccessDataFile;
 import org.springframework.boot.loader.util.AsciiBytes;
 
 /**
@@ -179,6 +183,40 @@ class JarURLConnection extends java.net.JarURLConnection {
 		return this.jarEntryData.getInputStream();
 	}
 
+	/**
+	 * Return the file that holds the entry data if the entry is stored without
+	 * compression. Callers can use this method together with
+	 * {@link #getStoredEntryOffset()} to transfer the data directly from the file (for
+	 * example using {@code sendfile}) rather than copying it through a stream.
+	 * @return the file or {@code null} if the entry data cannot be read directly
+	 * @throws IOException if the entry cannot be read
+	 */
+	public File getStoredEntryFile() throws IOException {
+		RandomAccessDataFile data = getStoredEntryData();
+		return (data == null ? null : data.getFile());
+	}
+
+	/**
+	 * Return the offset of the entry data within {@link #getStoredEntryFile()}.
+	 * @return the offset or {@code -1} if the entry data cannot be read directly
+	 * @throws IOException if the entry cannot be read
+	 */
+	public long getStoredEntryOffset() throws IOException {
+		RandomAccessDataFile data = getStoredEntryData();
+		return (data == null ? -1 : data.getFileOffset());
+	}
+
+	private RandomAccessDataFile getStoredEntryData() throws IOException {
+		connect();
+		if (this.jarEntryData == null || this.jarEntryData.isDirectory()
+				|| this.jarEntryData.getMethod() != ZipEntry.STORED) {
+			return null;
+		}
+		RandomAccessData data = this.jarEntryData.getData();
+		return (data instanceof RandomAccessDataFile ? (RandomAccessDataFile) data
+				: null);
+	}
+
 	@Override
 	public int getContentLength() {
 		try {
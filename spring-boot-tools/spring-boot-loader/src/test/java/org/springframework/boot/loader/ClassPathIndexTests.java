@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ClassPathIndex}.
+ *
+ * @author Phillip Webb
+ */
+@SuppressWarnings("resource")
+public class ClassPathIndexTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private JarFile jarFile;
+
+	private JarFileArchive archive;
+
+	@Before
+	public void setup() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, getClass());
+		this.jarFile = new JarFile(file);
+		this.archive = new JarFileArchive(this.jarFile);
+	}
+
+	@Test
+	public void positionsInClassPathOrder() throws Exception {
+		ClassPathIndex index = ClassPathIndex.load(this.archive, new URL[] {
+				this.jarFile.getUrl(), getNestedUrl("other.jar"),
+				getNestedUrl("nested.jar") });
+		assertThat(index.getPositions(getClass().getPackage().getName()),
+				equalTo(new int[] { 1, 2 }));
+		assertThat(index.getPositions("a.b"), equalTo(new int[] { 1 }));
+		assertThat(index.getPositions(""), equalTo(new int[] { 1 }));
+		assertThat(index.getPositions("a"), equalTo(new int[0]));
+	}
+
+	@Test
+	public void archivesNotOnClassPathAreIgnored() throws Exception {
+		ClassPathIndex index = ClassPathIndex.load(this.archive,
+				new URL[] { getNestedUrl("nested.jar") });
+		assertThat(index.getPositions(getClass().getPackage().getName()),
+				equalTo(new int[] { 0 }));
+		assertThat(index.getPositions("a.b"), equalTo(new int[0]));
+	}
+
+	@Test
+	public void unindexedArchive() throws Exception {
+		assertNull(ClassPathIndex.load(this.archive, new URL[] {
+				getNestedUrl("nested.jar"), getNestedUrl("unindexed.jar") }));
+	}
+
+	@Test
+	public void urlOutsideArchive() throws Exception {
+		assertNull(ClassPathIndex.load(this.archive, new URL[] {
+				getNestedUrl("nested.jar"), new File("target/classes").toURI().toURL() }));
+	}
+
+	@Test
+	public void noIndex() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createTestJar(file);
+		JarFile jarFile = new JarFile(file);
+		assertNull(ClassPathIndex.load(new JarFileArchive(jarFile),
+				new URL[] { jarFile.getUrl() }));
+	}
+
+	private URL getNestedUrl(String name) throws Exception {
+		return this.jarFile.getNestedJarFile(this.jarFile.getEntry(name)).getUrl();
+	}
+
+}
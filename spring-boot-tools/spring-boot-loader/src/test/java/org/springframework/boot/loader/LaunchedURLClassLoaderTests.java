@@ -18,13 +18,18 @@ package org.springframework.boot.loader;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Collections;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.loader.archive.JarFileArchive;
 import org.springframework.boot.loader.jar.JarFile;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -42,6 +47,9 @@ public class LaunchedURLClassLoaderTests {
 	@Rule
 	public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
 	@Test
 	public void resolveResourceFromWindowsFilesystem() throws Exception {
 		// This path is invalid - it should return null even on Windows.
@@ -100,4 +108,108 @@ public class LaunchedURLClassLoaderTests {
 		assertThat(resource.openConnection().getInputStream().read(), equalTo(3));
 	}
 
+	@Test
+	public void loadClassUsingIndex() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, Example.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("other.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("nested.jar")).getUrl() };
+		ClassPathIndex index = ClassPathIndex.load(new JarFileArchive(jarFile), urls);
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null, index);
+		Class<?> loaded = loader.loadClass(Example.class.getName());
+		assertThat(loaded.getClassLoader(), sameInstance((ClassLoader) loader));
+		assertThat(loaded.getProtectionDomain().getCodeSource().getLocation(),
+				equalTo(urls[1]));
+		assertNotNull(loaded.getPackage());
+		String path = Example.class.getName().replace('.', '/') + ".class";
+		assertThat(loader.getResource(path).toString(), equalTo(urls[1] + path));
+		assertNull(loader.getResource("a/b/D.class"));
+	}
+
+	@Test
+	public void definePackageFromNestedJar() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, Example.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("other.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("nested.jar")).getUrl() };
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null);
+		Class<?> loaded = loader.loadClass(Example.class.getName());
+		assertThat(loaded.getClassLoader(), sameInstance((ClassLoader) loader));
+		assertNotNull(loaded.getPackage());
+	}
+
+	@Test
+	public void definePackageFromNestedJarContainingClass() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createSealedTestJar(file, Example.class, OtherExample.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("sealed.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("other.jar")).getUrl() };
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null);
+		Class<?> loaded = loader.loadClass(OtherExample.class.getName());
+		assertThat(loaded.getProtectionDomain().getCodeSource().getLocation(),
+				equalTo(urls[1]));
+		assertFalse(loaded.getPackage().isSealed());
+	}
+
+	@Test
+	public void missingPackageUsingIndex() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, Example.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] { jarFile.getNestedJarFile(
+				jarFile.getEntry("nested.jar")).getUrl() };
+		ClassPathIndex index = ClassPathIndex.load(new JarFileArchive(jarFile), urls);
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null, index);
+		this.thrown.expect(ClassNotFoundException.class);
+		loader.loadClass("a.b.C");
+	}
+
+	@Test
+	public void loadClassMissingFromIndex() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, Example.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("other.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("nested.jar")).getUrl() };
+		ClassPathIndex index = new ClassPathIndex(Collections.<String, int[]> emptyMap());
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null, index);
+		Class<?> loaded = loader.loadClass(Example.class.getName());
+		assertThat(loaded.getClassLoader(), sameInstance((ClassLoader) loader));
+		assertThat(loaded.getProtectionDomain().getCodeSource().getLocation(),
+				equalTo(urls[1]));
+		String path = Example.class.getName().replace('.', '/') + ".class";
+		assertThat(loader.getResource(path).toString(), equalTo(urls[1] + path));
+	}
+
+	@Test
+	public void sealedPackageUsingIndex() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createSealedTestJar(file, Example.class, OtherExample.class);
+		JarFile jarFile = new JarFile(file);
+		URL[] urls = new URL[] {
+				jarFile.getNestedJarFile(jarFile.getEntry("sealed.jar")).getUrl(),
+				jarFile.getNestedJarFile(jarFile.getEntry("other.jar")).getUrl() };
+		ClassPathIndex index = ClassPathIndex.load(new JarFileArchive(jarFile), urls);
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(urls, null, index);
+		Class<?> loaded = loader.loadClass(Example.class.getName());
+		assertTrue(loaded.getPackage().isSealed(urls[0]));
+		this.thrown.expect(SecurityException.class);
+		loader.loadClass(OtherExample.class.getName());
+	}
+
+	public static class Example {
+
+	}
+
+	public static class OtherExample {
+
+	}
+
 }
@@ -20,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
@@ -50,27 +51,124 @@ public abstract class TestJarCreator {
 			writeDirEntry(jarOutputStream, "special/");
 			writeEntry(jarOutputStream, "special/\u00EB.dat", '\u00EB');
 
-			JarEntry nestedEntry = new JarEntry("nested.jar");
-			byte[] nestedJarData = getNestedJarData();
-			nestedEntry.setSize(nestedJarData.length);
-			nestedEntry.setCompressedSize(nestedJarData.length);
-			if (unpackNested) {
-				nestedEntry.setComment("UNPACK:0000000000000000000000000000000000000000");
-			}
-			CRC32 crc32 = new CRC32();
-			crc32.update(nestedJarData);
-			nestedEntry.setCrc(crc32.getValue());
+			writeNestedEntry(jarOutputStream, "nested.jar", getNestedJarData(),
+					unpackNested);
+		}
+		finally {
+			jarOutputStream.close();
+		}
+	}
 
-			nestedEntry.setMethod(ZipEntry.STORED);
-			jarOutputStream.putNextEntry(nestedEntry);
-			jarOutputStream.write(nestedJarData);
+	/**
+	 * Create a jar with a {@link ClassPathIndex}. {@code nested.jar} contains the
+	 * specified class, {@code other.jar} contains {@code a/b/c.class} and
+	 * {@code x.class} and {@code unindexed.jar} is not included in the index.
+	 * @param file the file to write
+	 * @param nestedClass the class to include in {@code nested.jar}
+	 * @throws Exception
+	 */
+	public static void createIndexedTestJar(File file, Class<?> nestedClass)
+			throws Exception {
+		String classFile = nestedClass.getName().replace('.', '/') + ".class";
+		String packageFolder = classFile.substring(0, classFile.lastIndexOf('/') + 1);
+		FileOutputStream fileOutputStream = new FileOutputStream(file);
+		JarOutputStream jarOutputStream = new JarOutputStream(fileOutputStream);
+		try {
+			writeManifest(jarOutputStream, "j1");
+			jarOutputStream.putNextEntry(new JarEntry(ClassPathIndex.LOCATION));
+			jarOutputStream.write(("/\n\nnested.jar\n" + packageFolder
+					+ "\n\nother.jar\n/\na/b/\n" + packageFolder + "\n")
+					.getBytes("UTF-8"));
 			jarOutputStream.closeEntry();
+			ByteArrayOutputStream nestedJarData = new ByteArrayOutputStream();
+			JarOutputStream nestedOutputStream = new JarOutputStream(nestedJarData);
+			writeManifest(nestedOutputStream, "j2");
+			writeClass(nestedOutputStream, nestedClass);
+			nestedOutputStream.close();
+			writeNestedEntry(jarOutputStream, "nested.jar",
+					nestedJarData.toByteArray(), false);
+			nestedJarData = new ByteArrayOutputStream();
+			nestedOutputStream = new JarOutputStream(nestedJarData);
+			writeEntry(nestedOutputStream, "a/b/c.class", 1);
+			writeEntry(nestedOutputStream, "x.class", 2);
+			nestedOutputStream.close();
+			writeNestedEntry(jarOutputStream, "other.jar", nestedJarData.toByteArray(),
+					false);
+			writeNestedEntry(jarOutputStream, "unindexed.jar", getNestedJarData(), false);
 		}
 		finally {
 			jarOutputStream.close();
 		}
 	}
 
+	public static void createSealedTestJar(File file, Class<?> sealedClass,
+			Class<?> otherClass) throws Exception {
+		String packageFolder = sealedClass.getPackage().getName().replace('.', '/')
+				+ "/";
+		FileOutputStream fileOutputStream = new FileOutputStream(file);
+		JarOutputStream jarOutputStream = new JarOutputStream(fileOutputStream);
+		try {
+			writeManifest(jarOutputStream, "j1");
+			jarOutputStream.putNextEntry(new JarEntry(ClassPathIndex.LOCATION));
+			jarOutputStream.write(("/\n\nsealed.jar\n" + packageFolder
+					+ "\n\nother.jar\n" + packageFolder + "\n").getBytes("UTF-8"));
+			jarOutputStream.closeEntry();
+			ByteArrayOutputStream nestedJarData = new ByteArrayOutputStream();
+			JarOutputStream nestedOutputStream = new JarOutputStream(nestedJarData);
+			writeManifest(nestedOutputStream, "j2", true);
+			writeClass(nestedOutputStream, sealedClass);
+			nestedOutputStream.close();
+			writeNestedEntry(jarOutputStream, "sealed.jar", nestedJarData.toByteArray(),
+					false);
+			nestedJarData = new ByteArrayOutputStream();
+			nestedOutputStream = new JarOutputStream(nestedJarData);
+			writeManifest(nestedOutputStream, "j3");
+			writeClass(nestedOutputStream, otherClass);
+			nestedOutputStream.close();
+			writeNestedEntry(jarOutputStream, "other.jar", nestedJarData.toByteArray(),
+					false);
+		}
+		finally {
+			jarOutputStream.close();
+		}
+	}
+
+	private static void writeClass(JarOutputStream jarOutputStream, Class<?> type)
+			throws IOException {
+		String classFile = type.getName().replace('.', '/') + ".class";
+		jarOutputStream.putNextEntry(new JarEntry(classFile));
+		InputStream inputStream = type.getClassLoader().getResourceAsStream(classFile);
+		try {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				jarOutputStream.write(buffer, 0, read);
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+		jarOutputStream.closeEntry();
+	}
+
+	private static void writeNestedEntry(JarOutputStream jarOutputStream, String name,
+			byte[] nestedJarData, boolean unpackNested) throws IOException {
+		JarEntry nestedEntry = new JarEntry(name);
+		nestedEntry.setSize(nestedJarData.length);
+		nestedEntry.setCompressedSize(nestedJarData.length);
+		if (unpackNested) {
+			nestedEntry.setComment("UNPACK:0000000000000000000000000000000000000000");
+		}
+		CRC32 crc32 = new CRC32();
+		crc32.update(nestedJarData);
+		nestedEntry.setCrc(crc32.getValue());
+
+		nestedEntry.setMethod(ZipEntry.STORED);
+		jarOutputStream.putNextEntry(nestedEntry);
+		jarOutputStream.write(nestedJarData);
+		jarOutputStream.closeEntry();
+	}
+
 	private static byte[] getNestedJarData() throws Exception {
 		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 		JarOutputStream jarOutputStream = new JarOutputStream(byteArrayOutputStream);
@@ -84,10 +182,18 @@ public abstract class TestJarCreator {
 
 	private static void writeManifest(JarOutputStream jarOutputStream, String name)
 			throws Exception {
+		writeManifest(jarOutputStream, name, false);
+	}
+
+	private static void writeManifest(JarOutputStream jarOutputStream, String name,
+			boolean sealed) throws Exception {
 		writeDirEntry(jarOutputStream, "META-INF/");
 		Manifest manifest = new Manifest();
 		manifest.getMainAttributes().putValue("Built-By", name);
 		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		if (sealed) {
+			manifest.getMainAttributes().put(Attributes.Name.SEALED, "true");
+		}
 		jarOutputStream.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
 		manifest.write(jarOutputStream);
 		jarOutputStream.closeEntry();
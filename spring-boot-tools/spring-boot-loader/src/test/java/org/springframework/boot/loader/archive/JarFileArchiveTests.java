@@ -19,7 +19,10 @@ package org.springframework.boot.loader.archive;
 import java.io.File;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -98,6 +101,31 @@ public class JarFileArchiveTests {
 		assertThat(nested.getUrl().toString(), endsWith(".jar"));
 	}
 
+	@Test
+	public void getNestedArchivesInParallel() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		TestJarCreator.createIndexedTestJar(file, getClass());
+		JarFileArchive archive = new JarFileArchive(file);
+		Archive.EntryFilter filter = new Archive.EntryFilter() {
+			@Override
+			public boolean matches(Entry entry) {
+				return entry.getName().toString().endsWith(".jar");
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Archive> nested = archive.getNestedArchives(filter, executor);
+			assertThat(nested.size(), equalTo(3));
+			List<Archive> expected = new JarFileArchive(file).getNestedArchives(filter);
+			for (int i = 0; i < nested.size(); i++) {
+				assertThat(nested.get(i).getUrl(), equalTo(expected.get(i).getUrl()));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void getFilteredArchive() throws Exception {
 		Archive filteredArchive = this.archive
@@ -20,10 +20,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -235,6 +235,17 @@ public class RandomAccessDataFileTests {
 		assertThat(subsection.getInputStream(ResourceAccess.PER_READ).read(), equalTo(1));
 	}
 
+	@Test
+	public void mapSubsection() throws Exception {
+		RandomAccessData mapped = ((RandomAccessDataFile) this.file.getSubsection(1, 4))
+				.map().getSubsection(1, 2);
+		assertThat(mapped.getSize(), equalTo(2L));
+		InputStream inputStream = mapped.getInputStream(ResourceAccess.PER_READ);
+		assertThat(inputStream.read(), equalTo(2));
+		assertThat(inputStream.read(), equalTo(3));
+		assertThat(inputStream.read(), equalTo(-1));
+	}
+
 	@Test
 	public void inputStreamReadPastSubsection() throws Exception {
 		RandomAccessData subsection = this.file.getSubsection(1, 2);
@@ -295,17 +306,40 @@ public class RandomAccessDataFileTests {
 		}
 	}
 
+	@Test
+	public void interruptedRead() throws Exception {
+		this.file.getInputStream(ResourceAccess.PER_READ).read();
+		Thread.currentThread().interrupt();
+		try {
+			assertThat(this.file.getSubsection(1, 1)
+					.getInputStream(ResourceAccess.PER_READ).read(), equalTo(1));
+		}
+		finally {
+			Thread.interrupted();
+		}
+		assertThat(this.file.getSubsection(2, 1).getInputStream(ResourceAccess.PER_READ)
+				.read(), equalTo(2));
+	}
+
 	@Test
 	public void close() throws Exception {
 		this.file.getInputStream(ResourceAccess.PER_READ).read();
 		this.file.close();
-		Field filePoolField = RandomAccessDataFile.class.getDeclaredField("filePool");
-		filePoolField.setAccessible(true);
-		Object filePool = filePoolField.get(this.file);
-		Field filesField = filePool.getClass().getDeclaredField("files");
-		filesField.setAccessible(true);
-		Queue<?> queue = (Queue<?>) filesField.get(filePool);
-		assertThat(queue.size(), equalTo(0));
+		Field fileAccessField = RandomAccessDataFile.class.getDeclaredField("fileAccess");
+		fileAccessField.setAccessible(true);
+		Object fileAccess = fileAccessField.get(this.file);
+		Field channelField = fileAccess.getClass().getDeclaredField("channel");
+		channelField.setAccessible(true);
+		FileChannel channel = (FileChannel) channelField.get(fileAccess);
+		assertThat(channel.isOpen(), equalTo(false));
+	}
+
+	@Test
+	public void readAfterClose() throws Exception {
+		this.file.getInputStream(ResourceAccess.PER_READ).read();
+		this.file.close();
+		assertThat(this.file.getSubsection(3, 1).getInputStream(ResourceAccess.PER_READ)
+				.read(), equalTo(3));
 	}
 
 	private static Matcher<? super byte[]> startsWith(byte[] bytes) {
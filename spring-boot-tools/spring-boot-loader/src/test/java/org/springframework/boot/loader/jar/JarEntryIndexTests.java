@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link JarEntryIndex}.
+ *
+ * @author Phillip Webb
+ */
+public class JarEntryIndexTests {
+
+	@Test
+	public void findsAllPositions() throws Exception {
+		int[] hashes = new int[1000];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = ("entry" + i).hashCode();
+		}
+		JarEntryIndex index = new JarEntryIndex(hashes, hashes.length);
+		for (int i = 0; i < hashes.length; i++) {
+			assertThat(find(index, hashes[i]).contains(i), equalTo(true));
+		}
+		assertThat(find(index, "missing".hashCode()).size(), equalTo(0));
+	}
+
+	@Test
+	public void collidingHashes() throws Exception {
+		int[] hashes = new int[] { 42, 7, 42, 42 };
+		JarEntryIndex index = new JarEntryIndex(hashes, hashes.length);
+		List<Integer> positions = find(index, 42);
+		assertThat(positions.size(), equalTo(3));
+		assertThat(positions.contains(0) && positions.contains(2)
+				&& positions.contains(3), equalTo(true));
+		assertThat(find(index, 7).size(), equalTo(1));
+	}
+
+	@Test
+	public void emptyIndex() throws Exception {
+		JarEntryIndex index = new JarEntryIndex(new int[0], 0);
+		assertThat(find(index, 42).size(), equalTo(0));
+	}
+
+	private List<Integer> find(JarEntryIndex index, int hash) {
+		List<Integer> positions = new ArrayList<Integer>();
+		int slot = index.getSlot(hash);
+		int position = index.getPosition(slot, hash);
+		while (position != -2) {
+			if (position >= 0) {
+				positions.add(position);
+			}
+			slot = index.getNextSlot(slot);
+			position = index.getPosition(slot, hash);
+		}
+		return positions;
+	}
+
+}
@@ -22,11 +22,13 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.Charset;
 import java.util.Enumeration;
 import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 
@@ -279,6 +281,44 @@ public class JarFileTests {
 				sameInstance(nestedJarFile));
 	}
 
+	@Test
+	public void getNestedJarDirectoryOfDirectory() throws Exception {
+		File file = this.temporaryFolder.newFile();
+		JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+		try {
+			jarOutputStream.putNextEntry(new JarEntry("a/"));
+			jarOutputStream.putNextEntry(new JarEntry("a/META-INF/MANIFEST.MF"));
+			new Manifest().write(jarOutputStream);
+			jarOutputStream.putNextEntry(new JarEntry("a/1.dat"));
+			jarOutputStream.write(1);
+			jarOutputStream.putNextEntry(new JarEntry("a/b/"));
+			jarOutputStream.putNextEntry(new JarEntry("a/b/2.dat"));
+			jarOutputStream.write(2);
+			jarOutputStream.putNextEntry(new JarEntry("ab/3.dat"));
+			jarOutputStream.write(3);
+		}
+		finally {
+			jarOutputStream.close();
+		}
+		JarFile jarFile = new JarFile(file);
+		JarFile directory = jarFile.getNestedJarFile(jarFile.getEntry("a/"));
+		assertThat(directory.getManifest(), notNullValue());
+		assertThat(directory.getEntry("1.dat"), notNullValue());
+		assertThat(directory.getEntry("ab/3.dat"), nullValue());
+		assertThat(directory.getEntry("3.dat"), nullValue());
+		JarFile nestedDirectory = directory.getNestedJarFile(directory.getEntry("b/"));
+		Enumeration<java.util.jar.JarEntry> entries = nestedDirectory.entries();
+		assertThat(entries.nextElement().getName(), equalTo("2.dat"));
+		assertThat(entries.hasMoreElements(), equalTo(false));
+		InputStream inputStream = nestedDirectory.getInputStream(nestedDirectory
+				.getEntry("2.dat"));
+		assertThat(inputStream.read(), equalTo(2));
+		assertThat(inputStream.read(), equalTo(-1));
+		assertThat(nestedDirectory.getUrl().toString(), equalTo("jar:" + file.toURI()
+				+ "!/a!/b!/"));
+		jarFile.close();
+	}
+
 	@Test
 	public void getNestJarEntryUrl() throws Exception {
 		JarFile nestedJarFile = this.jarFile.getNestedJarFile(this.jarFile
@@ -322,6 +362,34 @@ public class JarFileTests {
 		assertThat(connection.getEntryName(), equalTo("2.dat"));
 	}
 
+	@Test
+	public void storedEntryFromUrl() throws Exception {
+		JarFile.registerUrlProtocolHandler();
+		URL url = new URL("jar:" + this.rootJarFile.toURI() + "!/nested.jar");
+		JarURLConnection connection = (JarURLConnection) url.openConnection();
+		assertThat(connection.getStoredEntryFile(), equalTo(this.rootJarFile));
+		byte[] expected = StreamUtils.copyToByteArray(connection.getInputStream());
+		byte[] actual = new byte[expected.length];
+		RandomAccessFile file = new RandomAccessFile(this.rootJarFile, "r");
+		try {
+			file.seek(connection.getStoredEntryOffset());
+			file.readFully(actual);
+		}
+		finally {
+			file.close();
+		}
+		assertThat(actual, equalTo(expected));
+	}
+
+	@Test
+	public void compressedEntryFromUrlIsNotStored() throws Exception {
+		JarFile.registerUrlProtocolHandler();
+		URL url = new URL("jar:" + this.rootJarFile.toURI() + "!/2.dat");
+		JarURLConnection connection = (JarURLConnection) url.openConnection();
+		assertThat(connection.getStoredEntryFile(), nullValue());
+		assertThat(connection.getStoredEntryOffset(), equalTo(-1L));
+	}
+
 	@Test
 	public void getDirectoryInputStream() throws Exception {
 		InputStream inputStream = this.jarFile
@@ -407,6 +475,40 @@ public class JarFileTests {
 		getNestedJarFile();
 	}
 
+	@Test
+	public void largeJarFile() throws Exception {
+		// Large enough for the central directory to be memory mapped
+		File file = this.temporaryFolder.newFile();
+		JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+		try {
+			for (int i = 0; i < 5000; i++) {
+				jarOutputStream.putNextEntry(new JarEntry("com/example/p" + (i / 100)
+						+ "/Example" + i + ".class"));
+				jarOutputStream.write(new byte[] { (byte) i });
+				jarOutputStream.closeEntry();
+			}
+		}
+		finally {
+			jarOutputStream.close();
+		}
+		JarFile jarFile = new JarFile(file);
+		int count = 0;
+		for (JarEntryData entry : jarFile) {
+			assertThat(entry.getName().toString(), equalTo("com/example/p"
+					+ (count / 100) + "/Example" + count + ".class"));
+			count++;
+		}
+		assertThat(count, equalTo(5000));
+		JarEntry entry = jarFile.getJarEntry("com/example/p49/Example4999.class");
+		assertThat(entry, notNullValue());
+		assertThat(jarFile.getInputStream(entry).read(), equalTo(4999 & 0xFF));
+		assertThat(jarFile.getJarEntryData("com/example/p49/Example4999.class"),
+				sameInstance(jarFile.getJarEntryData("com/example/p49/Example4999.class")));
+		assertThat(jarFile.getJarEntry("com/example/p50/Example5000.class"),
+				nullValue());
+		jarFile.close();
+	}
+
 	@Test
 	public void cannotLoadMissingJar() throws Exception {
 		// relates to gh-1070
@@ -124,6 +124,24 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 	@Parameter
 	private List<Dependency> requiresUnpack;
 
+	/**
+	 * Evaluate the class conditions of auto-configuration classes against the packaged
+	 * dependencies so that those that can never match are skipped at startup. Only
+	 * use this if the archive is run with the same dependencies that it was packaged
+	 * with.
+	 * @since 1.2
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean precomputeConditions;
+
+	/**
+	 * Write an index of the packages in each nested library so that the launcher can
+	 * load classes without searching every library.
+	 * @since 1.2
+	 */
+	@Parameter(defaultValue = "false")
+	private boolean writeClassPathIndex;
+
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if (this.project.getPackaging().equals("pom")) {
@@ -156,6 +174,8 @@ public class RepackageMojo extends AbstractDependencyFilterMojo {
 			}
 		};
 		repackager.setMainClass(this.mainClass);
+		repackager.setPrecomputeConditions(this.precomputeConditions);
+		repackager.setWriteClassPathIndex(this.writeClassPathIndex);
 		if (this.layout != null) {
 			getLog().info("Layout: " + this.layout);
 			repackager.setLayout(this.layout.layout());
@@ -18,6 +18,7 @@ package org.springframework.boot.bind;
 
 import java.beans.PropertyDescriptor;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
@@ -34,6 +35,7 @@ import org.springframework.context.MessageSourceAware;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.PropertySources;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.DataBinder;
@@ -277,7 +279,20 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
 			return new MutablePropertyValues(this.properties);
 		}
 		return new PropertySourcesPropertyValues(this.propertySources,
-				new DefaultPropertyNamePatternsMatcher(names), names);
+				new DefaultPropertyNamePatternsMatcher(names), names, getPrefixes());
+	}
+
+	private PropertyNamePatternsMatcher getPrefixes() {
+		if (!StringUtils.hasLength(this.targetName)) {
+			return null;
+		}
+		// Same candidates as the RelaxedDataBinder so that only properties that the
+		// binder would consider are resolved
+		Set<String> patterns = new LinkedHashSet<String>();
+		for (String candidate : new RelaxedNames(this.targetName + ".")) {
+			patterns.add(candidate + "*");
+		}
+		return new SimplePropertyNamePatternsMatcher(patterns);
 	}
 
 	private void validate(RelaxedDataBinder dataBinder) throws BindException {
@@ -81,6 +81,21 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 	 */
 	PropertySourcesPropertyValues(PropertySources propertySources,
 			PropertyNamePatternsMatcher includes, Collection<String> names) {
+		this(propertySources, includes, names, null);
+	}
+
+	/**
+	 * Create a new PropertyValues from the given PropertySources
+	 * @param propertySources a PropertySources instance
+	 * @param includes property name patterns to include from system properties and
+	 * environment variables
+	 * @param names exact property names to include
+	 * @param prefixes property name patterns that enumerable property names must match
+	 * before they are resolved (for instance the relaxed prefixes of the binding target)
+	 */
+	PropertySourcesPropertyValues(PropertySources propertySources,
+			PropertyNamePatternsMatcher includes, Collection<String> names,
+			PropertyNamePatternsMatcher prefixes) {
 		this.propertySources = propertySources;
 		if (includes == null) {
 			includes = PropertyNamePatternsMatcher.NONE;
@@ -88,23 +103,27 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 		if (names == null) {
 			names = Collections.emptySet();
 		}
+		if (prefixes == null) {
+			prefixes = PropertyNamePatternsMatcher.ALL;
+		}
 		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
 				propertySources);
 		for (PropertySource<?> source : propertySources) {
-			processPropertySource(source, resolver, includes, names);
+			processPropertySource(source, resolver, includes, names, prefixes);
 		}
 	}
 
 	private void processPropertySource(PropertySource<?> source,
 			PropertySourcesPropertyResolver resolver,
-			PropertyNamePatternsMatcher includes, Collection<String> exacts) {
+			PropertyNamePatternsMatcher includes, Collection<String> exacts,
+			PropertyNamePatternsMatcher prefixes) {
 		if (source instanceof EnumerablePropertySource) {
 			processEnumerablePropertySource((EnumerablePropertySource<?>) source,
-					resolver, includes, exacts);
+					resolver, includes, exacts, prefixes);
 		}
 		else if (source instanceof CompositePropertySource) {
 			processCompositePropertySource((CompositePropertySource) source, resolver,
-					includes, exacts);
+					includes, exacts, prefixes);
 		}
 		else {
 			// We can only do exact matches for non-enumerable property names, but
@@ -115,33 +134,35 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 
 	private void processEnumerablePropertySource(EnumerablePropertySource<?> source,
 			PropertySourcesPropertyResolver resolver,
-			PropertyNamePatternsMatcher includes, Collection<String> exacts) {
-		if (source.getPropertyNames().length > 0) {
-			for (String propertyName : source.getPropertyNames()) {
-				if (PropertySourcesPropertyValues.PATTERN_MATCHED_PROPERTY_SOURCES
-						.contains(source.getName()) && !includes.matches(propertyName)) {
-					continue;
-				}
-				Object value = source.getProperty(propertyName);
-				try {
-					value = resolver.getProperty(propertyName);
-				}
-				catch (RuntimeException ex) {
-					// Probably could not resolve placeholders, ignore it here
-				}
-				if (!this.propertyValues.containsKey(propertyName)) {
-					this.propertyValues.put(propertyName, new PropertyValue(propertyName,
-							value));
-				}
+			PropertyNamePatternsMatcher includes, Collection<String> exacts,
+			PropertyNamePatternsMatcher prefixes) {
+		boolean patternMatched = PropertySourcesPropertyValues.PATTERN_MATCHED_PROPERTY_SOURCES
+				.contains(source.getName());
+		for (String propertyName : source.getPropertyNames()) {
+			// Check the cheap conditions first so that placeholders are only
+			// resolved for properties that will actually be used
+			if (this.propertyValues.containsKey(propertyName)
+					|| !prefixes.matches(propertyName)
+					|| (patternMatched && !includes.matches(propertyName))) {
+				continue;
+			}
+			Object value = source.getProperty(propertyName);
+			try {
+				value = resolver.getProperty(propertyName);
 			}
+			catch (RuntimeException ex) {
+				// Probably could not resolve placeholders, ignore it here
+			}
+			this.propertyValues.put(propertyName, new PropertyValue(propertyName, value));
 		}
 	}
 
 	private void processCompositePropertySource(CompositePropertySource source,
 			PropertySourcesPropertyResolver resolver,
-			PropertyNamePatternsMatcher includes, Collection<String> exacts) {
+			PropertyNamePatternsMatcher includes, Collection<String> exacts,
+			PropertyNamePatternsMatcher prefixes) {
 		for (PropertySource<?> nested : source.getPropertySources()) {
-			processPropertySource(nested, resolver, includes, exacts);
+			processPropertySource(nested, resolver, includes, exacts, prefixes);
 		}
 	}
 
@@ -161,9 +161,10 @@ public class RelaxedDataBinder extends DataBinder {
 			return propertyValues;
 		}
 		MutablePropertyValues rtn = new MutablePropertyValues();
+		RelaxedNames candidates = new RelaxedNames(this.namePrefix);
 		for (PropertyValue value : propertyValues.getPropertyValues()) {
 			String name = value.getName();
-			for (String candidate : new RelaxedNames(this.namePrefix)) {
+			for (String candidate : candidates) {
 				if (name.startsWith(candidate)) {
 					name = name.substring(candidate.length());
 					if (!(this.ignoreNestedProperties && name.contains("."))) {
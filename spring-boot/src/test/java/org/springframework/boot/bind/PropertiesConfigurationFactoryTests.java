@@ -17,6 +17,8 @@
 package org.springframework.boot.bind;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.validation.Validation;
 import javax.validation.constraints.NotNull;
@@ -24,6 +26,8 @@ import javax.validation.constraints.NotNull;
 import org.junit.Test;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.validation.BindException;
@@ -110,6 +114,24 @@ public class PropertiesConfigurationFactoryTests {
 		assertEquals("blah", foo.bar);
 	}
 
+	@Test
+	public void testBindToNamedTargetFromPropertySources() throws Exception {
+		this.targetName = "foo";
+		setupFactory();
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("hi", "${unknown}");
+		map.put("greeting", "blah");
+		map.put("FOO_NAME", "foo");
+		map.put("foo.bar", "${greeting}");
+		MutablePropertySources propertySources = new MutablePropertySources();
+		propertySources.addFirst(new MapPropertySource("test", map));
+		this.factory.setPropertySources(propertySources);
+		this.factory.afterPropertiesSet();
+		Foo foo = this.factory.getObject();
+		assertEquals("foo", foo.name);
+		assertEquals("blah", foo.bar);
+	}
+
 	private Foo createFoo(final String values) throws Exception {
 		setupFactory();
 		return bindFoo(values);
@@ -16,8 +16,11 @@
 
 package org.springframework.boot.bind;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -113,6 +116,21 @@ public class PropertySourcesPropertyValuesTests {
 		assertEquals("spam", propertyValues.getPropertyValue("name").getValue());
 	}
 
+	@Test
+	public void testPrefixedValues() {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("foo.name", "${foo}");
+		map.put("FOO_AGE", "12");
+		map.put("bar.name", "${missing}");
+		this.propertySources.addFirst(new MapPropertySource("prefixed", map));
+		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
+				this.propertySources, null, null, new SimplePropertyNamePatternsMatcher(
+						Arrays.asList("foo.*", "FOO_*")));
+		assertEquals(2, propertyValues.getPropertyValues().length);
+		assertEquals("bar", propertyValues.getPropertyValue("foo.name").getValue());
+		assertEquals("12", propertyValues.getPropertyValue("FOO_AGE").getValue());
+	}
+
 	@Test
 	public void testPlaceholdersBinding() {
 		TestBean target = new TestBean();
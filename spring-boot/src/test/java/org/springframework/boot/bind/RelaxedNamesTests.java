@@ -46,6 +46,23 @@ public class RelaxedNamesTests {
 		assertThat(iterator.hasNext(), equalTo(false));
 	}
 
+	@Test
+	public void repeatedNamesHaveSameVariations() throws Exception {
+		Iterator<String> first = new RelaxedNames("my-cached-property").iterator();
+		Iterator<String> second = new RelaxedNames("my-cached-property").iterator();
+		while (first.hasNext()) {
+			assertThat(second.next(), equalTo(first.next()));
+		}
+		assertThat(second.hasNext(), equalTo(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void variationsCannotBeModified() throws Exception {
+		Iterator<String> iterator = new RelaxedNames("my-property").iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
 	@Test
 	public void fromUnderscores() throws Exception {
 		Iterator<String> iterator = new RelaxedNames("nes_ted").iterator();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.type.classreading;
+
+import org.junit.Test;
+import org.springframework.core.type.classreading.MetadataReader;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ConcurrentReferenceCachingMetadataReaderFactory}.
+ *
+ * @author Phillip Webb
+ */
+public class ConcurrentReferenceCachingMetadataReaderFactoryTests {
+
+	private final ConcurrentReferenceCachingMetadataReaderFactory factory = new ConcurrentReferenceCachingMetadataReaderFactory();
+
+	@Test
+	public void getMetadataReaderUsesCache() throws Exception {
+		MetadataReader metadataReader = this.factory.getMetadataReader(getClass()
+				.getName());
+		assertThat(metadataReader.getClassMetadata().getClassName(),
+				equalTo(getClass().getName()));
+		assertThat(this.factory.getMetadataReader(getClass().getName()),
+				sameInstance(metadataReader));
+	}
+
+	@Test
+	public void clearResetsCache() throws Exception {
+		MetadataReader metadataReader = this.factory.getMetadataReader(getClass()
+				.getName());
+		this.factory.clearCache();
+		assertThat(this.factory.getMetadataReader(getClass().getName()),
+				not(sameInstance(metadataReader)));
+	}
+
+}